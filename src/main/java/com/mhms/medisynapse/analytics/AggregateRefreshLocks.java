@@ -0,0 +1,120 @@
+package com.mhms.medisynapse.analytics;
+
+import com.mhms.medisynapse.repository.AggregateRefreshLockRepository;
+import com.mhms.medisynapse.scheduling.HospitalClock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+/**
+ * Serializes recomputations of the derived tables (appointment rollups, revenue ledgers) across nodes through row
+ * locks on {@code aggregate_refresh_lock}.
+ * <p>
+ * A refresh of one scope within a day (a doctor-day, a hospital-day) holds the day's key in shared mode and its own
+ * key exclusively, so refreshes of different scopes run side by side while two refreshes of the same scope queue.
+ * A rebuild of a whole day holds the day's key exclusively and so waits for, and blocks, every refresh of that day.
+ * Keys are always taken day first, which keeps the lock order the same in every transaction.
+ * <p>
+ * Work runs in its own READ COMMITTED transaction: the delete and {@code INSERT ... SELECT} pairs then neither take
+ * gap locks on the derived table nor share-lock the source rows they read, which is what otherwise deadlocks them
+ * against concurrent bookings and payments. Because each statement reads the latest committed rows, a recomputation
+ * that starts after the locks are granted sees every write committed before it. Deadlocks and lock wait timeouts
+ * that still happen are retried.
+ */
+@Component
+@Slf4j
+public class AggregateRefreshLocks {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final AggregateRefreshLockRepository lockRepository;
+    private final HospitalClock hospitalClock;
+    private final TransactionTemplate writeTransaction;
+    private final TransactionTemplate holdTransaction;
+
+    public AggregateRefreshLocks(AggregateRefreshLockRepository lockRepository,
+                                 HospitalClock hospitalClock,
+                                 PlatformTransactionManager transactionManager) {
+        this.lockRepository = lockRepository;
+        this.hospitalClock = hospitalClock;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.writeTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.holdTransaction = new TransactionTemplate(transactionManager);
+        this.holdTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Runs {@code work} in a new transaction holding {@code dayKey} shared and {@code scopeKey} exclusively.
+     */
+    public <T> T refresh(String dayKey, String scopeKey, Supplier<T> work) {
+        return withRetry(scopeKey, () -> writeTransaction.execute(status -> {
+            LocalDateTime now = hospitalClock.now();
+            lockRepository.insertIfAbsent(dayKey, now);
+            lockRepository.lockShared(dayKey);
+            lockRepository.lockExclusive(scopeKey, now);
+            return work.get();
+        }));
+    }
+
+    /**
+     * Runs {@code work} in a new transaction holding {@code dayKey} exclusively.
+     */
+    public <T> T rebuild(String dayKey, Supplier<T> work) {
+        return withRetry(dayKey, () -> writeTransaction.execute(status -> {
+            lockRepository.lockExclusive(dayKey, hospitalClock.now());
+            return work.get();
+        }));
+    }
+
+    /**
+     * Runs {@code work} while holding {@code key} exclusively, unless another node already holds it. The lock is
+     * held by a transaction of its own for as long as {@code work} runs, so {@code work} must open its own
+     * transactions. Returns whether {@code work} ran.
+     */
+    public boolean runIfFree(String key, Runnable work) {
+        // Inserting over a held key would wait for its holder, so the key is only inserted when a plain read misses it
+        writeTransaction.executeWithoutResult(status -> {
+            if (!lockRepository.existsById(key)) {
+                lockRepository.insertIfAbsent(key, hospitalClock.now());
+            }
+        });
+        Boolean ran = holdTransaction.execute(status -> {
+            if (lockRepository.tryLockExclusive(key).isEmpty()) {
+                return false;
+            }
+            // Marks the key as in use so the purge does not queue behind it
+            lockRepository.lockExclusive(key, hospitalClock.now());
+            work.run();
+            return true;
+        });
+        return Boolean.TRUE.equals(ran);
+    }
+
+    /**
+     * Deletes keys last taken exclusively before {@code cutoff}; a deleted key is simply recreated when next needed.
+     */
+    public int purgeOlderThan(LocalDateTime cutoff) {
+        Integer deleted = writeTransaction.execute(status -> lockRepository.deleteOlderThan(cutoff));
+        return deleted != null ? deleted : 0;
+    }
+
+    private static <T> T withRetry(String key, Supplier<T> attempt) {
+        for (int i = 1; ; i++) {
+            try {
+                return attempt.get();
+            } catch (ConcurrencyFailureException e) {
+                if (i == MAX_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Retrying recomputation under {}", key, e);
+            }
+        }
+    }
+}
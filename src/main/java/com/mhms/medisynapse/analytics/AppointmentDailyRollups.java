@@ -0,0 +1,156 @@
+package com.mhms.medisynapse.analytics;
+
+import com.mhms.medisynapse.event.AppointmentChangedEvent;
+import com.mhms.medisynapse.repository.AppointmentDailyRollupRepository;
+import com.mhms.medisynapse.repository.AppointmentRepository;
+import com.mhms.medisynapse.scheduling.HospitalClock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executor;
+
+/**
+ * Maintains the {@code appointment_daily_rollup} table that appointment statistics are summed from.
+ * <p>
+ * After every appointment write the doctor's affected days are recomputed from the appointment table, on the
+ * aggregate refresh pool rather than the committing thread. The event does not carry the previous status or type, so
+ * a doctor-day is rebuilt as a whole rather than adjusted by a delta; that is one small indexed query per day and
+ * makes the update idempotent. A nightly job rebuilds the days around today to repair anything a missed event left
+ * behind, and an empty table is backfilled from the full appointment history in the background on startup.
+ * Refreshes, rebuilds and the backfill are serialized across nodes through {@link AggregateRefreshLocks}.
+ */
+@Component
+@Slf4j
+public class AppointmentDailyRollups {
+
+    private static final String LOCK_PREFIX = "appointment-rollup:";
+    private static final String BACKFILL_LOCK = LOCK_PREFIX + "backfill";
+    private static final String RECONCILE_LOCK = LOCK_PREFIX + "reconcile";
+
+    private final AppointmentDailyRollupRepository rollupRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final HospitalClock hospitalClock;
+    private final AggregateRefreshLocks refreshLocks;
+    private final Executor refreshExecutor;
+    private final Executor backfillExecutor;
+
+    @Value("${appointment-rollups.reconcile-days:31}")
+    private long reconcileDays;
+
+    public AppointmentDailyRollups(AppointmentDailyRollupRepository rollupRepository,
+                                   AppointmentRepository appointmentRepository,
+                                   HospitalClock hospitalClock,
+                                   AggregateRefreshLocks refreshLocks,
+                                   @Qualifier("aggregateRefreshExecutor") Executor refreshExecutor,
+                                   @Qualifier("backfillExecutor") Executor backfillExecutor) {
+        this.rollupRepository = rollupRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.hospitalClock = hospitalClock;
+        this.refreshLocks = refreshLocks;
+        this.refreshExecutor = refreshExecutor;
+        this.backfillExecutor = backfillExecutor;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        if (event.getDoctorId() == null || event.getAffectedDates() == null) {
+            return;
+        }
+        for (LocalDate day : event.getAffectedDates()) {
+            try {
+                refreshExecutor.execute(() -> {
+                    try {
+                        refreshDoctorDay(event.getDoctorId(), day);
+                    } catch (RuntimeException e) {
+                        // The nightly rebuild repairs the day; the appointment write itself has already committed
+                        log.error("Failed to refresh appointment rollup for doctor {} on {}",
+                                event.getDoctorId(), day, e);
+                    }
+                });
+            } catch (TaskRejectedException e) {
+                log.warn("Skipped appointment rollup refresh for doctor {} on {}; the nightly rebuild repairs it",
+                        event.getDoctorId(), day);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        backfillExecutor.execute(() -> {
+            try {
+                // Only the node holding the backfill lock runs it; the others' rollups fill in from its work
+                boolean ran = refreshLocks.runIfFree(BACKFILL_LOCK, () -> {
+                    if (rollupRepository.count() > 0) {
+                        return;
+                    }
+                    LocalDateTime earliest = appointmentRepository.findEarliestStartTime();
+                    LocalDateTime latest = appointmentRepository.findLatestStartTime();
+                    if (earliest == null || latest == null) {
+                        return;
+                    }
+                    log.info("Appointment rollups are empty; backfilling {} to {}",
+                            earliest.toLocalDate(), latest.toLocalDate());
+                    rebuild(earliest.toLocalDate(), latest.toLocalDate());
+                });
+                if (!ran) {
+                    log.info("Appointment rollup backfill is running on another node");
+                }
+            } catch (RuntimeException e) {
+                log.error("Appointment rollup backfill failed; the nightly rebuild covers the recent days", e);
+            }
+        });
+    }
+
+    @Scheduled(cron = "${appointment-rollups.reconcile-cron:0 30 2 * * *}")
+    public void reconcileRecentDays() {
+        LocalDate today = hospitalClock.today();
+        boolean ran = refreshLocks.runIfFree(RECONCILE_LOCK, () -> {
+            rebuild(today.minusDays(reconcileDays), today.plusDays(reconcileDays));
+            // Keys of days outside the rebuilt window have not been taken exclusively for a while
+            int purged = refreshLocks.purgeOlderThan(hospitalClock.startOfDay(today.minusDays(reconcileDays)));
+            log.debug("Purged {} refresh locks", purged);
+        });
+        if (!ran) {
+            log.info("Appointment rollup reconcile is running on another node");
+        }
+    }
+
+    /**
+     * Rebuilds every hospital's rollups for {@code [fromDate, toDate]}, one transaction per day.
+     */
+    public void rebuild(LocalDate fromDate, LocalDate toDate) {
+        long rows = 0;
+        for (LocalDate day = fromDate; !day.isAfter(toDate); day = day.plusDays(1)) {
+            LocalDate rebuiltDay = day;
+            Integer inserted = refreshLocks.rebuild(dayLock(rebuiltDay), () -> {
+                rollupRepository.deleteDay(rebuiltDay);
+                return rollupRepository.insertDay(rebuiltDay, hospitalClock.startOfDay(rebuiltDay),
+                        hospitalClock.startOfNextDay(rebuiltDay));
+            });
+            rows += inserted != null ? inserted : 0;
+        }
+        log.info("Rebuilt appointment rollups for {} to {} ({} rows)", fromDate, toDate, rows);
+    }
+
+    private void refreshDoctorDay(Long doctorId, LocalDate day) {
+        refreshLocks.refresh(dayLock(day), dayLock(day) + ":doctor:" + doctorId, () -> {
+            rollupRepository.deleteDoctorDay(doctorId, day);
+            return rollupRepository.insertDoctorDay(doctorId, day, hospitalClock.startOfDay(day),
+                    hospitalClock.startOfNextDay(day));
+        });
+    }
+
+    private static String dayLock(LocalDate day) {
+        return LOCK_PREFIX + day;
+    }
+}
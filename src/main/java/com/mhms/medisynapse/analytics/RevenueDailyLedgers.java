@@ -0,0 +1,150 @@
+package com.mhms.medisynapse.analytics;
+
+import com.mhms.medisynapse.event.BillingLedgerChangedEvent;
+import com.mhms.medisynapse.repository.BillingRepository;
+import com.mhms.medisynapse.repository.RevenueDailyLedgerRepository;
+import com.mhms.medisynapse.scheduling.HospitalClock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.concurrent.Executor;
+
+/**
+ * Maintains the {@code revenue_daily_ledger} table that revenue analytics are summed from.
+ * <p>
+ * Like {@link AppointmentDailyRollups}, each billing, payment, refund or settlement write recomputes the hospital's
+ * affected days from the source tables on the aggregate refresh pool instead of applying a delta, so voids, bill
+ * edits and redelivered events cannot push the ledger out of balance. A nightly job rebuilds the recent days to
+ * repair anything a missed event left behind, and an empty table is backfilled from the full billing history in the
+ * background on startup. Hospital-day refreshes, whole-day rebuilds and the backfill are serialized across nodes
+ * through {@link AggregateRefreshLocks}.
+ */
+@Component
+@Slf4j
+public class RevenueDailyLedgers {
+
+    private static final String LOCK_PREFIX = "revenue-ledger:";
+    private static final String BACKFILL_LOCK = LOCK_PREFIX + "backfill";
+    private static final String RECONCILE_LOCK = LOCK_PREFIX + "reconcile";
+
+    private final RevenueDailyLedgerRepository ledgerRepository;
+    private final BillingRepository billingRepository;
+    private final HospitalClock hospitalClock;
+    private final AggregateRefreshLocks refreshLocks;
+    private final Executor refreshExecutor;
+    private final Executor backfillExecutor;
+
+    @Value("${revenue-ledgers.reconcile-days:62}")
+    private long reconcileDays;
+
+    public RevenueDailyLedgers(RevenueDailyLedgerRepository ledgerRepository,
+                               BillingRepository billingRepository,
+                               HospitalClock hospitalClock,
+                               AggregateRefreshLocks refreshLocks,
+                               @Qualifier("aggregateRefreshExecutor") Executor refreshExecutor,
+                               @Qualifier("backfillExecutor") Executor backfillExecutor) {
+        this.ledgerRepository = ledgerRepository;
+        this.billingRepository = billingRepository;
+        this.hospitalClock = hospitalClock;
+        this.refreshLocks = refreshLocks;
+        this.refreshExecutor = refreshExecutor;
+        this.backfillExecutor = backfillExecutor;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBillingLedgerChanged(BillingLedgerChangedEvent event) {
+        if (event.getHospitalId() == null || event.getAffectedDates() == null) {
+            return;
+        }
+        for (LocalDate day : event.getAffectedDates()) {
+            try {
+                refreshExecutor.execute(() -> {
+                    try {
+                        refreshHospitalDay(event.getHospitalId(), day);
+                    } catch (RuntimeException e) {
+                        // The nightly rebuild repairs the day; the billing write itself has already committed
+                        log.error("Failed to refresh revenue ledger for hospital {} on {}",
+                                event.getHospitalId(), day, e);
+                    }
+                });
+            } catch (TaskRejectedException e) {
+                log.warn("Skipped revenue ledger refresh for hospital {} on {}; the nightly rebuild repairs it",
+                        event.getHospitalId(), day);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        backfillExecutor.execute(() -> {
+            try {
+                // Only the node holding the backfill lock runs it; the others' ledgers fill in from its work
+                boolean ran = refreshLocks.runIfFree(BACKFILL_LOCK, () -> {
+                    if (ledgerRepository.count() > 0) {
+                        return;
+                    }
+                    LocalDate earliest = billingRepository.findEarliestBillDate();
+                    if (earliest == null) {
+                        return;
+                    }
+                    LocalDate today = hospitalClock.today();
+                    log.info("Revenue ledgers are empty; backfilling {} to {}", earliest, today);
+                    rebuild(earliest, today);
+                });
+                if (!ran) {
+                    log.info("Revenue ledger backfill is running on another node");
+                }
+            } catch (RuntimeException e) {
+                log.error("Revenue ledger backfill failed; the nightly rebuild covers the recent days", e);
+            }
+        });
+    }
+
+    @Scheduled(cron = "${revenue-ledgers.reconcile-cron:0 45 2 * * *}")
+    public void reconcileRecentDays() {
+        LocalDate today = hospitalClock.today();
+        boolean ran = refreshLocks.runIfFree(RECONCILE_LOCK, () -> rebuild(today.minusDays(reconcileDays), today));
+        if (!ran) {
+            log.info("Revenue ledger reconcile is running on another node");
+        }
+    }
+
+    /**
+     * Rebuilds every hospital's ledgers for {@code [fromDate, toDate]} from the billing tables, one transaction
+     * per day.
+     */
+    public void rebuild(LocalDate fromDate, LocalDate toDate) {
+        long rows = 0;
+        for (LocalDate day = fromDate; !day.isAfter(toDate); day = day.plusDays(1)) {
+            LocalDate rebuiltDay = day;
+            Integer inserted = refreshLocks.rebuild(dayLock(rebuiltDay), () -> {
+                ledgerRepository.deleteDay(rebuiltDay);
+                return ledgerRepository.insertDay(rebuiltDay, hospitalClock.startOfDay(rebuiltDay),
+                        hospitalClock.startOfNextDay(rebuiltDay));
+            });
+            rows += inserted != null ? inserted : 0;
+        }
+        log.info("Rebuilt revenue ledgers for {} to {} ({} rows)", fromDate, toDate, rows);
+    }
+
+    private void refreshHospitalDay(Long hospitalId, LocalDate day) {
+        refreshLocks.refresh(dayLock(day), dayLock(day) + ":hospital:" + hospitalId, () -> {
+            ledgerRepository.deleteHospitalDay(hospitalId, day);
+            return ledgerRepository.insertHospitalDay(hospitalId, day, hospitalClock.startOfDay(day),
+                    hospitalClock.startOfNextDay(day));
+        });
+    }
+
+    private static String dayLock(LocalDate day) {
+        return LOCK_PREFIX + day;
+    }
+}
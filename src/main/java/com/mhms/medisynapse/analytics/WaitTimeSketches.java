@@ -0,0 +1,240 @@
+package com.mhms.medisynapse.analytics;
+
+import com.mhms.medisynapse.entity.Appointment;
+import com.mhms.medisynapse.event.AppointmentChangedEvent;
+import com.mhms.medisynapse.repository.AppointmentRepository;
+import com.mhms.medisynapse.repository.DepartmentWaitTimeSketchRepository;
+import com.mhms.medisynapse.scheduling.HospitalClock;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.zip.DataFormatException;
+
+/**
+ * Per-department, per-hour HdrHistogram sketches of appointment wait times (scheduled start to check-in), stored in
+ * {@code department_wait_time_sketch} so every node answers from the same data.
+ * <p>
+ * Like the daily rollups, a sketch is never incremented: whenever an appointment changes after check-in, its
+ * department-hour is recomputed on the aggregate refresh pool from the appointment table while that row is locked,
+ * so redelivered events and concurrent writers on other nodes cannot count a wait twice or lose one. Percentiles
+ * over any window are answered by merging the hourly sketches in that window, without scanning appointments.
+ * Sketches older than {@code wait-time-sketches.retention-days} are purged, and an empty table is backfilled in the
+ * background on startup.
+ */
+@Component
+@Slf4j
+public class WaitTimeSketches {
+
+    // Values are seconds; two significant digits keeps each sketch small with ~1% error
+    private static final int SIGNIFICANT_DIGITS = 2;
+    // Lock waits and deadlocks between concurrent recomputations of the same hour are retried
+    private static final int MAX_ATTEMPTS = 3;
+    // Statuses an appointment can only reach through or after check-in
+    private static final Set<Appointment.AppointmentStatus> CHECKED_IN_STATUSES = EnumSet.of(
+            Appointment.AppointmentStatus.IN_PROGRESS,
+            Appointment.AppointmentStatus.COMPLETED);
+
+    private final DepartmentWaitTimeSketchRepository sketchRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final HospitalClock hospitalClock;
+    private final Executor refreshExecutor;
+    private final Executor backfillExecutor;
+    private final TransactionTemplate writeTransaction;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Value("${wait-time-sketches.retention-days:35}")
+    private long retentionDays;
+
+    public WaitTimeSketches(DepartmentWaitTimeSketchRepository sketchRepository,
+                            AppointmentRepository appointmentRepository,
+                            HospitalClock hospitalClock,
+                            @Qualifier("aggregateRefreshExecutor") Executor refreshExecutor,
+                            @Qualifier("backfillExecutor") Executor backfillExecutor,
+                            PlatformTransactionManager transactionManager) {
+        this.sketchRepository = sketchRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.hospitalClock = hospitalClock;
+        this.refreshExecutor = refreshExecutor;
+        this.backfillExecutor = backfillExecutor;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        backfillExecutor.execute(() -> {
+            try {
+                if (sketchRepository.count() > 0) {
+                    return;
+                }
+                // Recomputing is idempotent, so nodes starting together at worst repeat each other's work
+                LocalDateTime now = hospitalClock.now();
+                List<Object[]> rows = readOnlyTransaction.execute(status -> appointmentRepository
+                        .findCheckInTimesBetween(now.minusDays(retentionDays).truncatedTo(ChronoUnit.HOURS), now));
+                Set<DepartmentHour> hours = new LinkedHashSet<>();
+                for (Object[] row : rows != null ? rows : List.<Object[]>of()) {
+                    hours.add(new DepartmentHour((Long) row[0], ((LocalDateTime) row[1]).truncatedTo(ChronoUnit.HOURS)));
+                }
+                log.info("Wait-time sketches are empty; backfilling {} department-hours", hours.size());
+                hours.forEach(hour -> refreshHour(hour.departmentId(), hour.hour()));
+            } catch (RuntimeException e) {
+                log.error("Wait-time sketch backfill failed; sketches fill in as appointments are checked in", e);
+            }
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        if (event.getAppointmentId() == null || !CHECKED_IN_STATUSES.contains(event.getStatus())) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> refreshAppointmentHour(event.getAppointmentId()));
+        } catch (TaskRejectedException e) {
+            log.warn("Skipped wait-time sketch refresh for appointment {}; the next change in its hour recomputes it",
+                    event.getAppointmentId());
+        }
+    }
+
+    private void refreshAppointmentHour(Long appointmentId) {
+        DepartmentHour hour = readOnlyTransaction.execute(status -> appointmentRepository
+                .findById(appointmentId)
+                .filter(appointment -> appointment.getDepartment() != null && appointment.getCheckedInAt() != null)
+                .map(appointment -> new DepartmentHour(appointment.getDepartment().getId(),
+                        appointment.getStartTime().truncatedTo(ChronoUnit.HOURS)))
+                .orElse(null));
+        if (hour == null) {
+            return;
+        }
+        try {
+            refreshHour(hour.departmentId(), hour.hour());
+        } catch (RuntimeException e) {
+            // The appointment write has already committed; the next change in that hour recomputes it
+            log.error("Failed to refresh wait-time sketch for department {} at {}", hour.departmentId(), hour.hour(), e);
+        }
+    }
+
+    /**
+     * Recomputes the department's sketch for the hour starting at {@code hour} from the appointment table. The
+     * row lock is taken before the appointments are read, so the read sees every check-in committed before it.
+     */
+    public void refreshHour(Long departmentId, LocalDateTime hour) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                writeTransaction.executeWithoutResult(status -> {
+                    sketchRepository.lockHour(departmentId, hour, hospitalClock.now());
+                    Histogram sketch = newSketch();
+                    for (Object[] row : appointmentRepository.findCheckInTimesForDepartmentHour(
+                            departmentId, hour, hour.plusHours(1))) {
+                        record(sketch, (LocalDateTime) row[0], (LocalDateTime) row[1]);
+                    }
+                    sketchRepository.updateHour(departmentId, hour, sketch.getTotalCount(), encode(sketch));
+                });
+                return;
+            } catch (ConcurrencyFailureException e) {
+                if (attempt == MAX_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Retrying wait-time sketch refresh for department {} at {}", departmentId, hour, e);
+            }
+        }
+    }
+
+    /**
+     * Wait-time summaries per department for appointments scheduled in {@code [from, to)}, at hour granularity and
+     * read in one query. Departments without check-ins in the window are absent from the result.
+     */
+    public Map<Long, Summary> summarize(Collection<Long> departmentIds, LocalDateTime from, LocalDateTime to) {
+        if (departmentIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, Histogram> merged = new HashMap<>();
+        for (Object[] row : sketchRepository.findSketches(departmentIds, from.truncatedTo(ChronoUnit.HOURS), to)) {
+            merged.computeIfAbsent((Long) row[0], id -> newSketch()).add(decode((byte[]) row[1]));
+        }
+        Map<Long, Summary> summaries = new HashMap<>();
+        merged.forEach((departmentId, sketch) -> summaries.put(departmentId, new Summary(
+                sketch.getTotalCount(),
+                toMinutes(sketch.getMean()),
+                toMinutes(sketch.getValueAtPercentile(50.0)),
+                toMinutes(sketch.getValueAtPercentile(90.0)),
+                toMinutes(sketch.getValueAtPercentile(99.0)))));
+        return summaries;
+    }
+
+    @Scheduled(cron = "${wait-time-sketches.eviction-cron:0 5 * * * *}")
+    public void evictExpired() {
+        LocalDateTime cutoff = hospitalClock.now().minusDays(retentionDays).truncatedTo(ChronoUnit.HOURS);
+        Integer deleted = writeTransaction.execute(status -> sketchRepository.deleteOlderThan(cutoff));
+        log.debug("Purged {} wait-time sketches older than {}", deleted, cutoff);
+    }
+
+    /**
+     * Early check-ins are ignored, as in the department performance average.
+     */
+    private static void record(Histogram sketch, LocalDateTime startTime, LocalDateTime checkedInAt) {
+        Duration wait = Duration.between(startTime, checkedInAt);
+        if (!wait.isNegative()) {
+            sketch.recordValue(wait.getSeconds());
+        }
+    }
+
+    private static Histogram newSketch() {
+        // Auto-resizing, so no upper bound on the recorded wait is needed
+        return new Histogram(SIGNIFICANT_DIGITS);
+    }
+
+    private static byte[] encode(Histogram sketch) {
+        ByteBuffer buffer = ByteBuffer.allocate(sketch.getNeededByteBufferCapacity());
+        int length = sketch.encodeIntoCompressedByteBuffer(buffer);
+        return Arrays.copyOf(buffer.array(), length);
+    }
+
+    private static Histogram decode(byte[] bytes) {
+        try {
+            return Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(bytes), 0);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt wait-time sketch", e);
+        }
+    }
+
+    private static double toMinutes(double seconds) {
+        return Math.round(seconds / 60.0 * 10.0) / 10.0;
+    }
+
+    private record DepartmentHour(Long departmentId, LocalDateTime hour) {
+    }
+
+    public record Summary(long count, double mean, double p50, double p90, double p99) {
+        public static final Summary EMPTY = new Summary(0, 0.0, 0.0, 0.0, 0.0);
+    }
+}
@@ -0,0 +1,26 @@
+package com.mhms.medisynapse.cache;
+
+import java.time.LocalDate;
+
+/**
+ * Cache names and key builders shared by {@code @Cacheable} declarations and their invalidators.
+ */
+public final class CacheNames {
+
+    public static final String DOCTOR_AVAILABILITY = "doctorAvailability";
+    public static final String DEPARTMENT_LOAD = "departmentLoad";
+    public static final String DOCTOR_APPOINTMENT_COUNTERS = "doctorAppointmentCounters";
+    public static final String DEPARTMENT_PERFORMANCE = "departmentPerformance";
+    public static final String HOSPITAL_STATISTICS = "hospitalStatistics";
+
+    private CacheNames() {
+    }
+
+    public static String doctorAvailabilityKey(Long doctorId, LocalDate date) {
+        return doctorId + ":" + date;
+    }
+
+    public static String doctorAppointmentCountersKey(Long doctorId, LocalDate today) {
+        return doctorId + ":" + today;
+    }
+}
@@ -0,0 +1,36 @@
+package com.mhms.medisynapse.cache;
+
+import com.mhms.medisynapse.event.AppointmentChangedEvent;
+import com.mhms.medisynapse.scheduling.HospitalClock;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Evicts a doctor's cached dashboard/profile counters after any of their appointments is created, rescheduled,
+ * cancelled or has its status changed (including the doctor's own status updates and completions).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DoctorAppointmentCountersCacheInvalidator {
+
+    private final CacheManager cacheManager;
+    private final HospitalClock hospitalClock;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        Cache cache = cacheManager.getCache(CacheNames.DOCTOR_APPOINTMENT_COUNTERS);
+        if (cache == null || event.getDoctorId() == null) {
+            return;
+        }
+
+        // Entries are keyed per hospital day and only today's is ever read, so that is the one to drop
+        cache.evict(CacheNames.doctorAppointmentCountersKey(event.getDoctorId(), hospitalClock.today()));
+        log.debug("Evicted appointment counters cache for doctor {}", event.getDoctorId());
+    }
+}
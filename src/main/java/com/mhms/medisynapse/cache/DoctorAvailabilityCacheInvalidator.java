@@ -0,0 +1,37 @@
+package com.mhms.medisynapse.cache;
+
+import com.mhms.medisynapse.event.AppointmentChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+
+/**
+ * Evicts the cached availability of exactly the doctor-days touched by an appointment write. Each doctor-day is a
+ * single entry covering every slot interval cached for it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DoctorAvailabilityCacheInvalidator {
+
+    private final CacheManager cacheManager;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        Cache cache = cacheManager.getCache(CacheNames.DOCTOR_AVAILABILITY);
+        if (cache == null || event.getDoctorId() == null) {
+            return;
+        }
+
+        for (LocalDate date : event.getAffectedDates()) {
+            cache.evict(CacheNames.doctorAvailabilityKey(event.getDoctorId(), date));
+            log.debug("Evicted doctor availability cache for doctor {} on {}", event.getDoctorId(), date);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.mhms.medisynapse.cache;
+
+import com.mhms.medisynapse.event.HospitalChangedEvent;
+import com.mhms.medisynapse.service.HospitalService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Rebuilds the cached platform statistics snapshot after a hospital is created, updated or deleted, so the
+ * super-admin landing page keeps reading a warm cache entry.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HospitalStatisticsCacheRefresher {
+
+    private final CacheManager cacheManager;
+    private final HospitalService hospitalService;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onHospitalChanged(HospitalChangedEvent event) {
+        Cache cache = cacheManager.getCache(CacheNames.HOSPITAL_STATISTICS);
+        if (cache == null) {
+            return;
+        }
+        cache.clear();
+        try {
+            // Goes through the @Cacheable proxy, so the fresh snapshot is stored
+            hospitalService.getHospitalStatistics();
+            log.debug("Refreshed hospital statistics cache after change to hospital {}", event.getHospitalId());
+        } catch (RuntimeException e) {
+            // The next read recomputes the snapshot
+            log.warn("Failed to refresh hospital statistics cache after change to hospital {}",
+                    event.getHospitalId(), e);
+        }
+    }
+}
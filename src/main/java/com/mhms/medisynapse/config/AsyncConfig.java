@@ -0,0 +1,136 @@
+package com.mhms.medisynapse.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    @Value("${patient-history.executor.pool-size:16}")
+    private int patientHistoryPoolSize;
+
+    @Value("${appointment-search.executor.pool-size:4}")
+    private int appointmentSearchPoolSize;
+
+    @Value("${appointment-search.executor.queue-capacity:200}")
+    private int appointmentSearchQueueCapacity;
+
+    @Value("${dashboard.executor.pool-size:8}")
+    private int dashboardPoolSize;
+
+    @Value("${dashboard.executor.queue-capacity:100}")
+    private int dashboardQueueCapacity;
+
+    @Value("${live-updates.executor.pool-size:2}")
+    private int liveUpdatePoolSize;
+
+    @Value("${live-updates.executor.queue-capacity:1000}")
+    private int liveUpdateQueueCapacity;
+
+    @Value("${aggregate-refresh.executor.pool-size:4}")
+    private int aggregateRefreshPoolSize;
+
+    @Value("${aggregate-refresh.executor.queue-capacity:1000}")
+    private int aggregateRefreshQueueCapacity;
+
+    /**
+     * Bounded pool used to load the independent sections of a patient's full history in parallel.
+     * Sections are handed straight to a thread rather than queued, so a section never spends its time budget
+     * waiting behind others; when every thread is busy the calling request thread runs the section itself.
+     */
+    @Bean(name = "patientHistoryExecutor")
+    public ThreadPoolTaskExecutor patientHistoryExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(patientHistoryPoolSize);
+        executor.setMaxPoolSize(patientHistoryPoolSize);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("patient-history-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Bounded pool used to evaluate doctors in parallel when searching for the earliest free slots.
+     */
+    @Bean(name = "appointmentSearchExecutor")
+    public ThreadPoolTaskExecutor appointmentSearchExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(appointmentSearchPoolSize);
+        executor.setMaxPoolSize(appointmentSearchPoolSize);
+        executor.setQueueCapacity(appointmentSearchQueueCapacity);
+        executor.setThreadNamePrefix("appointment-search-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Bounded pool used to compute the independent sections of the hospital admin dashboard in parallel.
+     */
+    @Bean(name = "dashboardExecutor")
+    public ThreadPoolTaskExecutor dashboardExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(dashboardPoolSize);
+        executor.setMaxPoolSize(dashboardPoolSize);
+        executor.setQueueCapacity(dashboardQueueCapacity);
+        executor.setThreadNamePrefix("dashboard-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Small pool that writes live update events to SSE subscribers, keeping slow clients off the request threads
+     * that committed the change. Events are dropped rather than run on the caller when it is saturated.
+     */
+    @Bean(name = "liveUpdateExecutor")
+    public ThreadPoolTaskExecutor liveUpdateExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(liveUpdatePoolSize);
+        executor.setMaxPoolSize(liveUpdatePoolSize);
+        executor.setQueueCapacity(liveUpdateQueueCapacity);
+        executor.setThreadNamePrefix("live-update-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardOldestPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Pool that recomputes the derived analytics tables (appointment rollups, revenue ledgers, wait-time sketches)
+     * after a write commits. The committing thread still holds its connection while AFTER_COMMIT listeners run, so
+     * recomputing there would need a second one; under a burst of commits every pooled connection could end up
+     * waiting for another. Rejects when saturated; the nightly rebuilds repair what was skipped.
+     */
+    @Bean(name = "aggregateRefreshExecutor")
+    public ThreadPoolTaskExecutor aggregateRefreshExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(aggregateRefreshPoolSize);
+        executor.setMaxPoolSize(aggregateRefreshPoolSize);
+        executor.setQueueCapacity(aggregateRefreshQueueCapacity);
+        executor.setThreadNamePrefix("aggregate-refresh-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Single thread for the one-off startup backfills of the derived analytics tables, so application startup
+     * neither waits for nor fails on them.
+     */
+    @Bean(name = "backfillExecutor")
+    public ThreadPoolTaskExecutor backfillExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(10);
+        executor.setThreadNamePrefix("backfill-");
+        executor.initialize();
+        return executor;
+    }
+}
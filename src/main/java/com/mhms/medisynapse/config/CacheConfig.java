@@ -0,0 +1,86 @@
+package com.mhms.medisynapse.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mhms.medisynapse.cache.CacheNames;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Collections;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    @Value("${cache.doctor-availability.ttl-seconds:60}")
+    private long doctorAvailabilityTtlSeconds;
+
+    @Value("${cache.doctor-availability.max-size:10000}")
+    private long doctorAvailabilityMaxSize;
+
+    @Value("${cache.department-load.ttl-seconds:30}")
+    private long departmentLoadTtlSeconds;
+
+    @Value("${cache.department-load.max-size:1000}")
+    private long departmentLoadMaxSize;
+
+    @Value("${cache.doctor-appointment-counters.ttl-seconds:30}")
+    private long doctorAppointmentCountersTtlSeconds;
+
+    @Value("${cache.doctor-appointment-counters.max-size:10000}")
+    private long doctorAppointmentCountersMaxSize;
+
+    @Value("${cache.department-performance.ttl-seconds:300}")
+    private long departmentPerformanceTtlSeconds;
+
+    @Value("${cache.department-performance.max-size:1000}")
+    private long departmentPerformanceMaxSize;
+
+    @Value("${cache.hospital-statistics.ttl-seconds:600}")
+    private long hospitalStatisticsTtlSeconds;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // Only explicitly registered caches are available; unknown names fail fast instead of growing unbounded
+        cacheManager.setCacheNames(Collections.emptyList());
+
+        // Stats are recorded so hit/miss counts are published through the actuator metrics endpoint
+        cacheManager.registerCustomCache(CacheNames.DOCTOR_AVAILABILITY, Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(doctorAvailabilityTtlSeconds))
+                .maximumSize(doctorAvailabilityMaxSize)
+                .recordStats()
+                .build());
+
+        cacheManager.registerCustomCache(CacheNames.DEPARTMENT_LOAD, Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(departmentLoadTtlSeconds))
+                .maximumSize(departmentLoadMaxSize)
+                .recordStats()
+                .build());
+
+        cacheManager.registerCustomCache(CacheNames.DOCTOR_APPOINTMENT_COUNTERS, Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(doctorAppointmentCountersTtlSeconds))
+                .maximumSize(doctorAppointmentCountersMaxSize)
+                .recordStats()
+                .build());
+
+        cacheManager.registerCustomCache(CacheNames.DEPARTMENT_PERFORMANCE, Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(departmentPerformanceTtlSeconds))
+                .maximumSize(departmentPerformanceMaxSize)
+                .recordStats()
+                .build());
+
+        // Single platform-wide snapshot; refreshed on hospital writes, the TTL covers department changes
+        cacheManager.registerCustomCache(CacheNames.HOSPITAL_STATISTICS, Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(hospitalStatisticsTtlSeconds))
+                .maximumSize(1)
+                .recordStats()
+                .build());
+
+        return cacheManager;
+    }
+}
@@ -4,6 +4,7 @@ import com.mhms.medisynapse.dto.ApiResponse;
 import com.mhms.medisynapse.dto.AppointmentDto;
 import com.mhms.medisynapse.dto.AppointmentFilterDto;
 import com.mhms.medisynapse.dto.AppointmentStatisticsDto;
+import com.mhms.medisynapse.dto.AvailableSlotDto;
 import com.mhms.medisynapse.dto.CreateAppointmentRequestDto;
 import com.mhms.medisynapse.dto.DoctorAvailabilityDto;
 import com.mhms.medisynapse.dto.UpdateAppointmentRequestDto;
@@ -16,6 +17,7 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -44,7 +46,7 @@ public class AppointmentController {
     private final AppointmentService appointmentService;
 
     @GetMapping("/appointments")
-    public ResponseEntity<ApiResponse<Page<AppointmentDto>>> getAppointments(
+    public ResponseEntity<ApiResponse<?>> getAppointments(
             @Parameter(description = "Hospital ID") @RequestParam(required = false) Long hospitalId,
             @Parameter(description = "Doctor ID") @RequestParam(required = false) Long doctorId,
             @Parameter(description = "Patient ID") @RequestParam(required = false) Long patientId,
@@ -56,7 +58,9 @@ public class AppointmentController {
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") Integer page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "20") Integer size,
             @Parameter(description = "Sort field") @RequestParam(defaultValue = "startTime") String sortBy,
-            @Parameter(description = "Sort direction (ASC/DESC)") @RequestParam(defaultValue = "DESC") String sortDirection) {
+            @Parameter(description = "Sort direction (ASC/DESC)") @RequestParam(defaultValue = "DESC") String sortDirection,
+            @Parameter(description = "Include total count (set false to skip the count query)") @RequestParam(defaultValue = "true") Boolean includeTotal,
+            @Parameter(description = "Opaque cursor for keyset pagination; pass empty for the first page, then the returned nextCursor") @RequestParam(required = false) String cursor) {
 
         AppointmentFilterDto filter = AppointmentFilterDto.builder()
                 .hospitalId(hospitalId)
@@ -71,9 +75,13 @@ public class AppointmentController {
                 .size(size)
                 .sortBy(sortBy)
                 .sortDirection(sortDirection)
+                .includeTotal(includeTotal)
                 .build();
 
-        ApiResponse<Page<AppointmentDto>> response = appointmentService.getAppointments(filter);
+        if (cursor != null) {
+            return ResponseEntity.ok(appointmentService.scrollAppointments(filter, cursor));
+        }
+        ApiResponse<Slice<AppointmentDto>> response = appointmentService.getAppointments(filter);
         return ResponseEntity.ok(response);
     }
 
@@ -131,6 +139,24 @@ public class AppointmentController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/appointments/earliest-slots")
+    @Operation(summary = "Find earliest available slots",
+            description = "Find the earliest free slots across all doctors of a department or specialty")
+    public ResponseEntity<ApiResponse<List<AvailableSlotDto>>> findEarliestAvailableSlots(
+            @Parameter(description = "Hospital ID") @RequestParam Long hospitalId,
+            @Parameter(description = "Department ID") @RequestParam(required = false) Long departmentId,
+            @Parameter(description = "Specialty (department name)") @RequestParam(required = false) String specialty,
+            @Parameter(description = "From date (YYYY-MM-DD)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @Parameter(description = "To date (YYYY-MM-DD)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @Parameter(description = "Appointment duration in minutes") @RequestParam(required = false, defaultValue = "30") Integer durationMinutes,
+            @Parameter(description = "Slot interval in minutes") @RequestParam(required = false, defaultValue = "30") Integer slotIntervalMinutes,
+            @Parameter(description = "Maximum number of slots") @RequestParam(required = false, defaultValue = "5") Integer limit) {
+
+        ApiResponse<List<AvailableSlotDto>> response = appointmentService.findEarliestAvailableSlots(
+                hospitalId, departmentId, specialty, fromDate, toDate, durationMinutes, slotIntervalMinutes, limit);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/appointments/upcoming")
     @Operation(summary = "Get upcoming appointments",
             description = "Get upcoming appointments for dashboard display")
@@ -155,12 +181,16 @@ public class AppointmentController {
     @GetMapping("/patients/{patientId}/appointments/history")
     @Operation(summary = "Get patient appointment history",
             description = "Get appointment history for a specific patient")
-    public ResponseEntity<ApiResponse<Page<AppointmentDto>>> getPatientAppointmentHistory(
+    public ResponseEntity<ApiResponse<?>> getPatientAppointmentHistory(
             @Parameter(description = "Patient ID") @PathVariable Long patientId,
             @Parameter(description = "Hospital ID") @RequestParam Long hospitalId,
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") Integer page,
-            @Parameter(description = "Page size") @RequestParam(defaultValue = "10") Integer size) {
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "10") Integer size,
+            @Parameter(description = "Opaque cursor for keyset pagination; pass empty for the first page, then the returned nextCursor") @RequestParam(required = false) String cursor) {
 
+        if (cursor != null) {
+            return ResponseEntity.ok(appointmentService.scrollPatientAppointmentHistory(patientId, hospitalId, cursor, size));
+        }
         ApiResponse<Page<AppointmentDto>> response = appointmentService.getPatientAppointmentHistory(patientId, hospitalId, page, size);
         return ResponseEntity.ok(response);
     }
@@ -172,28 +202,8 @@ public class AppointmentController {
             @Parameter(description = "Appointment ID") @PathVariable Long appointmentId,
             @Parameter(description = "Hospital ID for security") @RequestParam Long hospitalId) {
 
-        AppointmentFilterDto filter = AppointmentFilterDto.builder()
-                .hospitalId(hospitalId)
-                .build();
-
-        // Get single appointment using the filter service
-        ApiResponse<Page<AppointmentDto>> response = appointmentService.getAppointments(filter);
-
-        // Find the specific appointment
-        AppointmentDto appointment = response.getData().getContent().stream()
-                .filter(apt -> apt.getId().equals(appointmentId))
-                .findFirst()
-                .orElse(null);
-
-        if (appointment == null) {
-            return ResponseEntity.notFound().build();
-        }
-
-        return ResponseEntity.ok(ApiResponse.<AppointmentDto>builder()
-                .success(true)
-                .message("Appointment details retrieved successfully")
-                .data(appointment)
-                .build());
+        ApiResponse<AppointmentDto> response = appointmentService.getAppointment(appointmentId, hospitalId);
+        return ResponseEntity.ok(response);
     }
 
     @PatchMapping("/appointments/{appointmentId}/status")
@@ -221,19 +231,8 @@ public class AppointmentController {
             @Parameter(description = "Department ID") @RequestParam(required = false) Long departmentId,
             @Parameter(description = "Doctor ID") @RequestParam(required = false) Long doctorId) {
 
-        // This would be implemented in the service layer
-        AppointmentStatisticsDto statistics = AppointmentStatisticsDto.builder()
-                .totalAppointments(0L)
-                .scheduledAppointments(0L)
-                .completedAppointments(0L)
-                .cancelledAppointments(0L)
-                .noShowAppointments(0L)
-                .build();
-
-        return ResponseEntity.ok(ApiResponse.<AppointmentStatisticsDto>builder()
-                .success(true)
-                .message("Appointment statistics retrieved successfully")
-                .data(statistics)
-                .build());
+        ApiResponse<AppointmentStatisticsDto> response = appointmentService.getAppointmentStatistics(
+                hospitalId, startDate, endDate, departmentId, doctorId);
+        return ResponseEntity.ok(response);
     }
 }
@@ -4,7 +4,9 @@ import com.mhms.medisynapse.dto.ApiResponse;
 import com.mhms.medisynapse.dto.BillItemDto;
 import com.mhms.medisynapse.dto.BillingResponseDto;
 import com.mhms.medisynapse.dto.CreateBillRequestDto;
+import com.mhms.medisynapse.dto.CursorPageDto;
 import com.mhms.medisynapse.dto.RefundRequestDto;
+import com.mhms.medisynapse.dto.RevenueAnalyticsDto;
 import com.mhms.medisynapse.entity.BillItem;
 import com.mhms.medisynapse.entity.Billing;
 import com.mhms.medisynapse.entity.Refund;
@@ -16,6 +18,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -28,6 +31,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -154,14 +158,23 @@ public class BillingController {
     }
 
     @GetMapping(value = "/hospital/{hospitalId}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<ApiResponse<Page<BillingResponseDto>>> getHospitalBillings(
+    public ResponseEntity<ApiResponse<?>> getHospitalBillings(
             @PathVariable Long hospitalId,
             @RequestParam(required = false) Billing.BillingStatus status,
             @RequestParam(defaultValue = "0") Integer page,
-            @RequestParam(defaultValue = "20") Integer size) {
+            @RequestParam(defaultValue = "20") Integer size,
+            @RequestParam(required = false) String cursor) {
 
         log.info("Fetching billings for hospital ID: {} with status: {}", hospitalId, status);
 
+        // Keyset mode: an empty cursor starts from the newest bill, then pass back nextCursor
+        if (cursor != null) {
+            CursorPageDto<BillingResponseDto> billings = billingService.scrollBillingsByHospitalId(hospitalId, status, cursor, size);
+            return ResponseEntity.ok(
+                    ApiResponse.success("Hospital billings retrieved successfully", billings)
+            );
+        }
+
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdDt"));
         Page<BillingResponseDto> billings = billingService.getBillingsByHospitalId(hospitalId, status, pageable);
 
@@ -170,6 +183,22 @@ public class BillingController {
         );
     }
 
+    @GetMapping(value = "/hospital/{hospitalId}/revenue", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<RevenueAnalyticsDto>> getHospitalRevenue(
+            @PathVariable Long hospitalId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) Long departmentId) {
+
+        log.info("Fetching revenue analytics for hospital ID: {} from {} to {}", hospitalId, startDate, endDate);
+
+        RevenueAnalyticsDto revenue = billingService.getRevenueAnalytics(hospitalId, startDate, endDate, departmentId);
+
+        return ResponseEntity.ok(
+                ApiResponse.success("Hospital revenue analytics retrieved successfully", revenue)
+        );
+    }
+
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<ApiResponse<Page<BillingResponseDto>>> getAllBillingsDefault(
             @RequestParam(defaultValue = "0") Integer page,
@@ -3,6 +3,7 @@ package com.mhms.medisynapse.controller;
 import com.mhms.medisynapse.dto.*;
 import com.mhms.medisynapse.entity.Appointment;
 import com.mhms.medisynapse.entity.Patient;
+import com.mhms.medisynapse.live.LiveUpdateHub;
 import com.mhms.medisynapse.service.DoctorService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -14,9 +15,11 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -30,6 +33,7 @@ import java.util.List;
 public class DoctorController {
 
     private final DoctorService doctorService;
+    private final LiveUpdateHub liveUpdateHub;
 
     @GetMapping("/dashboard/statistics")
     @Operation(summary = "Get doctor dashboard statistics",
@@ -138,6 +142,18 @@ public class DoctorController {
                 .build());
     }
 
+    @GetMapping(value = "/appointments/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream appointment changes",
+               description = "Server-Sent Events stream that pushes an event whenever one of the doctor's appointments changes, so the day list only needs refetching when something changed")
+    public SseEmitter streamAppointmentUpdates(
+            @Parameter(description = "Doctor ID", required = true)
+            @RequestParam Long doctorId) {
+
+        log.info("GET /api/v1/doctor/appointments/stream - doctorId: {}", doctorId);
+
+        return liveUpdateHub.subscribeToDoctor(doctorId);
+    }
+
     @GetMapping("/appointments/upcoming")
     @Operation(summary = "Get upcoming appointments",
                description = "Get appointments scheduled for the next N days (excluding today)")
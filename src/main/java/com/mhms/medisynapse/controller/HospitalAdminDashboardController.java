@@ -7,12 +7,15 @@ import com.mhms.medisynapse.dto.DashboardStatisticsDto;
 import com.mhms.medisynapse.dto.DashboardStatisticsRequestDto;
 import com.mhms.medisynapse.dto.DepartmentPerformanceResponseDto;
 import com.mhms.medisynapse.dto.HospitalAdminResponseDto;
+import com.mhms.medisynapse.dto.WaitTimePercentilesDto;
+import com.mhms.medisynapse.live.LiveUpdateHub;
 import com.mhms.medisynapse.security.CustomUserDetails;
 import com.mhms.medisynapse.service.BedService;
 import com.mhms.medisynapse.service.DashboardService;
 import com.mhms.medisynapse.service.DepartmentPerformanceService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -22,6 +25,10 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/hospital-admin")
@@ -32,6 +39,7 @@ public class HospitalAdminDashboardController {
     private final DashboardService dashboardService;
     private final BedService bedService;
     private final DepartmentPerformanceService departmentPerformanceService;
+    private final LiveUpdateHub liveUpdateHub;
 
     @GetMapping(value = "/dashboard/statistics", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<ApiResponse<DashboardStatisticsDto>> getDashboardStatistics(
@@ -52,6 +60,12 @@ public class HospitalAdminDashboardController {
         );
     }
 
+    @GetMapping(value = "/dashboard/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamDashboardUpdates(@RequestParam Long hospitalId) {
+        log.info("Opening dashboard update stream for hospital ID: {}", hospitalId);
+        return liveUpdateHub.subscribeToHospital(hospitalId);
+    }
+
     @GetMapping(value = "/beds", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<ApiResponse<BedManagementResponseDto>> getBedOccupancyStatus(
             @RequestParam Long hospitalId) {
@@ -82,6 +96,21 @@ public class HospitalAdminDashboardController {
         );
     }
 
+    @GetMapping(value = "/departments/performance/wait-times", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<List<WaitTimePercentilesDto>>> getDepartmentWaitTimes(
+            @RequestParam Long hospitalId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+
+        log.info("Fetching department wait times for hospital ID: {} from {} to {}", hospitalId, from, to);
+
+        List<WaitTimePercentilesDto> waitTimes = departmentPerformanceService.getDepartmentWaitTimes(hospitalId, from, to);
+
+        return ResponseEntity.ok(
+                ApiResponse.success("Department wait times retrieved successfully", waitTimes)
+        );
+    }
+
     @GetMapping(value = "/profile", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<ApiResponse<HospitalAdminResponseDto>> getAuthenticatedAdminProfile() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -31,6 +31,7 @@ import java.nio.file.StandardCopyOption;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -276,25 +277,19 @@ public class HospitalAdminLabTestController {
 
         log.info("GET /api/v1/hospital-admin/lab-tests/stats - Hospital: {}", hospitalId);
 
-        // Get counts for each status
-        List<LabTestOrderResponse> ordered = labTestOrderService.getLabOrdersByHospitalAndStatus(
-                hospitalId, List.of("ORDERED"));
-        List<LabTestOrderResponse> sampleCollected = labTestOrderService.getLabOrdersByHospitalAndStatus(
-                hospitalId, List.of("SAMPLE_COLLECTED"));
-        List<LabTestOrderResponse> inProgress = labTestOrderService.getLabOrdersByHospitalAndStatus(
-                hospitalId, List.of("IN_PROGRESS"));
-        List<LabTestOrderResponse> completed = labTestOrderService.getLabOrdersByHospitalAndStatus(
-                hospitalId, List.of("COMPLETED"));
-        List<LabTestOrderResponse> reviewed = labTestOrderService.getLabOrdersByHospitalAndStatus(
-                hospitalId, List.of("REVIEWED"));
+        // Get counts for each status in one grouped query
+        Map<String, Long> counts = labTestOrderService.countLabOrdersByHospitalAndStatus(hospitalId);
+        int ordered = Math.toIntExact(counts.get("ORDERED"));
+        int sampleCollected = Math.toIntExact(counts.get("SAMPLE_COLLECTED"));
+        int inProgress = Math.toIntExact(counts.get("IN_PROGRESS"));
 
         LabTestStatsResponse stats = LabTestStatsResponse.builder()
-                .orderedCount(ordered.size())
-                .sampleCollectedCount(sampleCollected.size())
-                .inProgressCount(inProgress.size())
-                .completedCount(completed.size())
-                .reviewedCount(reviewed.size())
-                .totalPending(ordered.size() + sampleCollected.size() + inProgress.size())
+                .orderedCount(ordered)
+                .sampleCollectedCount(sampleCollected)
+                .inProgressCount(inProgress)
+                .completedCount(Math.toIntExact(counts.get("COMPLETED")))
+                .reviewedCount(Math.toIntExact(counts.get("REVIEWED")))
+                .totalPending(ordered + sampleCollected + inProgress)
                 .build();
 
         return ResponseEntity.ok(ApiResponse.<LabTestStatsResponse>builder()
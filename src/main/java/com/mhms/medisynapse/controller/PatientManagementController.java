@@ -16,6 +16,7 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -46,15 +47,21 @@ public class PatientManagementController {
             @RequestParam(defaultValue = "0") Integer page,
             @RequestParam(defaultValue = "20") Integer size,
             @RequestParam(required = false) Patient.PatientStatus status,
-            @RequestParam(required = false) String search) {
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String cursor) {
 
         log.info("Hospital ID: {}, Page: {}, Size: {}, Status: {}, Search: {}",
                 hospitalId, page, size, status, search);
 
-        // Create pageable with sorting by created date (newest first)
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdDt"));
-
-        PatientPagedResponseDto response = patientService.getPatientsByHospitalId(hospitalId, status, search, pageable);
+        PatientPagedResponseDto response;
+        if (cursor != null) {
+            // Keyset mode: an empty cursor starts from the newest patient, then pass back pagination.nextCursor
+            response = patientService.scrollPatientsByHospitalId(hospitalId, status, search, cursor, size);
+        } else {
+            // Create pageable with sorting by created date (newest first)
+            Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdDt"));
+            response = patientService.getPatientsByHospitalId(hospitalId, status, search, pageable);
+        }
 
         log.info("Successfully retrieved {} patients for hospital {}",
                 response.getPatients().size(), hospitalId);
@@ -149,7 +156,8 @@ public class PatientManagementController {
             @RequestParam(defaultValue = "20") int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdDt"));
         Page<Patient> patients = patientService.getPatientsByHospitalAndStatus(hospitalId, status, pageable);
-        Page<PatientListDto> dtoPage = patients.map(patientService::convertToPatientListDto);
+        Page<PatientListDto> dtoPage = new PageImpl<>(
+                patientService.convertToPatientListDtos(patients.getContent()), pageable, patients.getTotalElements());
         return ResponseEntity.ok(ApiResponse.success("Patient list retrieved", dtoPage));
     }
 
@@ -161,7 +169,8 @@ public class PatientManagementController {
             @RequestParam(defaultValue = "20") int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdDt"));
         Page<Patient> patients = patientService.getEligiblePatientsForHospital(hospitalId, pageable);
-        Page<PatientListDto> dtoPage = patients.map(patientService::convertToPatientListDto);
+        Page<PatientListDto> dtoPage = new PageImpl<>(
+                patientService.convertToPatientListDtos(patients.getContent()), pageable, patients.getTotalElements());
         return ResponseEntity.ok(ApiResponse.success("Eligible patients retrieved", dtoPage));
     }
 
@@ -173,7 +182,8 @@ public class PatientManagementController {
             @RequestParam(defaultValue = "20") int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdDt"));
         Page<Patient> patients = patientService.getAllPatients(onlyActive, pageable);
-        Page<PatientListDto> dtoPage = patients.map(patientService::convertToPatientListDto);
+        Page<PatientListDto> dtoPage = new PageImpl<>(
+                patientService.convertToPatientListDtos(patients.getContent()), pageable, patients.getTotalElements());
         return ResponseEntity.ok(ApiResponse.success("All patients retrieved", dtoPage));
     }
 
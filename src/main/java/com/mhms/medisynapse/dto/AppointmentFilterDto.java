@@ -30,4 +30,6 @@ public class AppointmentFilterDto {
     private String sortBy = "startTime";
     @Builder.Default
     private String sortDirection = "DESC";
+    @Builder.Default
+    private Boolean includeTotal = true;
 }
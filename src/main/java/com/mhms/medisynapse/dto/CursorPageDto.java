@@ -0,0 +1,20 @@
+package com.mhms.medisynapse.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDto<T> {
+    private List<T> content;
+    private Integer size;
+    private Boolean hasNext;
+    // Pass back as the cursor parameter to fetch the next page; null on the last page
+    private String nextCursor;
+}
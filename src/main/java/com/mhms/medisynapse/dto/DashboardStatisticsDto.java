@@ -5,10 +5,11 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class DashboardStatisticsDto {
@@ -19,4 +20,10 @@ public class DashboardStatisticsDto {
     private StaffOnDutyDto staffOnDuty;
     private List<DepartmentStatsDto> departmentStats;
     private List<RecentAdmissionDto> recentAdmissions;
+    // True when one or more sections could not be loaded in time; see unavailableSections
+    private boolean partial;
+    private List<String> unavailableSections;
+    // When the served snapshot was computed and how old it was when returned
+    private LocalDateTime snapshotTakenAt;
+    private Long snapshotAgeMs;
 }
@@ -16,5 +16,9 @@ public class DepartmentPerformanceDto {
     private Long monthlyPatients;
     private Long activeDoctors;
     private Double avgWaitTime;
+    // Wait-time percentiles in minutes over the last 30 days
+    private Double waitTimeP50;
+    private Double waitTimeP90;
+    private Double waitTimeP99;
     private Double patientSatisfaction;
 }
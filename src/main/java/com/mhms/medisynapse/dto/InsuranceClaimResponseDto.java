@@ -14,6 +14,7 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class InsuranceClaimResponseDto {
     private Long id;
+    private String claimNumber;
     private Long billingId;
     private Long policyId;
     private String policyNumber;
@@ -0,0 +1,27 @@
+package com.mhms.medisynapse.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A change pushed to live dashboard subscribers. It only says what changed; clients refetch the affected view
+ * (or patch it from these fields) instead of polling.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LiveUpdateDto {
+    // APPOINTMENT_CREATED, APPOINTMENT_UPDATED, APPOINTMENT_CANCELLED, APPOINTMENT_STATUS_CHANGED or DASHBOARD_DATA_CHANGED
+    private String type;
+    private Long hospitalId;
+    private Long doctorId;
+    private Long appointmentId;
+    // New appointment status for appointment events
+    private String status;
+    private LocalDateTime occurredAt;
+}
@@ -14,4 +14,7 @@ public class PaginationDto {
     private Integer totalPages;
     private Long totalElements;
     private Integer size;
+    // Set only in cursor mode, where the totals are not computed
+    private Boolean hasNext;
+    private String nextCursor;
 }
@@ -17,6 +17,9 @@ public class PatientHistoryResponseDTO {
     private List<InsuranceDTO> insurances;
     private List<BillingDTO> billings;
     private List<HospitalDTO> hospitals;
+    // True when one or more sections could not be loaded in time; see unavailableSections
+    private boolean partial;
+    private List<String> unavailableSections;
 
     @Data
     public static class PatientInfoDTO {
@@ -22,6 +22,7 @@ public class PaymentResponseDto {
     private LocalDateTime paymentDate;
     private Payment.PaymentMethod paymentMethod;
     private String referenceNo;
+    private String receiptNumber;
     private LocalDateTime createdDt;
     private Long createdBy;
     private Boolean isActive;
@@ -0,0 +1,26 @@
+package com.mhms.medisynapse.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevenueAmountsDto {
+    // Net amount of bills issued
+    private BigDecimal billed = BigDecimal.ZERO;
+
+    // Payments and insurance settlements received
+    private BigDecimal paid = BigDecimal.ZERO;
+
+    private BigDecimal refunded = BigDecimal.ZERO;
+
+    // Current unpaid balance of the bills issued
+    private BigDecimal outstanding = BigDecimal.ZERO;
+
+    // paid - refunded
+    private BigDecimal netCollected = BigDecimal.ZERO;
+}
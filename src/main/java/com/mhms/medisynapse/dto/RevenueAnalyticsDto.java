@@ -0,0 +1,33 @@
+package com.mhms.medisynapse.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevenueAnalyticsDto {
+    private Long hospitalId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    private RevenueAmountsDto totals;
+
+    // Daily series, keyed by ISO date
+    private Map<String, RevenueAmountsDto> revenueByDay;
+
+    // Payments and refunds per payment method
+    private Map<String, RevenueAmountsDto> revenueByPaymentMethod;
+
+    // Billed and outstanding amounts per service type
+    private Map<String, RevenueAmountsDto> revenueByServiceType;
+
+    // Department of the bill's appointment
+    private Map<String, RevenueAmountsDto> revenueByDepartment;
+}
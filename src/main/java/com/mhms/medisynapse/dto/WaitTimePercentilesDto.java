@@ -0,0 +1,23 @@
+package com.mhms.medisynapse.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Wait-time distribution for one department over a window; all times are in minutes.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitTimePercentilesDto {
+    private Long departmentId;
+    private String name;
+    private Long sampleCount;
+    private Double mean;
+    private Double p50;
+    private Double p90;
+    private Double p99;
+}
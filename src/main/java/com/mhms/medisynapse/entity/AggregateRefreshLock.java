@@ -0,0 +1,30 @@
+package com.mhms.medisynapse.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A key that recomputations of a derived table lock on; only written through
+ * {@link com.mhms.medisynapse.analytics.AggregateRefreshLocks}.
+ */
+@Entity
+@Table(name = "aggregate_refresh_lock")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AggregateRefreshLock {
+
+    @Id
+    @Column(name = "lock_key", length = 120)
+    private String lockKey;
+
+    @Column(name = "locked_dt", nullable = false)
+    private LocalDateTime lockedDt;
+}
@@ -0,0 +1,57 @@
+package com.mhms.medisynapse.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Appointment count and booked minutes for one hospital, department, doctor, day, status and appointment type.
+ * Rows are only written by {@link com.mhms.medisynapse.analytics.AppointmentDailyRollups}.
+ */
+@Entity
+@Table(name = "appointment_daily_rollup")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentDailyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "hospital_id", nullable = false)
+    private Long hospitalId;
+
+    @Column(name = "department_id", nullable = false)
+    private Long departmentId;
+
+    @Column(name = "doctor_id", nullable = false)
+    private Long doctorId;
+
+    @Column(name = "appointment_date", nullable = false)
+    private LocalDate appointmentDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private Appointment.AppointmentStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "appointment_type", nullable = false)
+    private Appointment.AppointmentType appointmentType;
+
+    @Column(name = "appointment_count", nullable = false)
+    private Long appointmentCount;
+
+    @Column(name = "total_minutes", nullable = false)
+    private Long totalMinutes;
+}
@@ -0,0 +1,48 @@
+package com.mhms.medisynapse.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Compressed HdrHistogram of the wait times of one department's appointments scheduled in one hour. Rows are only
+ * written by {@link com.mhms.medisynapse.analytics.WaitTimeSketches}.
+ */
+@Entity
+@Table(name = "department_wait_time_sketch",
+        uniqueConstraints = @UniqueConstraint(name = "uk_wait_time_sketch_department_hour",
+                columnNames = {"department_id", "sketch_hour"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DepartmentWaitTimeSketch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "department_id", nullable = false)
+    private Long departmentId;
+
+    @Column(name = "sketch_hour", nullable = false)
+    private LocalDateTime sketchHour;
+
+    @Column(name = "wait_count", nullable = false)
+    private Long waitCount;
+
+    // Null only while the row is being created
+    @Column(name = "sketch", columnDefinition = "BLOB")
+    private byte[] sketch;
+
+    @Column(name = "last_updated_dt", nullable = false)
+    private LocalDateTime lastUpdatedDt;
+}
@@ -0,0 +1,49 @@
+package com.mhms.medisynapse.entity;
+
+import com.mhms.medisynapse.numbering.DocumentType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Highest document number handed out so far for one document type, hospital and day. Application nodes reserve
+ * blocks of numbers by advancing {@code maxValue}; the unique key is what makes the reservation upsert advance the
+ * existing row instead of inserting another.
+ */
+@Entity
+@Table(name = "document_number_segment",
+        uniqueConstraints = @UniqueConstraint(name = "uk_document_number_segment",
+                columnNames = {"document_type", "hospital_id", "sequence_date"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentNumberSegment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "document_type", nullable = false, length = 20)
+    private DocumentType documentType;
+
+    @Column(name = "hospital_id", nullable = false)
+    private Long hospitalId;
+
+    @Column(name = "sequence_date", nullable = false)
+    private LocalDate sequenceDate;
+
+    @Column(name = "max_value", nullable = false)
+    private Long maxValue;
+}
@@ -45,6 +45,9 @@ public class InsuranceClaim {
     @JoinColumn(name = "fk_policy_id", nullable = false, referencedColumnName = "id")
     private Insurance policy;
 
+    @Column(name = "claim_number", unique = true, length = 50)
+    private String claimNumber;
+
     @Column(name = "claim_amount", nullable = false, precision = 15, scale = 2)
     private BigDecimal claimAmount;
 
@@ -0,0 +1,65 @@
+package com.mhms.medisynapse.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Amount billed, collected or refunded for one hospital, day, entry type, department, payment method and service
+ * type. Rows are only written by {@link com.mhms.medisynapse.analytics.RevenueDailyLedgers}.
+ */
+@Entity
+@Table(name = "revenue_daily_ledger")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevenueDailyLedger {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "hospital_id", nullable = false)
+    private Long hospitalId;
+
+    @Column(name = "ledger_date", nullable = false)
+    private LocalDate ledgerDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entry_type", nullable = false, length = 20)
+    private EntryType entryType;
+
+    // Department of the bill's appointment; null for bills without one
+    @Column(name = "department_id")
+    private Long departmentId;
+
+    // Set on PAYMENT and REFUND rows
+    @Column(name = "payment_method", length = 30)
+    private String paymentMethod;
+
+    // Set on BILLED rows
+    @Column(name = "service_type", length = 100)
+    private String serviceType;
+
+    @Column(name = "amount", nullable = false, precision = 19, scale = 4)
+    private BigDecimal amount;
+
+    // Current unpaid balance of the bills issued that day; BILLED rows only
+    @Column(name = "outstanding_amount", nullable = false, precision = 19, scale = 4)
+    private BigDecimal outstandingAmount;
+
+    public enum EntryType {
+        BILLED, PAYMENT, REFUND
+    }
+}
@@ -0,0 +1,34 @@
+package com.mhms.medisynapse.event;
+
+import com.mhms.medisynapse.entity.Appointment;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Published by the appointment write paths after an appointment is created, rescheduled,
+ * cancelled or has its status changed. Listeners react after the surrounding transaction commits.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class AppointmentChangedEvent {
+
+    private final Long appointmentId;
+    private final Long doctorId;
+    private final Long hospitalId;
+    private final ChangeType changeType;
+
+    // Status of the appointment after the change
+    private final Appointment.AppointmentStatus status;
+
+    // Calendar days of the doctor whose schedule changed (old and new day on a reschedule)
+    private final Set<LocalDate> affectedDates;
+
+    public enum ChangeType {
+        CREATED, UPDATED, CANCELLED, STATUS_CHANGED
+    }
+}
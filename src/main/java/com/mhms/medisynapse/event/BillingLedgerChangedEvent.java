@@ -0,0 +1,23 @@
+package com.mhms.medisynapse.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Published by the billing, payment, refund and insurance settlement write paths after amounts of a hospital's
+ * bills change. Listeners react after the surrounding transaction commits.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class BillingLedgerChangedEvent {
+
+    private final Long hospitalId;
+
+    // Days whose ledger changed: the bill date, plus the day of any payment, refund or settlement involved
+    private final Set<LocalDate> affectedDates;
+}
@@ -0,0 +1,18 @@
+package com.mhms.medisynapse.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published by write paths that change a hospital's dashboard counts (admissions, shifts, patient registrations,
+ * bed counts) and are not already covered by {@link AppointmentChangedEvent}. Listeners react after the surrounding
+ * transaction commits.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class DashboardDataChangedEvent {
+
+    private final Long hospitalId;
+}
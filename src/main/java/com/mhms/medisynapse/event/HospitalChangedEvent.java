@@ -0,0 +1,17 @@
+package com.mhms.medisynapse.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published after a hospital is created, updated or soft deleted. Listeners react after the surrounding
+ * transaction commits.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class HospitalChangedEvent {
+
+    private final Long hospitalId;
+}
@@ -0,0 +1,232 @@
+package com.mhms.medisynapse.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mhms.medisynapse.dto.ApiResponse;
+import com.mhms.medisynapse.security.SecurityUtils;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Makes the billing and payment POST endpoints safe to retry: a request carrying an {@code Idempotency-Key} header
+ * runs at most once per key and caller, and repeats receive the first response again, marked with
+ * {@code Idempotent-Replayed: true}. Requests without the header are untouched.
+ * <p>
+ * Keys are scoped to the authenticated user and the endpoint path. Reusing a key with a different body is rejected
+ * with 422, and a repeat that arrives while the first request is still running waits for it, up to
+ * {@code idempotency.in-flight-wait-ms}, before being answered with 409.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private static final List<String> IDEMPOTENT_PATHS = List.of(
+            "/api/v1/billing",
+            "/api/v1/billing/refund",
+            "/api/v1/billing/*/items",
+            "/api/v1/payments"
+    );
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final IdempotencyStore idempotencyStore;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod()) || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null) {
+            return true;
+        }
+        String path = request.getServletPath();
+        return IDEMPOTENT_PATHS.stream().noneMatch(pattern -> PATH_MATCHER.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        String clientKey = request.getHeader(IDEMPOTENCY_KEY_HEADER).trim();
+        if (clientKey.isEmpty() || clientKey.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST,
+                    IDEMPOTENCY_KEY_HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        byte[] body = request.getInputStream().readAllBytes();
+        Long userId = SecurityUtils.getCurrentUserId();
+        String key = sha256Hex((userId != null ? userId.toString() : "anonymous") + "\n"
+                + request.getServletPath() + "\n" + clientKey);
+        String requestHash = sha256Hex(request.getQueryString() != null ? request.getQueryString() : "", body);
+
+        IdempotencyStore.StoredResponse replay;
+        try {
+            replay = idempotencyStore.claimOrReplay(key, requestHash);
+        } catch (IdempotencyStore.KeyReusedException e) {
+            writeError(response, HttpStatus.UNPROCESSABLE_ENTITY, e.getMessage());
+            return;
+        } catch (IdempotencyStore.StillInProgressException e) {
+            writeError(response, HttpStatus.CONFLICT, e.getMessage());
+            return;
+        }
+
+        if (replay != null) {
+            log.debug("Replaying response for {} {}", request.getMethod(), request.getServletPath());
+            response.setStatus(replay.status());
+            if (replay.contentType() != null) {
+                response.setContentType(replay.contentType());
+            }
+            response.setHeader(REPLAYED_HEADER, "true");
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.getWriter().write(replay.body() != null ? replay.body() : "");
+            return;
+        }
+
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        boolean executed = false;
+        try {
+            filterChain.doFilter(new CachedBodyRequest(request, body), responseWrapper);
+            // Server errors are not remembered so the client can retry them
+            if (responseWrapper.getStatus() < 500) {
+                executed = true;
+                try {
+                    idempotencyStore.complete(key, new IdempotencyStore.StoredResponse(requestHash,
+                            responseWrapper.getStatus(), responseWrapper.getContentType(),
+                            new String(responseWrapper.getContentAsByteArray(), StandardCharsets.UTF_8)));
+                } catch (IdempotencyStore.ResponseNotSavedException e) {
+                    // The request ran and is not released; a retry on this node replays its response
+                    responseWrapper.resetBuffer();
+                    writeError(responseWrapper, HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
+                }
+            }
+        } finally {
+            if (!executed) {
+                idempotencyStore.release(key);
+            }
+            responseWrapper.copyBodyToResponse();
+        }
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.error(message));
+    }
+
+    private static String sha256Hex(String text) {
+        return sha256Hex(text, new byte[0]);
+    }
+
+    private static String sha256Hex(String prefix, byte[] bytes) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(prefix.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(bytes);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Serves the already-read request body to the controllers.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    // The whole body is already in memory, so it is available at once and never blocks
+                    Objects.requireNonNull(readListener, "readListener");
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            readListener.onAllDataRead();
+                        }
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
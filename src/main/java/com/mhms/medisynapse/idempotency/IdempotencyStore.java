@@ -0,0 +1,256 @@
+package com.mhms.medisynapse.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mhms.medisynapse.entity.IdempotencyRecord;
+import com.mhms.medisynapse.repository.IdempotencyRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Remembers responses of requests sent with an {@code Idempotency-Key} so retries are answered without running
+ * the request again.
+ * <p>
+ * Completed responses are kept in a bounded local cache and in the {@code idempotency_record} table, which other
+ * nodes read. A key is claimed in the table before the first execution; duplicates arriving meanwhile wait for
+ * that execution (on a local future on the same node, by polling the table on other nodes) and then replay its
+ * response. A failed execution (5xx or exception) releases the key so a retry can run it again. An in-progress
+ * claim left behind by a crashed node lapses after {@code idempotency.in-progress-lease-seconds}.
+ */
+@Component
+@Slf4j
+public class IdempotencyStore {
+
+    private static final long REMOTE_POLL_INTERVAL_MS = 100;
+    private static final int MAX_PERSIST_ATTEMPTS = 3;
+    private static final long PERSIST_RETRY_BACKOFF_MS = 50;
+
+    private final IdempotencyRecordRepository recordRepository;
+    private final TransactionTemplate writeTransaction;
+    private final Cache<String, StoredResponse> completed;
+    private final ConcurrentHashMap<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Duration ttl;
+
+    @Value("${idempotency.in-flight-wait-ms:10000}")
+    private long inFlightWaitMs;
+
+    @Value("${idempotency.in-progress-lease-seconds:300}")
+    private long inProgressLeaseSeconds;
+
+    public IdempotencyStore(IdempotencyRecordRepository recordRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${idempotency.ttl-hours:24}") long ttlHours,
+                            @Value("${idempotency.cache-max-size:10000}") long cacheMaxSize) {
+        this.recordRepository = recordRepository;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ttl = Duration.ofHours(ttlHours);
+        this.completed = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(cacheMaxSize)
+                .build();
+    }
+
+    /**
+     * Returns the response to replay for {@code key}, or {@code null} when the caller now owns the key and must
+     * execute the request and then call {@link #complete} or {@link #release}.
+     *
+     * @throws KeyReusedException       if the key was first used with a different request
+     * @throws StillInProgressException if the first execution did not finish within the wait limit
+     */
+    public StoredResponse claimOrReplay(String key, String requestHash) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(inFlightWaitMs);
+        while (true) {
+            StoredResponse cached = completed.getIfPresent(key);
+            if (cached != null) {
+                return checkSameRequest(cached, requestHash);
+            }
+
+            CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+            CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(key, mine);
+            if (running != null) {
+                StoredResponse response = awaitLocal(running, deadline);
+                if (response != null) {
+                    return checkSameRequest(response, requestHash);
+                }
+                // The first execution failed and released the key; try to claim it
+                continue;
+            }
+
+            Optional<IdempotencyRecord> existing;
+            try {
+                existing = claimInDatabase(key, requestHash);
+            } catch (RuntimeException e) {
+                inFlight.remove(key, mine);
+                mine.complete(null);
+                throw e;
+            }
+            if (existing.isEmpty()) {
+                return null;
+            }
+
+            // Another node holds the key: wait for its response and share it with local waiters
+            StoredResponse remote;
+            try {
+                if (!existing.get().getRequestHash().equals(requestHash)) {
+                    throw new KeyReusedException();
+                }
+                remote = awaitRemote(key, deadline);
+            } finally {
+                inFlight.remove(key, mine);
+            }
+            mine.complete(remote);
+            if (remote != null) {
+                completed.put(key, remote);
+                return checkSameRequest(remote, requestHash);
+            }
+        }
+    }
+
+    /**
+     * Records the response of the execution that owns {@code key}. Local waiters and retries on this node get it
+     * straight away; the table write that other nodes depend on is retried.
+     *
+     * @throws ResponseNotSavedException if the table write kept failing; the key then stays claimed until its lease
+     *                                   lapses, so other nodes do not run the request again in the meantime
+     */
+    public void complete(String key, StoredResponse response) {
+        completed.put(key, response);
+        CompletableFuture<StoredResponse> waiting = inFlight.remove(key);
+        if (waiting != null) {
+            waiting.complete(response);
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                writeTransaction.executeWithoutResult(status -> recordRepository.complete(key,
+                        IdempotencyRecord.Status.COMPLETED, response.status(), response.contentType(), response.body(),
+                        LocalDateTime.now().plus(ttl)));
+                return;
+            } catch (RuntimeException e) {
+                if (attempt == MAX_PERSIST_ATTEMPTS) {
+                    log.error("Failed to persist idempotent response for key {}", key, e);
+                    throw new ResponseNotSavedException(e);
+                }
+                log.warn("Retrying persist of idempotent response for key {}", key, e);
+                try {
+                    Thread.sleep(PERSIST_RETRY_BACKOFF_MS * attempt);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw new ResponseNotSavedException(e);
+                }
+            }
+        }
+    }
+
+    public void release(String key) {
+        try {
+            writeTransaction.executeWithoutResult(status -> recordRepository.release(key));
+        } catch (RuntimeException e) {
+            log.error("Failed to release idempotency key {}; it lapses with its lease", key, e);
+        }
+        CompletableFuture<StoredResponse> waiting = inFlight.remove(key);
+        if (waiting != null) {
+            waiting.complete(null);
+        }
+    }
+
+    @Scheduled(cron = "${idempotency.purge-cron:0 15 * * * *}")
+    public void purgeExpired() {
+        Integer purged = writeTransaction.execute(status -> recordRepository.deleteExpired(LocalDateTime.now()));
+        log.debug("Purged {} expired idempotency records", purged);
+    }
+
+    /**
+     * Inserts the in-progress claim; returns the record already holding the key when the claim fails.
+     */
+    private Optional<IdempotencyRecord> claimInDatabase(String key, String requestHash) {
+        return writeTransaction.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            recordRepository.deleteIfExpired(key, now);
+            if (recordRepository.claim(key, requestHash, now, now.plusSeconds(inProgressLeaseSeconds)) == 1) {
+                return Optional.<IdempotencyRecord>empty();
+            }
+            return recordRepository.findById(key);
+        });
+    }
+
+    private StoredResponse awaitLocal(CompletableFuture<StoredResponse> running, long deadline) {
+        try {
+            return running.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new StillInProgressException();
+        } catch (ExecutionException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StillInProgressException();
+        }
+    }
+
+    /**
+     * Polls the table until the other node completes ({@code response}) or releases ({@code null}) the key.
+     */
+    private StoredResponse awaitRemote(String key, long deadline) {
+        while (System.nanoTime() < deadline) {
+            Optional<IdempotencyRecord> record = recordRepository.findById(key);
+            if (record.isEmpty()) {
+                return null;
+            }
+            if (record.get().getStatus() == IdempotencyRecord.Status.COMPLETED) {
+                IdempotencyRecord done = record.get();
+                return new StoredResponse(done.getRequestHash(), done.getResponseStatus(),
+                        done.getResponseContentType(), done.getResponseBody());
+            }
+            try {
+                Thread.sleep(REMOTE_POLL_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        throw new StillInProgressException();
+    }
+
+    private static StoredResponse checkSameRequest(StoredResponse response, String requestHash) {
+        if (!response.requestHash().equals(requestHash)) {
+            throw new KeyReusedException();
+        }
+        return response;
+    }
+
+    public record StoredResponse(String requestHash, int status, String contentType, String body) {
+    }
+
+    public static class KeyReusedException extends RuntimeException {
+        KeyReusedException() {
+            super("Idempotency-Key was already used with a different request");
+        }
+    }
+
+    public static class StillInProgressException extends RuntimeException {
+        StillInProgressException() {
+            super("A request with this Idempotency-Key is still being processed; retry later");
+        }
+    }
+
+    public static class ResponseNotSavedException extends RuntimeException {
+        ResponseNotSavedException(Throwable cause) {
+            super("The request was processed but its response could not be saved; retry with the same "
+                    + "Idempotency-Key to receive it", cause);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.mhms.medisynapse.live;
+
+import com.mhms.medisynapse.dto.LiveUpdateDto;
+import com.mhms.medisynapse.event.AppointmentChangedEvent;
+import com.mhms.medisynapse.event.DashboardDataChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Server-Sent Events fan-out for hospital dashboards and doctor day lists.
+ * <p>
+ * Subscriptions are async {@link SseEmitter}s parked in memory per topic, so an idle connection holds no thread.
+ * Committed write events are turned into {@link LiveUpdateDto}s and sent on the bounded
+ * {@code liveUpdateExecutor}, never on the request thread that made the change. A periodic heartbeat keeps
+ * proxies from closing idle streams and prunes connections that have gone away.
+ * <p>
+ * Every write to a subscriber, heartbeats included, is its own task on that executor, so a client that stops
+ * reading only blocks its own write. A write still blocked after {@code live-updates.send-timeout-ms} ends that
+ * subscription.
+ */
+@Component
+@Slf4j
+public class LiveUpdateHub {
+
+    private static final String EVENT_NAME = "update";
+
+    private final Map<String, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final Executor executor;
+
+    @Value("${live-updates.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    @Value("${live-updates.send-timeout-ms:5000}")
+    private long sendTimeoutMs;
+
+    public LiveUpdateHub(@Qualifier("liveUpdateExecutor") Executor executor) {
+        this.executor = executor;
+    }
+
+    public SseEmitter subscribeToHospital(Long hospitalId) {
+        return subscribe(hospitalTopic(hospitalId));
+    }
+
+    public SseEmitter subscribeToDoctor(Long doctorId) {
+        return subscribe(doctorTopic(doctorId));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        LiveUpdateDto update = LiveUpdateDto.builder()
+                .type("APPOINTMENT_" + event.getChangeType().name())
+                .hospitalId(event.getHospitalId())
+                .doctorId(event.getDoctorId())
+                .appointmentId(event.getAppointmentId())
+                .status(event.getStatus() != null ? event.getStatus().name() : null)
+                .occurredAt(LocalDateTime.now())
+                .build();
+        publish(hospitalTopic(event.getHospitalId()), update);
+        publish(doctorTopic(event.getDoctorId()), update);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDashboardDataChanged(DashboardDataChangedEvent event) {
+        publish(hospitalTopic(event.getHospitalId()), LiveUpdateDto.builder()
+                .type("DASHBOARD_DATA_CHANGED")
+                .hospitalId(event.getHospitalId())
+                .occurredAt(LocalDateTime.now())
+                .build());
+    }
+
+    @Scheduled(fixedDelayString = "${live-updates.heartbeat-interval-ms:25000}")
+    public void sendHeartbeats() {
+        subscribers.forEach((topic, emitters) -> emitters.forEach(emitter ->
+                send(topic, emitter, () -> SseEmitter.event().comment("heartbeat"))));
+    }
+
+    private SseEmitter subscribe(String topic) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        subscribers.compute(topic, (key, emitters) -> {
+            Set<SseEmitter> topicEmitters = emitters != null ? emitters : ConcurrentHashMap.newKeySet();
+            topicEmitters.add(emitter);
+            return topicEmitters;
+        });
+        emitter.onCompletion(() -> remove(topic, emitter));
+        emitter.onTimeout(() -> remove(topic, emitter));
+        emitter.onError(error -> remove(topic, emitter));
+        log.debug("Live update subscriber added to {}", topic);
+        return emitter;
+    }
+
+    private void publish(String topic, LiveUpdateDto update) {
+        Set<SseEmitter> emitters = subscribers.get(topic);
+        if (emitters == null || emitters.isEmpty()) {
+            return;
+        }
+        emitters.forEach(emitter ->
+                send(topic, emitter, () -> SseEmitter.event().name(EVENT_NAME).data(update, MediaType.APPLICATION_JSON)));
+    }
+
+    /**
+     * Writes one event to one subscriber on the executor. A write that started but has not finished within the
+     * send timeout means the client stopped reading, so the subscription is ended; a task the saturated executor
+     * dropped before it started only loses that event.
+     */
+    private void send(String topic, SseEmitter emitter, Supplier<SseEmitter.SseEventBuilder> event) {
+        AtomicBoolean started = new AtomicBoolean();
+        CompletableFuture.runAsync(() -> {
+                    started.set(true);
+                    try {
+                        emitter.send(event.get());
+                    } catch (IOException | IllegalStateException e) {
+                        remove(topic, emitter);
+                    }
+                }, executor)
+                .orTimeout(sendTimeoutMs, TimeUnit.MILLISECONDS)
+                .exceptionally(error -> {
+                    if (started.get()) {
+                        log.debug("Live update subscriber on {} stopped reading; disconnecting", topic);
+                        remove(topic, emitter);
+                        emitter.completeWithError(error);
+                    }
+                    return null;
+                });
+    }
+
+    private void remove(String topic, SseEmitter emitter) {
+        subscribers.computeIfPresent(topic, (key, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    private static String hospitalTopic(Long hospitalId) {
+        return "hospital:" + hospitalId;
+    }
+
+    private static String doctorTopic(Long doctorId) {
+        return "doctor:" + doctorId;
+    }
+}
@@ -0,0 +1,12 @@
+package com.mhms.medisynapse.numbering;
+
+/**
+ * Issues human-readable document numbers (bills, receipts, claims) that are unique across application nodes.
+ */
+public interface DocumentNumberGenerator {
+
+    /**
+     * Next number of {@code type} for {@code hospitalId} on the current hospital day.
+     */
+    String next(DocumentType type, Long hospitalId);
+}
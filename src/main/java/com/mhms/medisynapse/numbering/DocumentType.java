@@ -0,0 +1,17 @@
+package com.mhms.medisynapse.numbering;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Kinds of numbered documents; each has its own per-hospital, per-day sequence.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum DocumentType {
+    BILL("BILL"),
+    RECEIPT("RCPT"),
+    CLAIM("CLM");
+
+    private final String prefix;
+}
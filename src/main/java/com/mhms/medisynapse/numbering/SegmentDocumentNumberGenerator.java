@@ -0,0 +1,94 @@
+package com.mhms.medisynapse.numbering;
+
+import com.mhms.medisynapse.repository.DocumentNumberSegmentRepository;
+import com.mhms.medisynapse.scheduling.HospitalClock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Document numbers of the form {@code PREFIX-<hospitalId>-<yyyyMMdd>-<sequence>}, e.g. {@code BILL-3-20261017-000042}.
+ * <p>
+ * Each node reserves blocks of {@code document-numbers.block-size} sequence values from the
+ * {@code document_number_segment} table in a short transaction of its own, then hands them out from memory, so
+ * most numbers cost no database round trip. Blocks never overlap across nodes, which keeps numbers unique;
+ * within a node they increase monotonically. Values left in a block when the node stops or the day ends are
+ * skipped, so sequences can have gaps.
+ */
+@Component
+@Slf4j
+public class SegmentDocumentNumberGenerator implements DocumentNumberGenerator {
+
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final Map<SegmentKey, Segment> segments = new ConcurrentHashMap<>();
+    private final DocumentNumberSegmentRepository segmentRepository;
+    private final HospitalClock hospitalClock;
+    private final TransactionTemplate allocationTransaction;
+
+    @Value("${document-numbers.block-size:50}")
+    private long blockSize;
+
+    public SegmentDocumentNumberGenerator(DocumentNumberSegmentRepository segmentRepository,
+                                          HospitalClock hospitalClock,
+                                          PlatformTransactionManager transactionManager) {
+        this.segmentRepository = segmentRepository;
+        this.hospitalClock = hospitalClock;
+        // Commit the reservation straight away so other nodes are not blocked behind the caller's transaction
+        this.allocationTransaction = new TransactionTemplate(transactionManager);
+        this.allocationTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public String next(DocumentType type, Long hospitalId) {
+        LocalDate day = hospitalClock.today();
+        SegmentKey key = new SegmentKey(type, hospitalId, day);
+
+        Segment segment = segments.get(key);
+        if (segment == null) {
+            // A new day has started for this hospital; earlier days' segments will not be used again
+            segments.keySet().removeIf(existing -> existing.day().isBefore(day));
+            segment = segments.computeIfAbsent(key, k -> new Segment());
+        }
+
+        long value;
+        synchronized (segment) {
+            if (segment.next > segment.max) {
+                long blockEnd = reserveBlock(key);
+                segment.next = blockEnd - blockSize + 1;
+                segment.max = blockEnd;
+            }
+            value = segment.next++;
+        }
+        return String.format("%s-%d-%s-%06d", type.getPrefix(), hospitalId, day.format(DAY_FORMAT), value);
+    }
+
+    private long reserveBlock(SegmentKey key) {
+        Long blockEnd = allocationTransaction.execute(status -> {
+            segmentRepository.reserveBlock(key.type().name(), key.hospitalId(), key.day(), blockSize);
+            return segmentRepository.findMaxValue(key.type(), key.hospitalId(), key.day());
+        });
+        if (blockEnd == null) {
+            throw new IllegalStateException("Failed to reserve document numbers for " + key);
+        }
+        log.debug("Reserved {} numbers up to {} for {}", blockSize, blockEnd, key);
+        return blockEnd;
+    }
+
+    private record SegmentKey(DocumentType type, Long hospitalId, LocalDate day) {
+    }
+
+    // Guarded by its own monitor; next > max means the block is used up
+    private static final class Segment {
+        private long next = 1;
+        private long max = 0;
+    }
+}
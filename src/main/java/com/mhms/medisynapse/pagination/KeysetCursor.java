@@ -0,0 +1,88 @@
+package com.mhms.medisynapse.pagination;
+
+import com.mhms.medisynapse.exception.InvalidDataException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Opaque cursor for keyset pagination over a {@code (sortField, id)} ordering where the sort field is a timestamp.
+ * <p>
+ * The cursor carries the sort value and id of the last row returned; the next page seeks past that pair with
+ * {@code sortField < value OR (sortField = value AND id < lastId)} (or the ascending equivalent), so each page
+ * costs the same index range scan no matter how deep the client has scrolled, and no count query is needed.
+ * <p>
+ * The sort field must be a NOT NULL column: the seek compares with {@code <} and {@code >}, which no NULL satisfies,
+ * so a page could never move past a row without a sort value. Such a row is reported as a server error when its
+ * cursor would be issued rather than handed to the client as a cursor that cannot be followed.
+ */
+public record KeysetCursor(String sortField, LocalDateTime sortValue, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public KeysetCursor {
+        if (sortField == null || sortValue == null || id == null) {
+            throw new IllegalArgumentException("Keyset cursor needs a sort field, a non-null sort value and an id");
+        }
+    }
+
+    /**
+     * Decode a client cursor; a blank cursor starts from the first row.
+     *
+     * @param expectedSortField the listing's current sort field, which the cursor must have been issued for
+     */
+    public static ScrollPosition toScrollPosition(String cursor, String expectedSortField) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        KeysetCursor decoded = decode(cursor);
+        if (!decoded.sortField().equals(expectedSortField)) {
+            throw new InvalidDataException("Cursor was issued for a different sort order");
+        }
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put(decoded.sortField(), decoded.sortValue());
+        keys.put("id", decoded.id());
+        return ScrollPosition.forward(keys);
+    }
+
+    /**
+     * Cursor pointing after the last row of {@code window}, or {@code null} when there are no more rows.
+     */
+    public static String nextCursor(Window<?> window, String sortField) {
+        if (!window.hasNext() || window.isEmpty()) {
+            return null;
+        }
+        KeysetScrollPosition position = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+        Map<String, ?> keys = position.getKeys();
+        Long id = ((Number) keys.get("id")).longValue();
+        if (keys.get(sortField) == null) {
+            throw new IllegalStateException("Row " + id + " has no " + sortField + "; keyset sort fields must be NOT NULL");
+        }
+        return new KeysetCursor(sortField, (LocalDateTime) keys.get(sortField), id).encode();
+    }
+
+    public String encode() {
+        String raw = sortField + SEPARATOR + sortValue + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, -1);
+            if (parts.length != 3) {
+                throw new InvalidDataException("Invalid pagination cursor");
+            }
+            return new KeysetCursor(parts[0], LocalDateTime.parse(parts[1]), Long.valueOf(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidDataException("Invalid pagination cursor", e);
+        }
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -31,9 +32,25 @@ public interface AdmissionRepository extends JpaRepository<Admission, Long> {
 
     @Query("SELECT COUNT(a) FROM Admission a " +
             "WHERE a.department.id = :departmentId " +
-            "AND DATE(a.createdDt) = CURRENT_DATE " +
+            "AND a.createdDt >= :dayStart " +
+            "AND a.createdDt < :nextDayStart " +
             "AND a.isActive = true")
-    Long countTodayAdmissionsByDepartmentId(@Param("departmentId") Long departmentId);
+    Long countTodayAdmissionsByDepartmentId(@Param("departmentId") Long departmentId,
+                                            @Param("dayStart") LocalDateTime dayStart,
+                                            @Param("nextDayStart") LocalDateTime nextDayStart);
+
+    // Admissions created in the range per name of the hospital's active departments
+    @Query("SELECT d.name, COUNT(a) FROM Admission a " +
+            "JOIN a.department d " +
+            "WHERE d.hospital.id = :hospitalId " +
+            "AND d.isActive = true " +
+            "AND a.createdDt >= :dayStart " +
+            "AND a.createdDt < :nextDayStart " +
+            "AND a.isActive = true " +
+            "GROUP BY d.name")
+    List<Object[]> countDailyAdmissionsByDepartmentName(@Param("hospitalId") Long hospitalId,
+                                                        @Param("dayStart") LocalDateTime dayStart,
+                                                        @Param("nextDayStart") LocalDateTime nextDayStart);
 
     @Query("SELECT a FROM Admission a " +
             "JOIN FETCH a.patient p " +
@@ -74,4 +91,21 @@ public interface AdmissionRepository extends JpaRepository<Admission, Long> {
             "AND a.isActive = true " +
             "ORDER BY a.createdDt DESC")
     List<Admission> findCurrentAdmissionByPatientId(@Param("patientId") Long patientId);
+
+    @Query("SELECT a FROM Admission a " +
+            "LEFT JOIN FETCH a.admittingDoctor " +
+            "WHERE a.patient.id IN :patientIds " +
+            "AND a.status = 'ADMITTED' " +
+            "AND a.dischargeDt IS NULL " +
+            "AND a.isActive = true " +
+            "ORDER BY a.createdDt DESC")
+    List<Admission> findCurrentAdmissionsByPatientIds(@Param("patientIds") Collection<Long> patientIds);
+
+    @Query("SELECT a FROM Admission a " +
+            "LEFT JOIN FETCH a.hospital " +
+            "LEFT JOIN FETCH a.department " +
+            "LEFT JOIN FETCH a.admittingDoctor " +
+            "WHERE a.patient.id = :patientId " +
+            "ORDER BY a.admissionDate DESC")
+    List<Admission> findPatientHistoryAdmissions(@Param("patientId") Long patientId);
 }
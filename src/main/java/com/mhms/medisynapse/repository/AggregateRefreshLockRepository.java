@@ -0,0 +1,48 @@
+package com.mhms.medisynapse.repository;
+
+import com.mhms.medisynapse.entity.AggregateRefreshLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AggregateRefreshLockRepository extends JpaRepository<AggregateRefreshLock, String> {
+
+    /**
+     * Creates the key if missing and takes its exclusive lock either way, until the transaction ends.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO aggregate_refresh_lock (lock_key, locked_dt) VALUES (:lockKey, :now) " +
+            "ON DUPLICATE KEY UPDATE locked_dt = :now",
+            nativeQuery = true)
+    int lockExclusive(@Param("lockKey") String lockKey, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO aggregate_refresh_lock (lock_key, locked_dt) VALUES (:lockKey, :now)",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("lockKey") String lockKey, @Param("now") LocalDateTime now);
+
+    /**
+     * Takes a shared lock on an existing key until the transaction ends; waits while another transaction holds it
+     * exclusively.
+     */
+    @Query(value = "SELECT lock_key FROM aggregate_refresh_lock WHERE lock_key = :lockKey LOCK IN SHARE MODE",
+            nativeQuery = true)
+    List<String> lockShared(@Param("lockKey") String lockKey);
+
+    /**
+     * Takes the exclusive lock on an existing key unless another transaction holds it; empty when it does.
+     */
+    @Query(value = "SELECT lock_key FROM aggregate_refresh_lock WHERE lock_key = :lockKey FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<String> tryLockExclusive(@Param("lockKey") String lockKey);
+
+    @Modifying
+    @Query("DELETE FROM AggregateRefreshLock l WHERE l.lockedDt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,145 @@
+package com.mhms.medisynapse.repository;
+
+import com.mhms.medisynapse.entity.AppointmentDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AppointmentDailyRollupRepository extends JpaRepository<AppointmentDailyRollup, Long> {
+
+    // Fragments of the statistics sums below, one variant per combination of optional filters so each query
+    // keeps a plain predicate its index can serve
+
+    String SUM_DIMENSIONS = "SELECT r.departmentId, dep.name, r.doctorId, doc.name, r.status, r.appointmentType, " +
+            "SUM(r.appointmentCount), SUM(r.totalMinutes) " +
+            "FROM AppointmentDailyRollup r " +
+            "JOIN Department dep ON dep.id = r.departmentId " +
+            "JOIN User doc ON doc.id = r.doctorId " +
+            "WHERE r.hospitalId = :hospitalId " +
+            "AND r.appointmentDate >= :fromDate AND r.appointmentDate <= :toDate ";
+
+    String GROUP_DIMENSIONS = "GROUP BY r.departmentId, dep.name, r.doctorId, doc.name, r.status, r.appointmentType";
+
+    String SUM_DAYS = "SELECT r.appointmentDate, SUM(r.appointmentCount) " +
+            "FROM AppointmentDailyRollup r " +
+            "WHERE r.hospitalId = :hospitalId " +
+            "AND r.appointmentDate >= :fromDate AND r.appointmentDate <= :toDate ";
+
+    String GROUP_DAYS = "GROUP BY r.appointmentDate ORDER BY r.appointmentDate";
+
+    // Served by idx_appointment_rollup_department_date
+    String FOR_DEPARTMENT = "AND r.departmentId = :departmentId ";
+
+    // Served by uk_appointment_rollup
+    String FOR_DOCTOR = "AND r.doctorId = :doctorId ";
+
+    /**
+     * Appointment count and booked minutes per department, doctor, status and type over {@code [fromDate, toDate]}.
+     * Rows: departmentId, departmentName, doctorId, doctorName, status, appointmentType, count, minutes.
+     */
+    @Query(SUM_DIMENSIONS + GROUP_DIMENSIONS)
+    List<Object[]> sumByDepartmentDoctorStatusAndType(@Param("hospitalId") Long hospitalId,
+                                                      @Param("fromDate") LocalDate fromDate,
+                                                      @Param("toDate") LocalDate toDate);
+
+    @Query(SUM_DIMENSIONS + FOR_DEPARTMENT + GROUP_DIMENSIONS)
+    List<Object[]> sumByDepartmentDoctorStatusAndTypeForDepartment(@Param("hospitalId") Long hospitalId,
+                                                                   @Param("fromDate") LocalDate fromDate,
+                                                                   @Param("toDate") LocalDate toDate,
+                                                                   @Param("departmentId") Long departmentId);
+
+    @Query(SUM_DIMENSIONS + FOR_DOCTOR + GROUP_DIMENSIONS)
+    List<Object[]> sumByDepartmentDoctorStatusAndTypeForDoctor(@Param("hospitalId") Long hospitalId,
+                                                               @Param("fromDate") LocalDate fromDate,
+                                                               @Param("toDate") LocalDate toDate,
+                                                               @Param("doctorId") Long doctorId);
+
+    @Query(SUM_DIMENSIONS + FOR_DOCTOR + FOR_DEPARTMENT + GROUP_DIMENSIONS)
+    List<Object[]> sumByDepartmentDoctorStatusAndTypeForDepartmentAndDoctor(@Param("hospitalId") Long hospitalId,
+                                                                            @Param("fromDate") LocalDate fromDate,
+                                                                            @Param("toDate") LocalDate toDate,
+                                                                            @Param("departmentId") Long departmentId,
+                                                                            @Param("doctorId") Long doctorId);
+
+    /**
+     * Appointment count per day over {@code [fromDate, toDate]}. Rows: appointmentDate, count.
+     */
+    @Query(SUM_DAYS + GROUP_DAYS)
+    List<Object[]> sumByDay(@Param("hospitalId") Long hospitalId,
+                            @Param("fromDate") LocalDate fromDate,
+                            @Param("toDate") LocalDate toDate);
+
+    @Query(SUM_DAYS + FOR_DEPARTMENT + GROUP_DAYS)
+    List<Object[]> sumByDayForDepartment(@Param("hospitalId") Long hospitalId,
+                                         @Param("fromDate") LocalDate fromDate,
+                                         @Param("toDate") LocalDate toDate,
+                                         @Param("departmentId") Long departmentId);
+
+    @Query(SUM_DAYS + FOR_DOCTOR + GROUP_DAYS)
+    List<Object[]> sumByDayForDoctor(@Param("hospitalId") Long hospitalId,
+                                     @Param("fromDate") LocalDate fromDate,
+                                     @Param("toDate") LocalDate toDate,
+                                     @Param("doctorId") Long doctorId);
+
+    @Query(SUM_DAYS + FOR_DOCTOR + FOR_DEPARTMENT + GROUP_DAYS)
+    List<Object[]> sumByDayForDepartmentAndDoctor(@Param("hospitalId") Long hospitalId,
+                                                  @Param("fromDate") LocalDate fromDate,
+                                                  @Param("toDate") LocalDate toDate,
+                                                  @Param("departmentId") Long departmentId,
+                                                  @Param("doctorId") Long doctorId);
+
+    @Modifying
+    @Query("DELETE FROM AppointmentDailyRollup r " +
+            "WHERE r.doctorId = :doctorId AND r.appointmentDate = :day")
+    int deleteDoctorDay(@Param("doctorId") Long doctorId, @Param("day") LocalDate day);
+
+    /**
+     * Recomputes one doctor's rows for {@code day} from the appointment table; call after {@link #deleteDoctorDay}.
+     * Served by idx_appointment_doctor_start_status.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO appointment_daily_rollup (hospital_id, department_id, doctor_id, appointment_date, " +
+            "status, appointment_type, appointment_count, total_minutes) " +
+            "SELECT a.fk_hospital_id, a.fk_department_id, a.fk_doctor_id, :day, " +
+            "COALESCE(a.status, 'SCHEDULED'), a.appointment_type, COUNT(*), COALESCE(SUM(a.duration_minutes), 0) " +
+            "FROM appointment a " +
+            "WHERE a.fk_doctor_id = :doctorId " +
+            "AND a.start_time >= :dayStart AND a.start_time < :nextDayStart " +
+            "AND a.is_active = TRUE " +
+            "GROUP BY a.fk_hospital_id, a.fk_department_id, a.fk_doctor_id, " +
+            "COALESCE(a.status, 'SCHEDULED'), a.appointment_type",
+            nativeQuery = true)
+    int insertDoctorDay(@Param("doctorId") Long doctorId,
+                        @Param("day") LocalDate day,
+                        @Param("dayStart") LocalDateTime dayStart,
+                        @Param("nextDayStart") LocalDateTime nextDayStart);
+
+    @Modifying
+    @Query("DELETE FROM AppointmentDailyRollup r WHERE r.appointmentDate = :day")
+    int deleteDay(@Param("day") LocalDate day);
+
+    /**
+     * Recomputes every hospital's rows for {@code day}; call after {@link #deleteDay}.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO appointment_daily_rollup (hospital_id, department_id, doctor_id, appointment_date, " +
+            "status, appointment_type, appointment_count, total_minutes) " +
+            "SELECT a.fk_hospital_id, a.fk_department_id, a.fk_doctor_id, :day, " +
+            "COALESCE(a.status, 'SCHEDULED'), a.appointment_type, COUNT(*), COALESCE(SUM(a.duration_minutes), 0) " +
+            "FROM appointment a " +
+            "WHERE a.start_time >= :dayStart AND a.start_time < :nextDayStart " +
+            "AND a.is_active = TRUE " +
+            "GROUP BY a.fk_hospital_id, a.fk_department_id, a.fk_doctor_id, " +
+            "COALESCE(a.status, 'SCHEDULED'), a.appointment_type",
+            nativeQuery = true)
+    int insertDay(@Param("day") LocalDate day,
+                  @Param("dayStart") LocalDateTime dayStart,
+                  @Param("nextDayStart") LocalDateTime nextDayStart);
+}
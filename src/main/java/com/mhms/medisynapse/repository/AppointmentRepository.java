@@ -1,20 +1,26 @@
 package com.mhms.medisynapse.repository;
 
 import com.mhms.medisynapse.entity.Appointment;
+import com.mhms.medisynapse.repository.projection.DoctorAppointmentCounters;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
+public interface AppointmentRepository extends JpaRepository<Appointment, Long>, JpaSpecificationExecutor<Appointment> {
 
     // Existing queries
     @Query("SELECT COUNT(a) FROM Appointment a " +
@@ -23,10 +29,13 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
 
     @Query("SELECT COUNT(a) FROM Appointment a " +
             "WHERE a.department.id = :departmentId " +
-            "AND DATE(a.startTime) = CURRENT_DATE " +
+            "AND a.startTime >= :dayStart " +
+            "AND a.startTime < :nextDayStart " +
             "AND a.status IN ('SCHEDULED', 'CONFIRMED', 'COMPLETED') " +
             "AND a.isActive = true")
-    Long countTodayAppointmentsByDepartmentId(@Param("departmentId") Long departmentId);
+    Long countTodayAppointmentsByDepartmentId(@Param("departmentId") Long departmentId,
+                                              @Param("dayStart") LocalDateTime dayStart,
+                                              @Param("nextDayStart") LocalDateTime nextDayStart);
 
     @Query("SELECT COUNT(a) FROM Appointment a " +
             "WHERE a.patient.id = :patientId " +
@@ -36,54 +45,15 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
 
     // Enhanced doctor availability queries
     @Query("SELECT a FROM Appointment a " +
-            "WHERE a.doctor.id = :doctorId AND DATE(a.startTime) = :date " +
+            "WHERE a.doctor.id = :doctorId " +
+            "AND a.startTime >= :dayStart " +
+            "AND a.startTime < :nextDayStart " +
             "AND a.status IN ('SCHEDULED', 'CONFIRMED', 'IN_PROGRESS') " +
             "AND a.isActive = true " +
             "ORDER BY a.startTime ASC")
-    List<Appointment> findAppointmentsByDoctorAndDate(@Param("doctorId") Long doctorId, @Param("date") LocalDate date);
-
-    // Comprehensive appointment filtering
-    @Query("SELECT a FROM Appointment a " +
-            "WHERE (:hospitalId IS NULL OR a.hospital.id = :hospitalId) " +
-            "AND (:doctorId IS NULL OR a.doctor.id = :doctorId) " +
-            "AND (:patientId IS NULL OR a.patient.id = :patientId) " +
-            "AND (:departmentId IS NULL OR a.department.id = :departmentId) " +
-            "AND (:status IS NULL OR a.status = :status) " +
-            "AND (:appointmentType IS NULL OR a.appointmentType = :appointmentType) " +
-            "AND (:startDate IS NULL OR a.startTime >= :startDate) " +
-            "AND (:endDate IS NULL OR a.startTime <= :endDate) " +
-            "AND a.isActive = true " +
-            "ORDER BY a.startTime DESC")
-    Page<Appointment> findAppointmentsWithFilters(
-            @Param("hospitalId") Long hospitalId,
-            @Param("doctorId") Long doctorId,
-            @Param("patientId") Long patientId,
-            @Param("departmentId") Long departmentId,
-            @Param("status") Appointment.AppointmentStatus status,
-            @Param("appointmentType") Appointment.AppointmentType appointmentType,
-            @Param("startDate") LocalDateTime startDate,
-            @Param("endDate") LocalDateTime endDate,
-            Pageable pageable);
-
-    @Query("SELECT a FROM Appointment a WHERE " +
-            "(:hospitalId IS NULL OR a.hospital.id = :hospitalId) AND " +
-            "(:doctorId IS NULL OR a.doctor.id = :doctorId) AND " +
-            "(:patientId IS NULL OR a.patient.id = :patientId) AND " +
-            "(:departmentId IS NULL OR a.department.id = :departmentId) AND " +
-            "(:appointmentType IS NULL OR a.appointmentType = :appointmentType) AND " +
-            "(:startDate IS NULL OR a.startTime >= :startDate) AND " +
-            "(:endDate IS NULL OR a.startTime <= :endDate) AND " +
-            "(:statusList IS NULL OR a.status IN :statusList)")
-    Page<Appointment> findAppointmentsWithFilters(
-            @Param("hospitalId") Long hospitalId,
-            @Param("doctorId") Long doctorId,
-            @Param("patientId") Long patientId,
-            @Param("departmentId") Long departmentId,
-            @Param("appointmentType") Appointment.AppointmentType appointmentType,
-            @Param("startDate") LocalDateTime startDate,
-            @Param("endDate") java.time.LocalDateTime endDate,
-            @Param("statusList") List<Appointment.AppointmentStatus> statusList,
-            Pageable pageable);
+    List<Appointment> findAppointmentsByDoctorAndDate(@Param("doctorId") Long doctorId,
+                                                      @Param("dayStart") LocalDateTime dayStart,
+                                                      @Param("nextDayStart") LocalDateTime nextDayStart);
 
     // Doctor availability check for time conflicts
     @Query("SELECT COUNT(a) FROM Appointment a " +
@@ -98,7 +68,60 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
             @Param("endTime") LocalDateTime endTime,
             @Param("excludeAppointmentId") Long excludeAppointmentId);
 
+    // Authoritative conflict check, run under the doctor's row lock. A locking read, so it sees bookings
+    // committed after the transaction's snapshot was taken.
+    @Query(value = "SELECT COUNT(*) FROM appointment a " +
+            "WHERE a.fk_doctor_id = :doctorId " +
+            "AND a.id <> :excludeAppointmentId " +
+            "AND a.status IN ('SCHEDULED', 'CONFIRMED', 'IN_PROGRESS') " +
+            "AND a.is_active = TRUE " +
+            "AND a.start_time < :endTime AND a.end_time > :startTime " +
+            "FOR UPDATE",
+            nativeQuery = true)
+    long countConflictingAppointmentsForUpdate(
+            @Param("doctorId") Long doctorId,
+            @Param("startTime") LocalDateTime startTime,
+            @Param("endTime") LocalDateTime endTime,
+            @Param("excludeAppointmentId") Long excludeAppointmentId);
+
+    // Booked appointments of a doctor still running at or after a point in time
+    @Query("SELECT a FROM Appointment a " +
+            "WHERE a.doctor.id = :doctorId " +
+            "AND a.endTime > :fromTime " +
+            "AND a.status IN ('SCHEDULED', 'CONFIRMED', 'IN_PROGRESS') " +
+            "AND a.isActive = true")
+    List<Appointment> findBookedAppointmentsByDoctorEndingAfter(
+            @Param("doctorId") Long doctorId,
+            @Param("fromTime") LocalDateTime fromTime);
+
+    // Booked intervals of several doctors overlapping a search window: [doctorId, startTime, endTime]
+    @Query("SELECT a.doctor.id, a.startTime, a.endTime FROM Appointment a " +
+            "WHERE a.doctor.id IN :doctorIds " +
+            "AND a.startTime < :windowEnd " +
+            "AND a.endTime > :windowStart " +
+            "AND a.status IN ('SCHEDULED', 'CONFIRMED', 'IN_PROGRESS') " +
+            "AND a.isActive = true")
+    List<Object[]> findBookedIntervalsByDoctorsInWindow(
+            @Param("doctorIds") List<Long> doctorIds,
+            @Param("windowStart") LocalDateTime windowStart,
+            @Param("windowEnd") LocalDateTime windowEnd);
+
+    // Appointments starting in the range per name of the hospital's active departments
+    @Query("SELECT d.name, COUNT(a) FROM Appointment a " +
+            "JOIN a.department d " +
+            "WHERE d.hospital.id = :hospitalId " +
+            "AND d.isActive = true " +
+            "AND a.startTime >= :dayStart " +
+            "AND a.startTime < :nextDayStart " +
+            "AND a.status IN ('SCHEDULED', 'CONFIRMED', 'IN_PROGRESS', 'COMPLETED') " +
+            "AND a.isActive = true " +
+            "GROUP BY d.name")
+    List<Object[]> countDailyAppointmentsByDepartmentName(@Param("hospitalId") Long hospitalId,
+                                                          @Param("dayStart") LocalDateTime dayStart,
+                                                          @Param("nextDayStart") LocalDateTime nextDayStart);
+
     // Upcoming appointments
+    @EntityGraph(attributePaths = {"patient", "patient.address", "doctor", "department", "hospital", "billing"})
     @Query("SELECT a FROM Appointment a " +
             "WHERE a.hospital.id = :hospitalId " +
             "AND a.startTime >= :fromTime " +
@@ -112,14 +135,19 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
             @Param("toTime") LocalDateTime toTime);
 
     // Today's appointments for a doctor (ALL statuses including COMPLETED)
+    @EntityGraph(attributePaths = {"patient", "patient.address", "doctor", "department", "hospital", "billing"})
     @Query("SELECT a FROM Appointment a " +
             "WHERE a.doctor.id = :doctorId " +
-            "AND DATE(a.startTime) = CURRENT_DATE " +
+            "AND a.startTime >= :dayStart " +
+            "AND a.startTime < :nextDayStart " +
             "AND a.isActive = true " +
             "ORDER BY a.startTime ASC")
-    List<Appointment> findTodayAppointmentsByDoctor(@Param("doctorId") Long doctorId);
+    List<Appointment> findTodayAppointmentsByDoctor(@Param("doctorId") Long doctorId,
+                                                    @Param("dayStart") LocalDateTime dayStart,
+                                                    @Param("nextDayStart") LocalDateTime nextDayStart);
 
     // Patient appointment history
+    @EntityGraph(attributePaths = {"patient", "patient.address", "doctor", "department", "hospital", "billing"})
     @Query("SELECT a FROM Appointment a " +
             "WHERE a.patient.id = :patientId " +
             "AND a.hospital.id = :hospitalId " +
@@ -130,6 +158,11 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
             @Param("hospitalId") Long hospitalId,
             Pageable pageable);
 
+    // Patient appointment history, keyset-scrolled by the given sort
+    @EntityGraph(attributePaths = {"patient", "patient.address", "doctor", "department", "hospital", "billing"})
+    Window<Appointment> findByPatientIdAndHospitalIdAndIsActiveTrue(
+            Long patientId, Long hospitalId, ScrollPosition position, Sort sort, Limit limit);
+
     // Appointments requiring reminders
     @Query("SELECT a FROM Appointment a " +
             "WHERE a.startTime BETWEEN :startTime AND :endTime " +
@@ -143,13 +176,15 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     // Waiting list - cancelled appointments in time slots
     @Query("SELECT a FROM Appointment a " +
             "WHERE a.doctor.id = :doctorId " +
-            "AND DATE(a.startTime) = :date " +
+            "AND a.startTime >= :dayStart " +
+            "AND a.startTime < :nextDayStart " +
             "AND a.status = 'CANCELLED' " +
             "AND a.isActive = true " +
             "ORDER BY a.startTime ASC")
     List<Appointment> findCancelledAppointmentSlots(
             @Param("doctorId") Long doctorId,
-            @Param("date") LocalDate date);
+            @Param("dayStart") LocalDateTime dayStart,
+            @Param("nextDayStart") LocalDateTime nextDayStart);
 
     // Statistics queries
     @Query("SELECT COUNT(a) FROM Appointment a " +
@@ -173,6 +208,20 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
             @Param("appointmentId") Long appointmentId,
             @Param("hospitalId") Long hospitalId);
 
+    // Single-appointment detail view with everything the full mapping reads
+    @Query("SELECT a FROM Appointment a " +
+            "JOIN FETCH a.patient p " +
+            "LEFT JOIN FETCH p.address " +
+            "JOIN FETCH a.doctor " +
+            "LEFT JOIN FETCH a.department " +
+            "JOIN FETCH a.hospital " +
+            "WHERE a.id = :appointmentId " +
+            "AND a.hospital.id = :hospitalId " +
+            "AND a.isActive = true")
+    Optional<Appointment> findDetailByIdAndHospitalId(
+            @Param("appointmentId") Long appointmentId,
+            @Param("hospitalId") Long hospitalId);
+
     // Check if patient and doctor belong to same hospital
     @Query("SELECT COUNT(a) FROM Appointment a " +
             "WHERE a.patient.id = :patientId " +
@@ -193,81 +242,81 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
             @Param("hospitalId") Long hospitalId);
 
     // Department Performance Queries
-    @Query("SELECT COUNT(a) FROM Appointment a " +
-            "WHERE a.department.id = :departmentId " +
-            "AND DATE(a.startTime) = CURRENT_DATE " +
-            "AND a.status IN ('SCHEDULED', 'CONFIRMED', 'IN_PROGRESS', 'COMPLETED') " +
-            "AND a.isActive = true")
-    Long countTodayPatientsByDepartmentId(@Param("departmentId") Long departmentId);
-
-    @Query("SELECT COUNT(a) FROM Appointment a " +
-            "WHERE a.department.id = :departmentId " +
-            "AND a.startTime >= :startOfMonth " +
-            "AND a.startTime < :endOfMonth " +
-            "AND a.status IN ('SCHEDULED', 'CONFIRMED', 'IN_PROGRESS', 'COMPLETED') " +
-            "AND a.isActive = true")
-    Long countMonthlyPatientsByDepartmentId(
-            @Param("departmentId") Long departmentId,
-            @Param("startOfMonth") LocalDateTime startOfMonth,
-            @Param("endOfMonth") LocalDateTime endOfMonth);
-
-    @Query("SELECT a FROM Appointment a " +
-            "WHERE a.department.id = :departmentId " +
+    /**
+     * Per-department appointment counters for a hospital in one pass: today's patients, this month's patients,
+     * and completed/total appointments since {@code windowStart}. Rows are department id followed by the four
+     * counts; departments without appointments in range are absent.
+     */
+    @Query("SELECT a.department.id, " +
+            "SUM(CASE WHEN a.startTime >= :dayStart AND a.startTime < :nextDayStart " +
+            "AND a.status IN ('SCHEDULED', 'CONFIRMED', 'IN_PROGRESS', 'COMPLETED') THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN a.startTime >= :startOfMonth AND a.startTime < :endOfMonth " +
+            "AND a.status IN ('SCHEDULED', 'CONFIRMED', 'IN_PROGRESS', 'COMPLETED') THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN a.startTime >= :windowStart AND a.status = 'COMPLETED' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN a.startTime >= :windowStart THEN 1 ELSE 0 END) " +
+            "FROM Appointment a " +
+            "WHERE a.hospital.id = :hospitalId " +
+            "AND a.department IS NOT NULL " +
+            "AND a.startTime >= :rangeStart " +
+            "AND a.isActive = true " +
+            "GROUP BY a.department.id")
+    List<Object[]> countPerformanceByDepartmentForHospital(@Param("hospitalId") Long hospitalId,
+                                                           @Param("dayStart") LocalDateTime dayStart,
+                                                           @Param("nextDayStart") LocalDateTime nextDayStart,
+                                                           @Param("startOfMonth") LocalDateTime startOfMonth,
+                                                           @Param("endOfMonth") LocalDateTime endOfMonth,
+                                                           @Param("windowStart") LocalDateTime windowStart,
+                                                           @Param("rangeStart") LocalDateTime rangeStart);
+
+    /**
+     * Department id, scheduled start and check-in time of every checked-in appointment scheduled from
+     * {@code fromDate} and checked in before {@code checkedInBefore}, for backfilling wait-time sketches.
+     */
+    @Query("SELECT a.department.id, a.startTime, a.checkedInAt FROM Appointment a " +
+            "WHERE a.department IS NOT NULL " +
             "AND a.checkedInAt IS NOT NULL " +
+            "AND a.checkedInAt < :checkedInBefore " +
             "AND a.startTime >= :fromDate " +
             "AND a.isActive = true")
-    List<Appointment> findAppointmentsWithWaitTimeByDepartmentId(
-            @Param("departmentId") Long departmentId,
-            @Param("fromDate") LocalDateTime fromDate);
+    List<Object[]> findCheckInTimesBetween(@Param("fromDate") LocalDateTime fromDate,
+                                           @Param("checkedInBefore") LocalDateTime checkedInBefore);
 
-    @Query("SELECT COUNT(a) FROM Appointment a " +
-            "WHERE a.department.id = :departmentId " +
-            "AND a.status = 'COMPLETED' " +
-            "AND a.startTime >= :fromDate " +
-            "AND a.isActive = true")
-    Long countCompletedAppointmentsByDepartmentId(
-            @Param("departmentId") Long departmentId,
-            @Param("fromDate") LocalDateTime fromDate);
-
-    @Query("SELECT COUNT(a) FROM Appointment a " +
+    // Scheduled start and check-in of a department's checked-in appointments starting in [hourStart, hourEnd)
+    @Query("SELECT a.startTime, a.checkedInAt FROM Appointment a " +
             "WHERE a.department.id = :departmentId " +
-            "AND a.startTime >= :fromDate " +
-            "AND a.isActive = true")
-    Long countTotalAppointmentsByDepartmentId(
-            @Param("departmentId") Long departmentId,
-            @Param("fromDate") LocalDateTime fromDate);
-
-    // Doctor-specific queries
-    @Query("SELECT COUNT(DISTINCT a.patient.id) FROM Appointment a " +
-            "WHERE a.doctor.id = :doctorId " +
-            "AND a.isActive = true")
-    Long countDistinctPatientsByDoctor(@Param("doctorId") Long doctorId);
-
-    @Query("SELECT COUNT(a) FROM Appointment a " +
-            "WHERE a.doctor.id = :doctorId " +
-            "AND a.status = 'COMPLETED' " +
+            "AND a.startTime >= :hourStart " +
+            "AND a.startTime < :hourEnd " +
+            "AND a.checkedInAt IS NOT NULL " +
             "AND a.isActive = true")
-    Long countCompletedAppointmentsByDoctor(@Param("doctorId") Long doctorId);
+    List<Object[]> findCheckInTimesForDepartmentHour(@Param("departmentId") Long departmentId,
+                                                     @Param("hourStart") LocalDateTime hourStart,
+                                                     @Param("hourEnd") LocalDateTime hourEnd);
 
-    @Query("SELECT COUNT(a) FROM Appointment a " +
-            "WHERE a.doctor.id = :doctorId " +
-            "AND a.status IN ('SCHEDULED', 'CONFIRMED') " +
-            "AND a.isActive = true")
-    Long countPendingAppointmentsByDoctor(@Param("doctorId") Long doctorId);
+    // Bounds of the appointment history, for the initial rollup backfill
+    @Query("SELECT MIN(a.startTime) FROM Appointment a WHERE a.isActive = true")
+    LocalDateTime findEarliestStartTime();
 
-    @Query("SELECT COUNT(a) FROM Appointment a " +
-            "WHERE a.doctor.id = :doctorId " +
-            "AND DATE(a.startTime) = CURRENT_DATE " +
-            "AND a.status IN ('SCHEDULED', 'CONFIRMED', 'IN_PROGRESS') " +
-            "AND a.isActive = true")
-    Long countTodayAppointmentsByDoctor(@Param("doctorId") Long doctorId);
+    @Query("SELECT MAX(a.startTime) FROM Appointment a WHERE a.isActive = true")
+    LocalDateTime findLatestStartTime();
 
-    @Query("SELECT COUNT(a) FROM Appointment a " +
+    // Doctor-specific queries
+    /**
+     * Every dashboard/profile counter for a doctor in one pass over their active appointments.
+     */
+    @Query("SELECT COUNT(DISTINCT a.patient.id) AS totalPatients, " +
+            "COALESCE(SUM(CASE WHEN a.startTime >= :dayStart AND a.startTime < :nextDayStart " +
+            "AND a.status IN ('SCHEDULED', 'CONFIRMED', 'IN_PROGRESS') THEN 1 ELSE 0 END), 0) AS todayAppointments, " +
+            "COALESCE(SUM(CASE WHEN a.startTime > :now " +
+            "AND a.status IN ('SCHEDULED', 'CONFIRMED') THEN 1 ELSE 0 END), 0) AS upcomingAppointments, " +
+            "COALESCE(SUM(CASE WHEN a.status = 'COMPLETED' THEN 1 ELSE 0 END), 0) AS completedAppointments, " +
+            "COALESCE(SUM(CASE WHEN a.status IN ('SCHEDULED', 'CONFIRMED') THEN 1 ELSE 0 END), 0) AS pendingAppointments " +
+            "FROM Appointment a " +
             "WHERE a.doctor.id = :doctorId " +
-            "AND a.startTime > CURRENT_TIMESTAMP " +
-            "AND a.status IN ('SCHEDULED', 'CONFIRMED') " +
             "AND a.isActive = true")
-    Long countUpcomingAppointmentsByDoctor(@Param("doctorId") Long doctorId);
+    DoctorAppointmentCounters getDoctorAppointmentCounters(@Param("doctorId") Long doctorId,
+                                                          @Param("dayStart") LocalDateTime dayStart,
+                                                          @Param("nextDayStart") LocalDateTime nextDayStart,
+                                                          @Param("now") LocalDateTime now);
 
     @Query("SELECT a FROM Appointment a " +
             "LEFT JOIN FETCH a.patient " +
@@ -283,22 +332,6 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate);
 
-    @Query("SELECT a FROM Appointment a " +
-            "LEFT JOIN FETCH a.patient " +
-            "LEFT JOIN FETCH a.department " +
-            "WHERE a.doctor.id = :doctorId " +
-            "AND (:status IS NULL OR a.status = :status) " +
-            "AND (:startDate IS NULL OR DATE(a.startTime) >= :startDate) " +
-            "AND (:endDate IS NULL OR DATE(a.startTime) <= :endDate) " +
-            "AND a.isActive = true " +
-            "ORDER BY a.startTime DESC")
-    Page<Appointment> findAppointmentsByDoctorWithFilters(
-            @Param("doctorId") Long doctorId,
-            @Param("status") Appointment.AppointmentStatus status,
-            @Param("startDate") LocalDate startDate,
-            @Param("endDate") LocalDate endDate,
-            Pageable pageable);
-
     @Query("SELECT a FROM Appointment a " +
             "WHERE a.id = :appointmentId " +
             "AND a.doctor.id = :doctorId " +
@@ -338,4 +371,12 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
             @Param("doctorId") Long doctorId,
             @Param("excludeAppointmentId") Long excludeAppointmentId,
             Pageable pageable);
+
+    // Patient full history - single patient-scoped query with doctor/department fetched
+    @Query("SELECT a FROM Appointment a " +
+            "LEFT JOIN FETCH a.doctor " +
+            "LEFT JOIN FETCH a.department " +
+            "WHERE a.patient.id = :patientId " +
+            "ORDER BY a.startTime DESC")
+    List<Appointment> findPatientHistoryAppointments(@Param("patientId") Long patientId);
 }
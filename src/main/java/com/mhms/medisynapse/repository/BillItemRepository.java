@@ -2,6 +2,7 @@ package com.mhms.medisynapse.repository;
 
 import com.mhms.medisynapse.entity.BillItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -16,5 +17,9 @@ public interface BillItemRepository extends JpaRepository<BillItem, Long> {
 
     @Query("SELECT bi FROM BillItem bi WHERE bi.billing.id = :billingId AND bi.serviceType = :serviceType AND bi.isActive = true")
     List<BillItem> findByBillingIdAndServiceType(@Param("billingId") Long billingId, @Param("serviceType") String serviceType);
-}
 
+    // Single bulk statement; replaced items are never loaded into the persistence context
+    @Modifying
+    @Query("DELETE FROM BillItem bi WHERE bi.billing.id = :billingId AND bi.isActive = true")
+    int deleteActiveByBillingId(@Param("billingId") Long billingId);
+}
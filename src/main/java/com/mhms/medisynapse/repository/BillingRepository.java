@@ -1,13 +1,23 @@
 package com.mhms.medisynapse.repository;
 
 import com.mhms.medisynapse.entity.Billing;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Repository
 public interface BillingRepository extends JpaRepository<Billing, Long> {
 
@@ -23,9 +33,71 @@ public interface BillingRepository extends JpaRepository<Billing, Long> {
     @Query("SELECT b FROM Billing b WHERE b.hospital.id = :hospitalId AND b.status = :status AND b.isActive = true")
     Page<Billing> findByHospitalIdAndStatusAndIsActiveTrue(@Param("hospitalId") Long hospitalId, @Param("status") Billing.BillingStatus status, Pageable pageable);
 
+    // Keyset-scrolled variants of the hospital listing
+    Window<Billing> findByHospitalIdAndIsActiveTrue(Long hospitalId, ScrollPosition position, Sort sort, Limit limit);
+
+    Window<Billing> findByHospitalIdAndStatusAndIsActiveTrue(Long hospitalId, Billing.BillingStatus status,
+                                                             ScrollPosition position, Sort sort, Limit limit);
+
     @Query("SELECT b FROM Billing b WHERE b.status = :status AND b.isActive = true")
     Page<Billing> findByStatusAndIsActiveTrue(@Param("status") Billing.BillingStatus status, Pageable pageable);
 
     @Query("SELECT b FROM Billing b WHERE b.isActive = true")
     Page<Billing> findAllActiveBillings(Pageable pageable);
+
+    @Query("SELECT b FROM Billing b WHERE b.patient.id = :patientId ORDER BY b.createdDt DESC")
+    List<Billing> findPatientHistoryBillings(@Param("patientId") Long patientId);
+
+    // Guarded balance updates: each is one UPDATE whose WHERE clause re-checks the balance, so concurrent payments
+    // and refunds on the same bill serialize on the row lock and cannot overpay or lose an update. They return 0
+    // when the guard fails. Every SET expression reads only pre-update values (status is assigned first and each
+    // amount reads only itself), so the result is the same under MySQL's left-to-right assignment order.
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Billing b SET " +
+            "b.status = CASE WHEN b.outstandingAmount = :amount THEN :paidStatus ELSE :partiallyPaidStatus END, " +
+            "b.outstandingAmount = b.outstandingAmount - :amount, " +
+            "b.paidAmount = b.paidAmount + :amount, " +
+            "b.updatedBy = :updatedBy, b.lastUpdatedDt = :now " +
+            "WHERE b.id = :billingId AND b.outstandingAmount >= :amount")
+    int applyPayment(@Param("billingId") Long billingId,
+                     @Param("amount") BigDecimal amount,
+                     @Param("paidStatus") Billing.BillingStatus paidStatus,
+                     @Param("partiallyPaidStatus") Billing.BillingStatus partiallyPaidStatus,
+                     @Param("updatedBy") Long updatedBy,
+                     @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Billing b SET " +
+            "b.status = CASE WHEN b.outstandingAmount + :amount = b.netAmount THEN :draftStatus " +
+            "WHEN b.paidAmount > :amount THEN :partiallyPaidStatus ELSE b.status END, " +
+            "b.outstandingAmount = b.outstandingAmount + :amount, " +
+            "b.paidAmount = b.paidAmount - :amount, " +
+            "b.updatedBy = :updatedBy, b.lastUpdatedDt = :now " +
+            "WHERE b.id = :billingId AND b.paidAmount >= :amount")
+    int reversePayment(@Param("billingId") Long billingId,
+                       @Param("amount") BigDecimal amount,
+                       @Param("draftStatus") Billing.BillingStatus draftStatus,
+                       @Param("partiallyPaidStatus") Billing.BillingStatus partiallyPaidStatus,
+                       @Param("updatedBy") Long updatedBy,
+                       @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Billing b SET " +
+            "b.status = CASE WHEN b.paidAmount = :amount THEN :refundedStatus " +
+            "WHEN b.netAmount - b.paidAmount + :amount > 0 THEN :partiallyPaidStatus ELSE b.status END, " +
+            "b.outstandingAmount = b.netAmount - b.paidAmount + :amount, " +
+            "b.paidAmount = b.paidAmount - :amount, " +
+            "b.updatedBy = :updatedBy, b.lastUpdatedDt = :now " +
+            "WHERE b.id = :billingId AND b.paidAmount >= :amount")
+    int applyRefund(@Param("billingId") Long billingId,
+                    @Param("amount") BigDecimal amount,
+                    @Param("refundedStatus") Billing.BillingStatus refundedStatus,
+                    @Param("partiallyPaidStatus") Billing.BillingStatus partiallyPaidStatus,
+                    @Param("updatedBy") Long updatedBy,
+                    @Param("now") LocalDateTime now);
+
+    // Start of the billing history, for the initial revenue ledger backfill
+    @Query("SELECT MIN(b.billDate) FROM Billing b WHERE b.isActive = true")
+    LocalDate findEarliestBillDate();
 }
@@ -3,6 +3,7 @@ package com.mhms.medisynapse.repository;
 import com.mhms.medisynapse.entity.DepartmentType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -0,0 +1,53 @@
+package com.mhms.medisynapse.repository;
+
+import com.mhms.medisynapse.entity.DepartmentWaitTimeSketch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DepartmentWaitTimeSketchRepository extends JpaRepository<DepartmentWaitTimeSketch, Long> {
+
+    /**
+     * Creates the department-hour row if missing and takes its exclusive lock either way, serializing
+     * recomputation of that hour across nodes until the transaction ends.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO department_wait_time_sketch (department_id, sketch_hour, wait_count, last_updated_dt) " +
+            "VALUES (:departmentId, :sketchHour, 0, :now) " +
+            "ON DUPLICATE KEY UPDATE last_updated_dt = :now",
+            nativeQuery = true)
+    int lockHour(@Param("departmentId") Long departmentId,
+                 @Param("sketchHour") LocalDateTime sketchHour,
+                 @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE DepartmentWaitTimeSketch s SET s.waitCount = :waitCount, s.sketch = :sketch " +
+            "WHERE s.departmentId = :departmentId AND s.sketchHour = :sketchHour")
+    int updateHour(@Param("departmentId") Long departmentId,
+                   @Param("sketchHour") LocalDateTime sketchHour,
+                   @Param("waitCount") long waitCount,
+                   @Param("sketch") byte[] sketch);
+
+    /**
+     * Non-empty sketches of the departments for hours in {@code [fromHour, to)}. Rows: departmentId, sketch.
+     */
+    @Query("SELECT s.departmentId, s.sketch FROM DepartmentWaitTimeSketch s " +
+            "WHERE s.departmentId IN :departmentIds " +
+            "AND s.sketchHour >= :fromHour " +
+            "AND s.sketchHour < :to " +
+            "AND s.waitCount > 0")
+    List<Object[]> findSketches(@Param("departmentIds") Collection<Long> departmentIds,
+                                @Param("fromHour") LocalDateTime fromHour,
+                                @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query("DELETE FROM DepartmentWaitTimeSketch s WHERE s.sketchHour < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,35 @@
+package com.mhms.medisynapse.repository;
+
+import com.mhms.medisynapse.entity.DocumentNumberSegment;
+import com.mhms.medisynapse.numbering.DocumentType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+@Repository
+public interface DocumentNumberSegmentRepository extends JpaRepository<DocumentNumberSegment, Long> {
+
+    /**
+     * Advances the segment by {@code blockSize}, creating it on first use. The row stays locked until the
+     * surrounding transaction commits, so {@link #findMaxValue} in the same transaction reads this node's block end.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO document_number_segment (document_type, hospital_id, sequence_date, max_value) " +
+            "VALUES (:documentType, :hospitalId, :sequenceDate, :blockSize) " +
+            "ON DUPLICATE KEY UPDATE max_value = max_value + :blockSize",
+            nativeQuery = true)
+    int reserveBlock(@Param("documentType") String documentType,
+                     @Param("hospitalId") Long hospitalId,
+                     @Param("sequenceDate") LocalDate sequenceDate,
+                     @Param("blockSize") long blockSize);
+
+    @Query("SELECT s.maxValue FROM DocumentNumberSegment s " +
+            "WHERE s.documentType = :documentType AND s.hospitalId = :hospitalId AND s.sequenceDate = :sequenceDate")
+    Long findMaxValue(@Param("documentType") DocumentType documentType,
+                      @Param("hospitalId") Long hospitalId,
+                      @Param("sequenceDate") LocalDate sequenceDate);
+}
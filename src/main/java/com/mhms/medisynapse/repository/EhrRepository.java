@@ -12,5 +12,12 @@ import java.util.List;
 public interface EhrRepository extends JpaRepository<Ehr, Long> {
     @Query("SELECT e FROM Ehr e WHERE e.patient.id = :patientId")
     List<Ehr> findAllByPatientId(@Param("patientId") Long patientId);
-}
 
+    @Query("SELECT DISTINCT e FROM Ehr e " +
+            "LEFT JOIN FETCH e.doctor " +
+            "LEFT JOIN FETCH e.department " +
+            "LEFT JOIN FETCH e.attachments " +
+            "WHERE e.patient.id = :patientId " +
+            "ORDER BY e.visitDate DESC")
+    List<Ehr> findPatientHistoryEhrsWithAttachments(@Param("patientId") Long patientId);
+}
@@ -42,29 +42,15 @@ public interface HospitalRepository extends JpaRepository<Hospital, Long> {
     List<Hospital> searchActiveHospitalsByName(@Param("name") String name);
 
     // Statistics queries
-    @Query("SELECT COUNT(h) FROM Hospital h")
-    Long countTotalHospitals();
 
-    @Query("SELECT COUNT(h) FROM Hospital h WHERE h.isActive = true")
-    Long countActiveHospitals();
-
-    @Query("SELECT COUNT(h) FROM Hospital h WHERE h.isActive = false")
-    Long countInactiveHospitals();
-
-    @Query("SELECT COALESCE(SUM(h.totalBeds), 0) FROM Hospital h WHERE h.isActive = true")
-    Long sumTotalBeds();
-
-    @Query("SELECT COALESCE(SUM(h.availableBeds), 0) FROM Hospital h WHERE h.isActive = true")
-    Long sumAvailableBeds();
-
-    @Query("SELECT COALESCE(SUM(h.totalStaff), 0) FROM Hospital h WHERE h.isActive = true")
-    Long sumTotalStaff();
-
-    @Query("SELECT COALESCE(AVG(h.totalBeds), 0) FROM Hospital h WHERE h.isActive = true")
-    Integer averageBedsPerHospital();
-
-    @Query("SELECT h.status, COUNT(h) FROM Hospital h GROUP BY h.status")
-    List<Object[]> getStatusDistribution();
+    /**
+     * Hospital count, bed and staff totals per status and active flag, folded into the platform statistics.
+     * Rows: status, isActive, hospitalCount, totalBeds, availableBeds, totalStaff, hospitalsWithBedCount.
+     */
+    @Query("SELECT h.status, h.isActive, COUNT(h), COALESCE(SUM(h.totalBeds), 0), " +
+            "COALESCE(SUM(h.availableBeds), 0), COALESCE(SUM(h.totalStaff), 0), COUNT(h.totalBeds) " +
+            "FROM Hospital h GROUP BY h.status, h.isActive")
+    List<Object[]> summarizeByStatusAndActive();
 
     @Query("SELECT d.name, COUNT(d) FROM Department d JOIN d.hospital h WHERE h.isActive = true GROUP BY d.name ORDER BY COUNT(d) DESC")
     List<Object[]> getDepartmentDistribution();
@@ -0,0 +1,49 @@
+package com.mhms.medisynapse.repository;
+
+import com.mhms.medisynapse.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Claims {@code idempotencyKey} for this execution; returns 0 when another request already holds it.
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO idempotency_record (idempotency_key, request_hash, status, created_dt, expires_at) " +
+            "VALUES (:idempotencyKey, :requestHash, 'IN_PROGRESS', :now, :expiresAt)",
+            nativeQuery = true)
+    int claim(@Param("idempotencyKey") String idempotencyKey,
+              @Param("requestHash") String requestHash,
+              @Param("now") LocalDateTime now,
+              @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = :status, r.responseStatus = :responseStatus, " +
+            "r.responseContentType = :responseContentType, r.responseBody = :responseBody, r.expiresAt = :expiresAt " +
+            "WHERE r.idempotencyKey = :idempotencyKey")
+    int complete(@Param("idempotencyKey") String idempotencyKey,
+                 @Param("status") IdempotencyRecord.Status status,
+                 @Param("responseStatus") Integer responseStatus,
+                 @Param("responseContentType") String responseContentType,
+                 @Param("responseBody") String responseBody,
+                 @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.idempotencyKey = :idempotencyKey")
+    int release(@Param("idempotencyKey") String idempotencyKey);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.idempotencyKey = :idempotencyKey AND r.expiresAt < :now")
+    int deleteIfExpired(@Param("idempotencyKey") String idempotencyKey, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
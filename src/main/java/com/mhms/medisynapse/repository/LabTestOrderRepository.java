@@ -70,6 +70,15 @@ public interface LabTestOrderRepository extends JpaRepository<LabTestOrder, Long
             @Param("statuses") List<LabTestStatus> statuses
     );
 
+    /**
+     * Count active lab orders per status for hospital admin; statuses without orders are absent
+     */
+    @Query("SELECT l.status, COUNT(l) FROM LabTestOrder l " +
+            "WHERE l.hospital.id = :hospitalId " +
+            "AND l.isActive = true " +
+            "GROUP BY l.status")
+    List<Object[]> countByHospitalGroupedByStatus(@Param("hospitalId") Long hospitalId);
+
     /**
      * Count pending lab orders for appointment
      */
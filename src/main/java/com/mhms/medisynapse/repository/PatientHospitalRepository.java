@@ -2,8 +2,11 @@ package com.mhms.medisynapse.repository;
 
 import com.mhms.medisynapse.entity.PatientHospital;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -12,4 +15,9 @@ import java.util.Optional;
 @Repository
 public interface PatientHospitalRepository extends JpaRepository<PatientHospital, Long> {
     Optional<PatientHospital> findByPatientIdAndHospitalId(Long patientId, Long hospitalId);
+
+    @Query("SELECT ph FROM PatientHospital ph " +
+            "JOIN FETCH ph.hospital " +
+            "WHERE ph.patient.id = :patientId")
+    List<PatientHospital> findByPatientIdWithHospital(@Param("patientId") Long patientId);
 }
@@ -0,0 +1,21 @@
+package com.mhms.medisynapse.repository;
+
+import com.mhms.medisynapse.entity.PatientInsurance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for PatientInsurance entity.
+ */
+@Repository
+public interface PatientInsuranceRepository extends JpaRepository<PatientInsurance, Long> {
+
+    @Query("SELECT pi FROM PatientInsurance pi " +
+            "JOIN FETCH pi.insurance " +
+            "WHERE pi.patient.id = :patientId")
+    List<PatientInsurance> findByPatientIdWithInsurance(@Param("patientId") Long patientId);
+}
@@ -4,15 +4,17 @@ import com.mhms.medisynapse.entity.Patient;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface PatientRepository extends JpaRepository<Patient, Long> {
+public interface PatientRepository extends JpaRepository<Patient, Long>, JpaSpecificationExecutor<Patient> {
 
     @Query("SELECT COUNT(p) FROM Patient p " +
             "JOIN p.patientHospitals ph " +
@@ -26,20 +28,20 @@ public interface PatientRepository extends JpaRepository<Patient, Long> {
     List<Patient> findRecentAdmissionsByHospitalId(@Param("hospitalId") Long hospitalId,
                                                    @Param("admissionTime") LocalDateTime admissionTime);
 
-    @Query("SELECT p FROM Patient p " +
+    // Second phase of the hospital patient listing: hospital links and address for one page of patients
+    @Query("SELECT DISTINCT p FROM Patient p " +
             "JOIN FETCH p.patientHospitals ph " +
             "LEFT JOIN FETCH p.address " +
-            "WHERE (:hospitalId IS NULL OR ph.hospital.id = :hospitalId) " +
-            "AND p.isActive = true " +
-            "AND (:status IS NULL OR p.status = :status) " +
-            "AND (:search IS NULL OR :search = '' OR " +
-            "     LOWER(CONCAT(p.firstName, ' ', p.lastName)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-            "     LOWER(p.contact) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-            "     LOWER(p.nationalId) LIKE LOWER(CONCAT('%', :search, '%')))")
-    Page<Patient> findPatientsByHospitalId(@Param("hospitalId") Long hospitalId,
-                                           @Param("status") Patient.PatientStatus status,
-                                           @Param("search") String search,
-                                           Pageable pageable);
+            "WHERE p.id IN :patientIds " +
+            "AND ph.hospital.id = :hospitalId")
+    List<Patient> findByIdsWithHospitalLinks(@Param("patientIds") List<Long> patientIds,
+                                             @Param("hospitalId") Long hospitalId);
+
+    @Query("SELECT DISTINCT p FROM Patient p " +
+            "JOIN FETCH p.patientHospitals ph " +
+            "LEFT JOIN FETCH p.address " +
+            "WHERE p.id IN :patientIds")
+    List<Patient> findByIdsWithAllHospitalLinks(@Param("patientIds") List<Long> patientIds);
 
     @Query("SELECT p FROM Patient p " +
             "LEFT JOIN FETCH p.address " +
@@ -47,24 +49,6 @@ public interface PatientRepository extends JpaRepository<Patient, Long> {
     Patient findPatientById(@Param("patientId") Long patientId);
 
     // Doctor-specific patient queries
-    @Query("SELECT DISTINCT p FROM Patient p " +
-            "LEFT JOIN FETCH p.address " +
-            "WHERE p.id IN (" +
-            "   SELECT DISTINCT a.patient.id FROM Appointment a " +
-            "   WHERE a.doctor.id = :doctorId AND a.isActive = true" +
-            ") " +
-            "AND p.isActive = true " +
-            "AND (:status IS NULL OR p.status = :status) " +
-            "AND (:search IS NULL OR :search = '' OR " +
-            "     LOWER(CONCAT(p.firstName, ' ', p.lastName)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-            "     LOWER(p.contact) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-            "     LOWER(p.email) LIKE LOWER(CONCAT('%', :search, '%')))")
-    Page<Patient> findPatientsByDoctor(
-            @Param("doctorId") Long doctorId,
-            @Param("status") Patient.PatientStatus status,
-            @Param("search") String search,
-            Pageable pageable);
-
     @Query("SELECT DISTINCT p FROM Patient p " +
             "LEFT JOIN FETCH p.address " +
             "WHERE p.id IN (" +
@@ -85,16 +69,6 @@ public interface PatientRepository extends JpaRepository<Patient, Long> {
             "AND p.isActive = true")
     Long countPatientsByDoctor(@Param("doctorId") Long doctorId);
 
-    @Query("SELECT p FROM Patient p WHERE (:status IS NULL OR p.status = :status) AND " +
-            "(:search IS NULL OR " +
-            "     LOWER(CONCAT(p.firstName, ' ', p.lastName)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-            "     LOWER(p.contact) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-            "     LOWER(p.email) LIKE LOWER(CONCAT('%', :search, '%')))")
-    Page<Patient> findAllPatientsWithFilters(
-            @Param("status") Patient.PatientStatus status,
-            @Param("search") String search,
-            Pageable pageable);
-
     // 1. Patients for a hospital, filtered by PatientHospital.status
     @Query("SELECT p FROM Patient p JOIN p.patientHospitals ph WHERE ph.hospital.id = :hospitalId AND (:status IS NULL OR ph.status = :status) AND p.isActive = true AND ph.isActive = true")
     Page<Patient> findPatientsByHospitalAndStatus(@Param("hospitalId") Long hospitalId, @Param("status") com.mhms.medisynapse.entity.PatientHospital.PatientHospitalStatus status, Pageable pageable);
@@ -109,4 +83,9 @@ public interface PatientRepository extends JpaRepository<Patient, Long> {
     Page<Patient> findAll(Pageable pageable);
 
     java.util.Optional<Patient> findByNationalId(String nationalId);
+
+    @Query("SELECT p FROM Patient p " +
+            "LEFT JOIN FETCH p.address " +
+            "WHERE p.id = :patientId")
+    Optional<Patient> findByIdWithAddress(@Param("patientId") Long patientId);
 }
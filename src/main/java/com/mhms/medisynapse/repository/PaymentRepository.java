@@ -4,11 +4,13 @@ import com.mhms.medisynapse.entity.Payment;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -26,5 +28,12 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
 
     @Query("SELECT p FROM Payment p WHERE p.billing.hospital.id = :hospitalId AND p.isActive = true ORDER BY p.paymentDate DESC")
     Page<Payment> findByHospitalId(@Param("hospitalId") Long hospitalId, Pageable pageable);
-}
 
+    // Returns 0 when the payment was already voided, so a payment is reversed at most once
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Payment p SET p.isActive = false, p.updatedBy = :updatedBy, p.lastUpdatedDt = :now " +
+            "WHERE p.id = :paymentId AND p.isActive = true")
+    int voidIfActive(@Param("paymentId") Long paymentId,
+                     @Param("updatedBy") Long updatedBy,
+                     @Param("now") LocalDateTime now);
+}
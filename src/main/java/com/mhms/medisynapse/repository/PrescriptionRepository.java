@@ -99,4 +99,12 @@ public interface PrescriptionRepository extends JpaRepository<Prescription, Long
     Page<Prescription> findByDoctorAndHospital(@Param("doctorId") Long doctorId,
                                                @Param("hospitalId") Long hospitalId,
                                                Pageable pageable);
+
+    @Query("SELECT p FROM Prescription p " +
+            "LEFT JOIN FETCH p.doctor " +
+            "LEFT JOIN FETCH p.hospital " +
+            "WHERE p.patient.id = :patientId " +
+            "AND p.isActive = true " +
+            "ORDER BY p.prescriptionDate DESC")
+    List<Prescription> findPatientHistoryPrescriptions(@Param("patientId") Long patientId);
 }
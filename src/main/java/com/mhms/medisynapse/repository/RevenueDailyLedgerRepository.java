@@ -0,0 +1,131 @@
+package com.mhms.medisynapse.repository;
+
+import com.mhms.medisynapse.entity.RevenueDailyLedger;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RevenueDailyLedgerRepository extends JpaRepository<RevenueDailyLedger, Long> {
+
+    // Fragments of the ledger recomputation below, shared by the per-hospital and all-hospital variants
+
+    String INSERT_LEDGER = "INSERT INTO revenue_daily_ledger (hospital_id, ledger_date, entry_type, department_id, " +
+            "payment_method, service_type, amount, outstanding_amount) ";
+
+    // Each bill's net amount and outstanding balance split across its items in proportion to the item totals
+    String SELECT_BILLED = "SELECT b.fk_hospital_id, :day, 'BILLED', a.fk_department_id, NULL, bi.service_type, " +
+            "SUM(CASE WHEN b.total_amount > 0 THEN bi.total * b.net_amount / b.total_amount ELSE 0 END), " +
+            "SUM(CASE WHEN b.total_amount > 0 THEN bi.total * b.outstanding_amount / b.total_amount ELSE 0 END) " +
+            "FROM billing b " +
+            "JOIN bill_item bi ON bi.fk_billing_id = b.id AND bi.is_active = TRUE " +
+            "LEFT JOIN appointment a ON a.id = b.fk_appointment_id " +
+            "WHERE b.bill_date = :day AND b.is_active = TRUE AND COALESCE(b.status, 'DRAFT') <> 'CANCELLED' ";
+
+    String GROUP_BILLED = "GROUP BY b.fk_hospital_id, a.fk_department_id, bi.service_type ";
+
+    String SELECT_PAYMENTS = "SELECT b.fk_hospital_id, :day, 'PAYMENT', a.fk_department_id, p.payment_method, NULL, " +
+            "SUM(p.amount), 0 " +
+            "FROM payment p " +
+            "JOIN billing b ON b.id = p.fk_billing_id " +
+            "LEFT JOIN appointment a ON a.id = b.fk_appointment_id " +
+            "WHERE p.payment_date >= :dayStart AND p.payment_date < :nextDayStart AND p.is_active = TRUE ";
+
+    String GROUP_PAYMENTS = "GROUP BY b.fk_hospital_id, a.fk_department_id, p.payment_method ";
+
+    // Insurance settlements are credited to the bill without a payment row
+    String SELECT_SETTLEMENTS = "SELECT b.fk_hospital_id, :day, 'PAYMENT', a.fk_department_id, 'INSURANCE', NULL, " +
+            "SUM(s.amount_settled), 0 " +
+            "FROM insurance_settlement s " +
+            "JOIN insurance_claim c ON c.id = s.fk_claim_id " +
+            "JOIN billing b ON b.id = c.fk_billing_id " +
+            "LEFT JOIN appointment a ON a.id = b.fk_appointment_id " +
+            "WHERE s.settlement_date >= :dayStart AND s.settlement_date < :nextDayStart " +
+            "AND COALESCE(s.is_active, TRUE) = TRUE ";
+
+    String GROUP_SETTLEMENTS = "GROUP BY b.fk_hospital_id, a.fk_department_id ";
+
+    // Refunds carry no payment method of their own; the bill's is used
+    String SELECT_REFUNDS = "SELECT b.fk_hospital_id, :day, 'REFUND', a.fk_department_id, b.payment_method, NULL, " +
+            "SUM(r.amount), 0 " +
+            "FROM refund r " +
+            "JOIN billing b ON b.id = r.fk_billing_id " +
+            "LEFT JOIN appointment a ON a.id = b.fk_appointment_id " +
+            "WHERE r.refund_dt >= :dayStart AND r.refund_dt < :nextDayStart AND COALESCE(r.is_active, TRUE) = TRUE ";
+
+    String GROUP_REFUNDS = "GROUP BY b.fk_hospital_id, a.fk_department_id, b.payment_method";
+
+    String FOR_HOSPITAL = "AND b.fk_hospital_id = :hospitalId ";
+
+    // Fragments of the analytics sums below, with and without the department filter
+
+    String SUM_DIMENSIONS = "SELECT r.ledgerDate, r.entryType, r.departmentId, dep.name, r.paymentMethod, " +
+            "r.serviceType, SUM(r.amount), SUM(r.outstandingAmount) " +
+            "FROM RevenueDailyLedger r " +
+            "LEFT JOIN Department dep ON dep.id = r.departmentId " +
+            "WHERE r.hospitalId = :hospitalId " +
+            "AND r.ledgerDate >= :fromDate AND r.ledgerDate <= :toDate ";
+
+    String GROUP_DIMENSIONS = "GROUP BY r.ledgerDate, r.entryType, r.departmentId, dep.name, r.paymentMethod, " +
+            "r.serviceType " +
+            "ORDER BY r.ledgerDate";
+
+    /**
+     * Ledger amounts per day, entry type, department, payment method and service type over
+     * {@code [fromDate, toDate]}. Rows: ledgerDate, entryType, departmentId, departmentName, paymentMethod,
+     * serviceType, amount, outstandingAmount.
+     */
+    @Query(SUM_DIMENSIONS + GROUP_DIMENSIONS)
+    List<Object[]> sumByDayAndDimensions(@Param("hospitalId") Long hospitalId,
+                                         @Param("fromDate") LocalDate fromDate,
+                                         @Param("toDate") LocalDate toDate);
+
+    @Query(SUM_DIMENSIONS + "AND r.departmentId = :departmentId " + GROUP_DIMENSIONS)
+    List<Object[]> sumByDayAndDimensionsForDepartment(@Param("hospitalId") Long hospitalId,
+                                                      @Param("fromDate") LocalDate fromDate,
+                                                      @Param("toDate") LocalDate toDate,
+                                                      @Param("departmentId") Long departmentId);
+
+    @Modifying
+    @Query("DELETE FROM RevenueDailyLedger r WHERE r.hospitalId = :hospitalId AND r.ledgerDate = :day")
+    int deleteHospitalDay(@Param("hospitalId") Long hospitalId, @Param("day") LocalDate day);
+
+    /**
+     * Recomputes one hospital's rows for {@code day} from the billing tables; call after {@link #deleteHospitalDay}.
+     */
+    @Modifying
+    @Query(value = INSERT_LEDGER +
+            SELECT_BILLED + FOR_HOSPITAL + GROUP_BILLED + "UNION ALL " +
+            SELECT_PAYMENTS + FOR_HOSPITAL + GROUP_PAYMENTS + "UNION ALL " +
+            SELECT_SETTLEMENTS + FOR_HOSPITAL + GROUP_SETTLEMENTS + "UNION ALL " +
+            SELECT_REFUNDS + FOR_HOSPITAL + GROUP_REFUNDS,
+            nativeQuery = true)
+    int insertHospitalDay(@Param("hospitalId") Long hospitalId,
+                          @Param("day") LocalDate day,
+                          @Param("dayStart") LocalDateTime dayStart,
+                          @Param("nextDayStart") LocalDateTime nextDayStart);
+
+    @Modifying
+    @Query("DELETE FROM RevenueDailyLedger r WHERE r.ledgerDate = :day")
+    int deleteDay(@Param("day") LocalDate day);
+
+    /**
+     * Recomputes every hospital's rows for {@code day}; call after {@link #deleteDay}.
+     */
+    @Modifying
+    @Query(value = INSERT_LEDGER +
+            SELECT_BILLED + GROUP_BILLED + "UNION ALL " +
+            SELECT_PAYMENTS + GROUP_PAYMENTS + "UNION ALL " +
+            SELECT_SETTLEMENTS + GROUP_SETTLEMENTS + "UNION ALL " +
+            SELECT_REFUNDS + GROUP_REFUNDS,
+            nativeQuery = true)
+    int insertDay(@Param("day") LocalDate day,
+                  @Param("dayStart") LocalDateTime dayStart,
+                  @Param("nextDayStart") LocalDateTime nextDayStart);
+}
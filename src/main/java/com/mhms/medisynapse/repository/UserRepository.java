@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -31,6 +32,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u WHERE u.id = :id AND u.isActive = true")
     Optional<User> findActiveUserById(@Param("id") Long id);
 
+    // Serializes bookings of one doctor across nodes: held until the booking transaction ends
+    @Query(value = "SELECT id FROM `user` WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockById(@Param("id") Long id);
+
     @Query("SELECT h.id FROM Hospital h WHERE h.isActive = true AND NOT EXISTS (SELECT u FROM User u WHERE u.hospital.id = h.id AND u.role = 'HOSPITAL_ADMIN' AND u.isActive = true)")
     List<Long> findAvailableHospitalIds();
 
@@ -43,18 +48,43 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT CASE WHEN COUNT(u) > 0 THEN true ELSE false END FROM User u WHERE u.phone = :phone AND u.id != :excludeId AND u.isActive = true")
     boolean existsByPhoneExcludingId(@Param("phone") String phone, @Param("excludeId") Long excludeId);
 
-    @Query("SELECT COUNT(a) FROM Appointment a WHERE a.doctor.id = :doctorId AND DATE(a.startTime) = CURRENT_DATE AND a.status IN ('SCHEDULED', 'IN_PROGRESS')")
-    Long countTodayAppointmentsByDoctor(@Param("doctorId") Long doctorId);
+    @Query("SELECT COUNT(a) FROM Appointment a WHERE a.doctor.id = :doctorId AND a.startTime >= :dayStart AND a.startTime < :nextDayStart AND a.status IN ('SCHEDULED', 'IN_PROGRESS')")
+    Long countTodayAppointmentsByDoctor(@Param("doctorId") Long doctorId,
+                                        @Param("dayStart") LocalDateTime dayStart,
+                                        @Param("nextDayStart") LocalDateTime nextDayStart);
 
     @Query("SELECT u FROM User u WHERE u.hospital.id = :hospitalId AND u.role = 'DOCTOR' AND u.isActive = true ORDER BY u.name ASC")
     List<User> findDoctorsByHospital(@Param("hospitalId") Long hospitalId);
 
-    @Query("SELECT COUNT(u) FROM User u " +
-            "WHERE u.department.id = :departmentId " +
+    @Query("SELECT u FROM User u " +
+            "JOIN FETCH u.department d " +
+            "WHERE u.hospital.id = :hospitalId " +
+            "AND d.id = :departmentId " +
             "AND u.role = 'DOCTOR' " +
             "AND u.status = 'ACTIVE' " +
-            "AND u.isActive = true")
-    Long countActiveDoctorsByDepartmentId(@Param("departmentId") Long departmentId);
+            "AND u.isActive = true " +
+            "ORDER BY u.name ASC")
+    List<User> findActiveDoctorsByDepartmentId(@Param("hospitalId") Long hospitalId,
+                                               @Param("departmentId") Long departmentId);
+
+    @Query("SELECT u FROM User u " +
+            "JOIN FETCH u.department d " +
+            "WHERE u.hospital.id = :hospitalId " +
+            "AND LOWER(d.name) = LOWER(:specialty) " +
+            "AND u.role = 'DOCTOR' " +
+            "AND u.status = 'ACTIVE' " +
+            "AND u.isActive = true " +
+            "ORDER BY u.name ASC")
+    List<User> findActiveDoctorsBySpecialty(@Param("hospitalId") Long hospitalId,
+                                            @Param("specialty") String specialty);
+
+    @Query("SELECT u.department.id, COUNT(u) FROM User u " +
+            "WHERE u.department.hospital.id = :hospitalId " +
+            "AND u.role = 'DOCTOR' " +
+            "AND u.status = 'ACTIVE' " +
+            "AND u.isActive = true " +
+            "GROUP BY u.department.id")
+    List<Object[]> countActiveDoctorsByDepartmentForHospital(@Param("hospitalId") Long hospitalId);
 
     @Query("SELECT COUNT(u) FROM User u " +
             "WHERE u.hospital.id = :hospitalId " +
@@ -0,0 +1,18 @@
+package com.mhms.medisynapse.repository.projection;
+
+/**
+ * A doctor's appointment counters, computed together by
+ * {@link com.mhms.medisynapse.repository.AppointmentRepository#getDoctorAppointmentCounters}.
+ */
+public interface DoctorAppointmentCounters {
+
+    Long getTotalPatients();
+
+    Long getTodayAppointments();
+
+    Long getUpcomingAppointments();
+
+    Long getCompletedAppointments();
+
+    Long getPendingAppointments();
+}
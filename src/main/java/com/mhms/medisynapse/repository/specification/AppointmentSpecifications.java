@@ -0,0 +1,110 @@
+package com.mhms.medisynapse.repository.specification;
+
+import com.mhms.medisynapse.entity.Appointment;
+import jakarta.persistence.criteria.JoinType;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Composable filters for appointment listings.
+ * <p>
+ * Each factory returns {@code null} when its filter was not supplied, so callers only add predicates for the
+ * filters actually present and the database sees a plain, index-friendly WHERE clause instead of
+ * {@code (:x IS NULL OR a.x = :x)} chains.
+ */
+public final class AppointmentSpecifications {
+
+    private AppointmentSpecifications() {
+    }
+
+    public static Specification<Appointment> hospitalId(Long hospitalId) {
+        return hospitalId == null ? null : (root, query, cb) -> cb.equal(root.get("hospital").get("id"), hospitalId);
+    }
+
+    public static Specification<Appointment> doctorId(Long doctorId) {
+        return doctorId == null ? null : (root, query, cb) -> cb.equal(root.get("doctor").get("id"), doctorId);
+    }
+
+    public static Specification<Appointment> patientId(Long patientId) {
+        return patientId == null ? null : (root, query, cb) -> cb.equal(root.get("patient").get("id"), patientId);
+    }
+
+    public static Specification<Appointment> departmentId(Long departmentId) {
+        return departmentId == null ? null : (root, query, cb) -> cb.equal(root.get("department").get("id"), departmentId);
+    }
+
+    public static Specification<Appointment> status(Appointment.AppointmentStatus status) {
+        return status == null ? null : (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Appointment> statusIn(Collection<Appointment.AppointmentStatus> statuses) {
+        if (statuses == null || statuses.isEmpty()) {
+            return null;
+        }
+        return statuses.size() == 1
+                ? status(statuses.iterator().next())
+                : (root, query, cb) -> root.get("status").in(statuses);
+    }
+
+    public static Specification<Appointment> appointmentType(Appointment.AppointmentType appointmentType) {
+        return appointmentType == null ? null : (root, query, cb) -> cb.equal(root.get("appointmentType"), appointmentType);
+    }
+
+    /**
+     * Appointments starting at or after {@code startFrom}.
+     */
+    public static Specification<Appointment> startingFrom(LocalDateTime startFrom) {
+        return startFrom == null ? null
+                : (root, query, cb) -> cb.greaterThanOrEqualTo(root.<LocalDateTime>get("startTime"), startFrom);
+    }
+
+    /**
+     * Appointments starting strictly before {@code startBefore}.
+     */
+    public static Specification<Appointment> startingBefore(LocalDateTime startBefore) {
+        return startBefore == null ? null
+                : (root, query, cb) -> cb.lessThan(root.<LocalDateTime>get("startTime"), startBefore);
+    }
+
+    public static Specification<Appointment> isActive() {
+        return (root, query, cb) -> cb.isTrue(root.get("isActive"));
+    }
+
+    /**
+     * Fetch the patient and department with the page rows; skipped for the count query.
+     */
+    public static Specification<Appointment> fetchPatientAndDepartment() {
+        return (root, query, cb) -> {
+            if (!isCountQuery(query.getResultType())) {
+                root.fetch("patient", JoinType.LEFT);
+                root.fetch("department", JoinType.LEFT);
+            }
+            return null;
+        };
+    }
+
+    /**
+     * Fetch every to-one association an appointment list row shows (patient and address, doctor, department,
+     * hospital) in the page query itself; skipped for the count query. The billing is fetched too: it is the
+     * inverse side of a one-to-one, which Hibernate cannot leave unloaded, so it would otherwise cost a select
+     * per row.
+     */
+    public static Specification<Appointment> fetchListAssociations() {
+        return (root, query, cb) -> {
+            if (!isCountQuery(query.getResultType())) {
+                root.fetch("patient", JoinType.INNER).fetch("address", JoinType.LEFT);
+                root.fetch("doctor", JoinType.INNER);
+                root.fetch("department", JoinType.LEFT);
+                root.fetch("hospital", JoinType.INNER);
+                root.fetch("billing", JoinType.LEFT);
+            }
+            return null;
+        };
+    }
+
+    static boolean isCountQuery(Class<?> resultType) {
+        return Long.class.equals(resultType) || long.class.equals(resultType);
+    }
+}
@@ -0,0 +1,98 @@
+package com.mhms.medisynapse.repository.specification;
+
+import com.mhms.medisynapse.entity.Appointment;
+import com.mhms.medisynapse.entity.Patient;
+import com.mhms.medisynapse.entity.PatientHospital;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Composable filters for patient listings. Like {@link AppointmentSpecifications}, a factory returns
+ * {@code null} when its filter was not supplied.
+ * <p>
+ * Relationship filters use {@code EXISTS} subqueries rather than joins so a page never contains duplicate
+ * patients and the count query stays a simple {@code COUNT(p)}.
+ */
+public final class PatientSpecifications {
+
+    private PatientSpecifications() {
+    }
+
+    public static Specification<Patient> isActive() {
+        return (root, query, cb) -> cb.isTrue(root.get("isActive"));
+    }
+
+    public static Specification<Patient> status(Patient.PatientStatus status) {
+        return status == null ? null : (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    /**
+     * Patients registered with {@code hospitalId}, or with any hospital when it is {@code null}.
+     */
+    public static Specification<Patient> registeredWithHospital(Long hospitalId) {
+        return (root, query, cb) -> {
+            Subquery<Integer> link = query.subquery(Integer.class);
+            var patientHospital = link.from(PatientHospital.class);
+            link.select(cb.literal(1));
+            Predicate samePatient = cb.equal(patientHospital.get("patient"), root);
+            link.where(hospitalId == null
+                    ? samePatient
+                    : cb.and(samePatient, cb.equal(patientHospital.get("hospital").get("id"), hospitalId)));
+            return cb.exists(link);
+        };
+    }
+
+    /**
+     * Patients with at least one active appointment with {@code doctorId}.
+     */
+    public static Specification<Patient> seenByDoctor(Long doctorId) {
+        return doctorId == null ? null : (root, query, cb) -> {
+            Subquery<Integer> visit = query.subquery(Integer.class);
+            var appointment = visit.from(Appointment.class);
+            visit.select(cb.literal(1));
+            visit.where(
+                    cb.equal(appointment.get("patient"), root),
+                    cb.equal(appointment.get("doctor").get("id"), doctorId),
+                    cb.isTrue(appointment.get("isActive")));
+            return cb.exists(visit);
+        };
+    }
+
+    /**
+     * Case-insensitive substring match on the full name or any of {@code fields}.
+     */
+    public static Specification<Patient> nameOrFieldsContain(String search, String... fields) {
+        if (search == null || search.isBlank()) {
+            return null;
+        }
+        String pattern = "%" + search.trim().toLowerCase(Locale.ROOT) + "%";
+        return (root, query, cb) -> {
+            List<Predicate> matches = new ArrayList<>();
+            Expression<String> fullName = cb.concat(cb.concat(root.get("firstName"), " "), root.get("lastName"));
+            matches.add(cb.like(cb.lower(fullName), pattern));
+            for (String field : fields) {
+                matches.add(cb.like(cb.lower(root.get(field)), pattern));
+            }
+            return cb.or(matches.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Fetch the address with the page rows; skipped for the count query.
+     */
+    public static Specification<Patient> fetchAddress() {
+        return (root, query, cb) -> {
+            if (!AppointmentSpecifications.isCountQuery(query.getResultType())) {
+                root.fetch("address", JoinType.LEFT);
+            }
+            return null;
+        };
+    }
+}
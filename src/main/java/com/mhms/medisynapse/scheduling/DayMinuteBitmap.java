@@ -0,0 +1,103 @@
+package com.mhms.medisynapse.scheduling;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One doctor-day at minute granularity: bit {@code m} is set when minute {@code m} after midnight is booked.
+ * Range marking and range checks work a 64-bit word at a time, so checking a slot costs at most a
+ * couple of word operations regardless of how many appointments were marked.
+ */
+public final class DayMinuteBitmap {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    private static final int WORD_COUNT = (MINUTES_PER_DAY + 63) >>> 6;
+
+    private final LocalDate date;
+    private final long[] words = new long[WORD_COUNT];
+
+    public DayMinuteBitmap(LocalDate date) {
+        this.date = date;
+    }
+
+    /**
+     * Mark [startTime, endTime) as booked, clipped to this day.
+     */
+    public void markBooked(LocalDateTime startTime, LocalDateTime endTime) {
+        int toMinute = minuteOfDay(endTime);
+        if (endTime.toLocalDate().equals(date) && (endTime.getSecond() != 0 || endTime.getNano() != 0)) {
+            toMinute++; // A partially used minute is still booked
+        }
+        markBooked(minuteOfDay(startTime), toMinute);
+    }
+
+    /**
+     * Mark the minute range [fromMinute, toMinute) as booked.
+     */
+    public void markBooked(int fromMinute, int toMinute) {
+        int from = Math.max(fromMinute, 0);
+        int to = Math.min(toMinute, MINUTES_PER_DAY);
+        if (from >= to) {
+            return;
+        }
+        int firstWord = from >>> 6;
+        int lastWord = (to - 1) >>> 6;
+        long firstMask = -1L << (from & 63);
+        long lastMask = -1L >>> (63 - ((to - 1) & 63));
+        if (firstWord == lastWord) {
+            words[firstWord] |= firstMask & lastMask;
+            return;
+        }
+        words[firstWord] |= firstMask;
+        for (int i = firstWord + 1; i < lastWord; i++) {
+            words[i] = -1L;
+        }
+        words[lastWord] |= lastMask;
+    }
+
+    /**
+     * True when no minute in [fromMinute, toMinute) is booked.
+     */
+    public boolean isFree(int fromMinute, int toMinute) {
+        int from = Math.max(fromMinute, 0);
+        int to = Math.min(toMinute, MINUTES_PER_DAY);
+        if (from >= to) {
+            return true;
+        }
+        int firstWord = from >>> 6;
+        int lastWord = (to - 1) >>> 6;
+        long firstMask = -1L << (from & 63);
+        long lastMask = -1L >>> (63 - ((to - 1) & 63));
+        if (firstWord == lastWord) {
+            return (words[firstWord] & firstMask & lastMask) == 0;
+        }
+        if ((words[firstWord] & firstMask) != 0) {
+            return false;
+        }
+        for (int i = firstWord + 1; i < lastWord; i++) {
+            if (words[i] != 0) {
+                return false;
+            }
+        }
+        return (words[lastWord] & lastMask) == 0;
+    }
+
+    /**
+     * Minute of this day for the given time; times on earlier days map to 0 and later days to {@link #MINUTES_PER_DAY}.
+     */
+    public int minuteOfDay(LocalDateTime time) {
+        int cmp = time.toLocalDate().compareTo(date);
+        if (cmp < 0) {
+            return 0;
+        }
+        if (cmp > 0) {
+            return MINUTES_PER_DAY;
+        }
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+}
@@ -0,0 +1,48 @@
+package com.mhms.medisynapse.scheduling;
+
+import com.mhms.medisynapse.exception.BusinessLogicException;
+import com.mhms.medisynapse.repository.AppointmentRepository;
+import com.mhms.medisynapse.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+
+/**
+ * Appointment conflict detection for the booking write paths.
+ * <p>
+ * A writer locks the doctor's row for the rest of its transaction, which serializes bookings of that doctor across
+ * all nodes, and then runs a locking overlap query against the appointment table. The query is a current read, so
+ * it sees every booking and cancellation committed before the lock was granted, whichever node wrote it and however
+ * old the transaction's snapshot is. It is served by the {@code (fk_doctor_id, start_time, ...)} index.
+ */
+@Component
+@RequiredArgsConstructor
+public class DoctorBookingGuard {
+
+    private final AppointmentRepository appointmentRepository;
+    private final UserRepository userRepository;
+
+    /**
+     * Lock the doctor's row for the rest of the current transaction, so no other booking for the doctor can be
+     * checked or written on any node until this transaction commits or rolls back.
+     */
+    public void lockDoctorForTransaction(Long doctorId) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Doctor booking lock requires an active transaction");
+        }
+        if (userRepository.lockById(doctorId).isEmpty()) {
+            throw new BusinessLogicException("Doctor not found");
+        }
+    }
+
+    /**
+     * Check whether [startTime, endTime) overlaps any booked appointment of the doctor other than
+     * {@code excludeAppointmentId}. Must be called while holding the doctor's lock.
+     */
+    public boolean hasConflict(Long doctorId, LocalDateTime startTime, LocalDateTime endTime, Long excludeAppointmentId) {
+        return appointmentRepository.countConflictingAppointmentsForUpdate(
+                doctorId, startTime, endTime, excludeAppointmentId != null ? excludeAppointmentId : 0L) > 0;
+    }
+}
@@ -0,0 +1,135 @@
+package com.mhms.medisynapse.scheduling;
+
+import com.mhms.medisynapse.dto.AvailableSlotDto;
+import com.mhms.medisynapse.entity.User;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Finds the earliest free slots of a given length across a set of doctors.
+ * <p>
+ * Doctors are evaluated in parallel over bookings that were loaded up front, so no database work happens
+ * here. Each doctor walks its days in order and stops after {@code limit} hits; the workers share no state, and
+ * their ordered results are merged on the calling thread once all of them have finished.
+ */
+@Component
+public class EarliestSlotFinder {
+
+    private static final Comparator<AvailableSlotDto> EARLIEST_FIRST = Comparator
+            .comparing(AvailableSlotDto::getStartTime)
+            .thenComparing(AvailableSlotDto::getDoctorName, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(AvailableSlotDto::getDoctorId);
+
+    private final Executor executor;
+
+    public EarliestSlotFinder(@Qualifier("appointmentSearchExecutor") Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * @param doctors          active doctors with their department fetched
+     * @param bookedByDoctor   booked [startTime, endTime) intervals per doctor id within the window
+     * @param notBefore        slots starting before this instant are never returned
+     */
+    public List<AvailableSlotDto> findEarliest(List<User> doctors, Map<Long, List<LocalDateTime[]>> bookedByDoctor,
+                                               LocalDate fromDate, LocalDate toDate,
+                                               LocalTime workStart, LocalTime workEnd,
+                                               int durationMinutes, int stepMinutes, int limit,
+                                               LocalDateTime notBefore) {
+        List<CompletableFuture<List<AvailableSlotDto>>> tasks = new ArrayList<>(doctors.size());
+        for (User doctor : doctors) {
+            // Copy what the worker needs so no entity is touched off the request thread
+            DoctorSearch search = new DoctorSearch(
+                    doctor.getId(),
+                    doctor.getName(),
+                    doctor.getDepartment() != null ? doctor.getDepartment().getId() : null,
+                    doctor.getDepartment() != null ? doctor.getDepartment().getName() : null,
+                    bookedByDoctor.getOrDefault(doctor.getId(), List.of()));
+            tasks.add(CompletableFuture.supplyAsync(() -> searchDoctor(search, fromDate, toDate, workStart, workEnd,
+                    durationMinutes, stepMinutes, limit, notBefore), executor));
+        }
+        CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).join();
+
+        return tasks.stream()
+                .flatMap(task -> task.join().stream())
+                .sorted(EARLIEST_FIRST)
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Returns the doctor's first {@code limit} free slots in start-time order.
+     */
+    private List<AvailableSlotDto> searchDoctor(DoctorSearch search, LocalDate fromDate, LocalDate toDate,
+                                                LocalTime workStart, LocalTime workEnd,
+                                                int durationMinutes, int stepMinutes, int limit,
+                                                LocalDateTime notBefore) {
+        Map<LocalDate, List<LocalDateTime[]>> bookedByDay = bucketByDay(search.booked());
+        int dayStartMinute = workStart.getHour() * 60 + workStart.getMinute();
+        int dayEndMinute = workEnd.getHour() * 60 + workEnd.getMinute();
+        List<AvailableSlotDto> found = new ArrayList<>(limit);
+
+        for (LocalDate day = fromDate; !day.isAfter(toDate) && found.size() < limit; day = day.plusDays(1)) {
+            if (day.isBefore(notBefore.toLocalDate())) {
+                continue;
+            }
+
+            DayMinuteBitmap bitmap = new DayMinuteBitmap(day);
+            for (LocalDateTime[] interval : bookedByDay.getOrDefault(day, List.of())) {
+                bitmap.markBooked(interval[0], interval[1]);
+            }
+
+            int firstStart = dayStartMinute;
+            if (day.equals(notBefore.toLocalDate())) {
+                int nowMinute = notBefore.getHour() * 60 + notBefore.getMinute() + (notBefore.getSecond() > 0 ? 1 : 0);
+                if (nowMinute > firstStart) {
+                    // Round up onto the slot grid
+                    firstStart += ((nowMinute - firstStart + stepMinutes - 1) / stepMinutes) * stepMinutes;
+                }
+            }
+
+            for (int start = firstStart; start + durationMinutes <= dayEndMinute && found.size() < limit; start += stepMinutes) {
+                if (!bitmap.isFree(start, start + durationMinutes)) {
+                    continue;
+                }
+                LocalDateTime slotStart = day.atStartOfDay().plusMinutes(start);
+                found.add(AvailableSlotDto.builder()
+                        .doctorId(search.doctorId())
+                        .doctorName(search.doctorName())
+                        .departmentId(search.departmentId())
+                        .departmentName(search.departmentName())
+                        .startTime(slotStart)
+                        .endTime(slotStart.plusMinutes(durationMinutes))
+                        .durationMinutes(durationMinutes)
+                        .build());
+            }
+        }
+        return found;
+    }
+
+    private static Map<LocalDate, List<LocalDateTime[]>> bucketByDay(List<LocalDateTime[]> booked) {
+        Map<LocalDate, List<LocalDateTime[]>> byDay = new HashMap<>();
+        for (LocalDateTime[] interval : booked) {
+            // An appointment running past midnight blocks time on each day it touches
+            for (LocalDate day = interval[0].toLocalDate(); !day.isAfter(interval[1].toLocalDate()); day = day.plusDays(1)) {
+                byDay.computeIfAbsent(day, d -> new ArrayList<>()).add(interval);
+            }
+        }
+        return byDay;
+    }
+
+    private record DoctorSearch(Long doctorId, String doctorName, Long departmentId, String departmentName,
+                                List<LocalDateTime[]> booked) {
+    }
+}
@@ -0,0 +1,49 @@
+package com.mhms.medisynapse.scheduling;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Calendar-day boundaries in the hospital's local time zone.
+ * <p>
+ * Timestamps are stored as local date-times, so "today" must be resolved here and passed to queries as a
+ * half-open {@code [dayStart, nextDayStart)} range instead of comparing {@code DATE(column)} in SQL, which
+ * would both use the database session's zone and prevent index range scans.
+ */
+@Component
+public class HospitalClock {
+
+    private final ZoneId zoneId;
+
+    public HospitalClock(@Value("${hospital.time-zone:}") String timeZone) {
+        this.zoneId = timeZone == null || timeZone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(timeZone);
+    }
+
+    public LocalDate today() {
+        return LocalDate.now(zoneId);
+    }
+
+    public LocalDateTime now() {
+        return LocalDateTime.now(zoneId);
+    }
+
+    public LocalDateTime startOfDay(LocalDate date) {
+        return date.atStartOfDay();
+    }
+
+    public LocalDateTime startOfNextDay(LocalDate date) {
+        return date.plusDays(1).atStartOfDay();
+    }
+
+    public LocalDateTime startOfToday() {
+        return startOfDay(today());
+    }
+
+    public LocalDateTime startOfTomorrow() {
+        return startOfNextDay(today());
+    }
+}
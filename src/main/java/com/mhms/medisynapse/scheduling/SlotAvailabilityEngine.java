@@ -0,0 +1,99 @@
+package com.mhms.medisynapse.scheduling;
+
+import com.mhms.medisynapse.dto.DoctorAvailabilityDto;
+import com.mhms.medisynapse.entity.Appointment;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Shared slot generation for doctor availability screens.
+ * <p>
+ * Booked appointments are marked once into a {@link DayMinuteBitmap}; each slot of the requested grid is
+ * then a word-level range check. A slot is unavailable when any appointment overlaps it, i.e.
+ * {@code appointment.start < slot.end && appointment.end > slot.start}.
+ */
+@Component
+public class SlotAvailabilityEngine {
+
+    // "HH:mm" label for every minute of the day, built once so slot generation does no time formatting
+    private static final String[] MINUTE_LABELS = new String[DayMinuteBitmap.MINUTES_PER_DAY + 1];
+
+    static {
+        for (int minute = 0; minute <= DayMinuteBitmap.MINUTES_PER_DAY; minute++) {
+            MINUTE_LABELS[minute] = String.format("%02d:%02d", (minute / 60) % 24, minute % 60);
+        }
+    }
+
+    /**
+     * Build a bitmap of the doctor's booked minutes on {@code date}.
+     */
+    public DayMinuteBitmap buildDay(LocalDate date, List<Appointment> appointments) {
+        DayMinuteBitmap day = new DayMinuteBitmap(date);
+        for (Appointment appointment : appointments) {
+            day.markBooked(appointment.getStartTime(), appointment.getEndTime());
+        }
+        return day;
+    }
+
+    /**
+     * Generate the slot grid between {@code workStart} and {@code workEnd} for one doctor-day.
+     * Booked slots carry the id of the first appointment overlapping them.
+     */
+    public List<DoctorAvailabilityDto.TimeSlotDto> generateTimeSlots(LocalDate date, LocalTime workStart, LocalTime workEnd,
+                                                                     int slotIntervalMinutes, List<Appointment> appointments) {
+        if (slotIntervalMinutes <= 0) {
+            throw new IllegalArgumentException("Slot interval must be positive");
+        }
+
+        DayMinuteBitmap day = buildDay(date, appointments);
+        int dayStart = workStart.getHour() * 60 + workStart.getMinute();
+        int dayEnd = workEnd.getHour() * 60 + workEnd.getMinute();
+
+        List<Appointment> byStart = new ArrayList<>(appointments);
+        byStart.sort(Comparator.comparing(Appointment::getStartTime));
+        int longestMinutes = 0;
+        for (Appointment appointment : byStart) {
+            longestMinutes = Math.max(longestMinutes,
+                    day.minuteOfDay(appointment.getEndTime()) - day.minuteOfDay(appointment.getStartTime()) + 1);
+        }
+
+        List<DoctorAvailabilityDto.TimeSlotDto> slots = new ArrayList<>((dayEnd - dayStart) / slotIntervalMinutes + 1);
+        int cursor = 0;
+        for (int slotStart = dayStart; slotStart < dayEnd; slotStart += slotIntervalMinutes) {
+            int slotEnd = slotStart + slotIntervalMinutes;
+            boolean available = day.isFree(slotStart, slotEnd);
+
+            DoctorAvailabilityDto.TimeSlotDto.TimeSlotDtoBuilder slot = DoctorAvailabilityDto.TimeSlotDto.builder()
+                    .startTime(MINUTE_LABELS[slotStart])
+                    .endTime(MINUTE_LABELS[Math.min(slotEnd, DayMinuteBitmap.MINUTES_PER_DAY)])
+                    .available(available);
+
+            if (!available) {
+                // Skip appointments that start too early to reach this slot; the window only moves forward
+                while (cursor < byStart.size()
+                        && day.minuteOfDay(byStart.get(cursor).getStartTime()) + longestMinutes <= slotStart) {
+                    cursor++;
+                }
+                slot.reason("Booked");
+                for (int i = cursor; i < byStart.size(); i++) {
+                    Appointment appointment = byStart.get(i);
+                    if (day.minuteOfDay(appointment.getStartTime()) >= slotEnd) {
+                        break;
+                    }
+                    if (day.minuteOfDay(appointment.getEndTime()) > slotStart) {
+                        slot.appointmentId(appointment.getId());
+                        break;
+                    }
+                }
+            }
+
+            slots.add(slot.build());
+        }
+        return slots;
+    }
+}
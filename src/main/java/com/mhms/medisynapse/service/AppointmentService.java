@@ -1,8 +1,12 @@
 package com.mhms.medisynapse.service;
 
+import com.mhms.medisynapse.cache.CacheNames;
 import com.mhms.medisynapse.dto.ApiResponse;
 import com.mhms.medisynapse.dto.AppointmentDto;
 import com.mhms.medisynapse.dto.AppointmentFilterDto;
+import com.mhms.medisynapse.dto.AppointmentStatisticsDto;
+import com.mhms.medisynapse.dto.AvailableSlotDto;
+import com.mhms.medisynapse.dto.CursorPageDto;
 import com.mhms.medisynapse.dto.CreateAppointmentRequestDto;
 import com.mhms.medisynapse.dto.DoctorAvailabilityDto;
 import com.mhms.medisynapse.dto.UpdateAppointmentRequestDto;
@@ -12,29 +16,52 @@ import com.mhms.medisynapse.entity.Department;
 import com.mhms.medisynapse.entity.Hospital;
 import com.mhms.medisynapse.entity.Patient;
 import com.mhms.medisynapse.entity.User;
+import com.mhms.medisynapse.event.AppointmentChangedEvent;
 import com.mhms.medisynapse.exception.BusinessLogicException;
+import com.mhms.medisynapse.exception.InvalidDataException;
+import com.mhms.medisynapse.exception.ResourceNotFoundException;
+import com.mhms.medisynapse.pagination.KeysetCursor;
+import com.mhms.medisynapse.repository.AppointmentDailyRollupRepository;
 import com.mhms.medisynapse.repository.AppointmentRepository;
 import com.mhms.medisynapse.repository.DepartmentRepository;
 import com.mhms.medisynapse.repository.HospitalRepository;
 import com.mhms.medisynapse.repository.PatientRepository;
 import com.mhms.medisynapse.repository.UserRepository;
+import com.mhms.medisynapse.repository.specification.AppointmentSpecifications;
+import com.mhms.medisynapse.scheduling.DoctorBookingGuard;
+import com.mhms.medisynapse.scheduling.EarliestSlotFinder;
+import com.mhms.medisynapse.scheduling.HospitalClock;
+import com.mhms.medisynapse.scheduling.SlotAvailabilityEngine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -46,11 +73,28 @@ public class AppointmentService {
     private static final LocalTime DEFAULT_START_TIME = LocalTime.of(9, 0);
     private static final LocalTime DEFAULT_END_TIME = LocalTime.of(17, 0);
     private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+    // Sort properties accepted from clients; each is backed by an appointment index or is cheap to sort
+    private static final Set<String> SORTABLE_FIELDS = Set.of("startTime", "endTime", "createdDt", "status", "id");
+    // Keyset cursors can only seek over NOT NULL columns (see KeysetCursor)
+    private static final Set<String> CURSOR_SORT_FIELDS = Set.of("startTime", "endTime", "createdDt");
     private final AppointmentRepository appointmentRepository;
+    private final AppointmentDailyRollupRepository rollupRepository;
     private final PatientRepository patientRepository;
     private final UserRepository userRepository;
     private final HospitalRepository hospitalRepository;
     private final DepartmentRepository departmentRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DoctorBookingGuard bookingGuard;
+    private final SlotAvailabilityEngine slotAvailabilityEngine;
+    private final EarliestSlotFinder earliestSlotFinder;
+    private final HospitalClock hospitalClock;
+    private final CacheManager cacheManager;
+
+    @Value("${appointment-search.max-window-days:31}")
+    private int maxSearchWindowDays;
+
+    @Value("${appointment-search.max-results:50}")
+    private int maxSearchResults;
 
     /**
      * Create a new appointment with comprehensive validation
@@ -61,7 +105,8 @@ public class AppointmentService {
         // Validate entities exist and belong to the same hospital
         validateAppointmentEntities(request);
 
-        // Check doctor availability
+        // Serialize bookings for this doctor until commit, then check availability
+        bookingGuard.lockDoctorForTransaction(request.getDoctorId());
         validateDoctorAvailability(request.getDoctorId(), request.getStartTime(),
                 request.getDurationMinutes(), null);
 
@@ -70,7 +115,8 @@ public class AppointmentService {
 
         // Save appointment
         Appointment savedAppointment = appointmentRepository.save(appointment);
-
+        publishAppointmentChanged(savedAppointment, AppointmentChangedEvent.ChangeType.CREATED,
+                Set.of(savedAppointment.getStartTime().toLocalDate()));
 
         log.info("Successfully created appointment with ID: {}", savedAppointment.getId());
         return ApiResponse.<AppointmentDto>builder()
@@ -90,6 +136,9 @@ public class AppointmentService {
         Appointment appointment = appointmentRepository.findByIdAndHospitalId(appointmentId, hospitalId)
                 .orElseThrow(() -> new BusinessLogicException("Appointment not found"));
 
+        LocalDate previousDate = appointment.getStartTime().toLocalDate();
+        bookingGuard.lockDoctorForTransaction(appointment.getDoctor().getId());
+
         // If rescheduling, validate new time slot
         if (request.getStartTime() != null) {
             validateDoctorAvailability(appointment.getDoctor().getId(), request.getStartTime(),
@@ -101,7 +150,8 @@ public class AppointmentService {
         updateAppointmentFields(appointment, request, updatedBy);
 
         Appointment updatedAppointment = appointmentRepository.save(appointment);
-
+        publishAppointmentChanged(updatedAppointment, AppointmentChangedEvent.ChangeType.UPDATED,
+                Stream.of(previousDate, updatedAppointment.getStartTime().toLocalDate()).collect(Collectors.toSet()));
 
         log.info("Successfully updated appointment {}", appointmentId);
         return ApiResponse.<AppointmentDto>builder()
@@ -121,12 +171,16 @@ public class AppointmentService {
         Appointment appointment = appointmentRepository.findByIdAndHospitalId(appointmentId, hospitalId)
                 .orElseThrow(() -> new BusinessLogicException("Appointment not found"));
 
+        bookingGuard.lockDoctorForTransaction(appointment.getDoctor().getId());
+
         appointment.setStatus(Appointment.AppointmentStatus.CANCELLED);
         appointment.setCancellationReason(cancellationReason);
         appointment.setCancelledAt(LocalDateTime.now());
         appointment.setUpdatedBy(updatedBy);
 
         appointmentRepository.save(appointment);
+        publishAppointmentChanged(appointment, AppointmentChangedEvent.ChangeType.CANCELLED,
+                Set.of(appointment.getStartTime().toLocalDate()));
 
         log.info("Successfully cancelled appointment {}", appointmentId);
         return ApiResponse.<Void>builder()
@@ -136,34 +190,25 @@ public class AppointmentService {
     }
 
     /**
-     * Get appointments with comprehensive filtering and pagination
+     * Get appointments with comprehensive filtering and pagination.
+     * Only the supplied filters become predicates; the count query is skipped when totals are not requested.
      */
     @Transactional(readOnly = true)
-    public ApiResponse<Page<AppointmentDto>> getAppointments(AppointmentFilterDto filter) {
+    public ApiResponse<Slice<AppointmentDto>> getAppointments(AppointmentFilterDto filter) {
         log.info("Fetching appointments with filters: {}", filter);
 
-        Sort sort = Sort.by(Sort.Direction.fromString(filter.getSortDirection()), filter.getSortBy());
-        Pageable pageable = PageRequest.of(filter.getPage(), filter.getSize(), sort);
+        Pageable pageable = PageRequest.of(filter.getPage(), filter.getSize(),
+                resolveSort(filter.getSortBy(), filter.getSortDirection()));
 
-        // Convert LocalDate to LocalDateTime for repository
-        LocalDateTime startDateTime = filter.getStartDate() != null ? filter.getStartDate().atStartOfDay() : null;
-        LocalDateTime endDateTime = filter.getEndDate() != null ? filter.getEndDate().atTime(java.time.LocalTime.MAX) : null;
+        Specification<Appointment> spec = buildFilterSpecification(filter);
 
-        Page<Appointment> appointments = appointmentRepository.findAppointmentsWithFilters(
-                filter.getHospitalId(),
-                filter.getDoctorId(),
-                filter.getPatientId(),
-                filter.getDepartmentId(),
-                filter.getAppointmentType(),
-                startDateTime,
-                endDateTime,
-                filter.getStatus(), // now a List<AppointmentStatus>
-                pageable
-        );
+        Slice<Appointment> appointments = Boolean.FALSE.equals(filter.getIncludeTotal())
+                ? appointmentRepository.findBy(spec, query -> query.slice(pageable))
+                : appointmentRepository.findAll(spec, pageable);
 
-        Page<AppointmentDto> appointmentDtos = appointments.map(this::convertToDto);
+        Slice<AppointmentDto> appointmentDtos = appointments.map(this::convertToListDto);
 
-        return ApiResponse.<Page<AppointmentDto>>builder()
+        return ApiResponse.<Slice<AppointmentDto>>builder()
                 .success(true)
                 .message("Appointments retrieved successfully")
                 .data(appointmentDtos)
@@ -171,26 +216,167 @@ public class AppointmentService {
     }
 
     /**
-     * Get doctor availability with time slots
+     * Get a single appointment with full details
+     */
+    @Transactional(readOnly = true)
+    public ApiResponse<AppointmentDto> getAppointment(Long appointmentId, Long hospitalId) {
+        log.info("Fetching appointment {} in hospital {}", appointmentId, hospitalId);
+
+        Appointment appointment = appointmentRepository.findDetailByIdAndHospitalId(appointmentId, hospitalId)
+                .orElseThrow(() -> new ResourceNotFoundException("Appointment not found with id: " + appointmentId));
+
+        return ApiResponse.<AppointmentDto>builder()
+                .success(true)
+                .message("Appointment details retrieved successfully")
+                .data(convertToDto(appointment))
+                .build();
+    }
+
+    /**
+     * Get appointments with the same filters using keyset (cursor) pagination.
+     * Pass the returned cursor back to continue; a blank cursor starts from the first row.
+     */
+    @Transactional(readOnly = true)
+    public ApiResponse<CursorPageDto<AppointmentDto>> scrollAppointments(AppointmentFilterDto filter, String cursor) {
+        log.info("Scrolling appointments with filters: {}", filter);
+
+        Sort sort = resolveSort(filter.getSortBy(), filter.getSortDirection());
+        String sortField = sort.iterator().next().getProperty();
+        if (!CURSOR_SORT_FIELDS.contains(sortField)) {
+            throw new InvalidDataException("Cursor pagination supports sorting by " + CURSOR_SORT_FIELDS);
+        }
+
+        Window<Appointment> window = appointmentRepository.findBy(buildFilterSpecification(filter),
+                query -> query.sortBy(sort).limit(filter.getSize())
+                        .scroll(KeysetCursor.toScrollPosition(cursor, sortField)));
+
+        return ApiResponse.<CursorPageDto<AppointmentDto>>builder()
+                .success(true)
+                .message("Appointments retrieved successfully")
+                .data(toCursorPage(window, sortField))
+                .build();
+    }
+
+    /**
+     * Appointment statistics for {@code [startDate, endDate]}, summed from the daily rollups so the cost depends on
+     * the number of doctor-days in the range rather than the number of appointments.
+     * Patient counts are not part of the rollups and are left empty.
      */
-    @Cacheable(value = "doctorAvailability", key = "#doctorId + '_' + #date")
     @Transactional(readOnly = true)
+    public ApiResponse<AppointmentStatisticsDto> getAppointmentStatistics(Long hospitalId, LocalDate startDate,
+                                                                          LocalDate endDate, Long departmentId,
+                                                                          Long doctorId) {
+        log.info("Fetching appointment statistics for hospital {} from {} to {}", hospitalId, startDate, endDate);
+
+        if (endDate.isBefore(startDate)) {
+            throw new InvalidDataException("End date must not be before start date");
+        }
+
+        Map<Appointment.AppointmentStatus, Long> byStatus = new LinkedHashMap<>();
+        Map<String, Long> byDepartment = new LinkedHashMap<>();
+        Map<String, Long> byDoctor = new LinkedHashMap<>();
+        Map<String, Long> byType = new LinkedHashMap<>();
+        long total = 0;
+        long totalMinutes = 0;
+        for (Object[] row : sumRollupsByDimensions(hospitalId, startDate, endDate, departmentId, doctorId)) {
+            long count = ((Number) row[6]).longValue();
+            byDepartment.merge((String) row[1], count, Long::sum);
+            byDoctor.merge((String) row[3], count, Long::sum);
+            byStatus.merge((Appointment.AppointmentStatus) row[4], count, Long::sum);
+            byType.merge(((Appointment.AppointmentType) row[5]).name(), count, Long::sum);
+            total += count;
+            totalMinutes += ((Number) row[7]).longValue();
+        }
+
+        Map<String, Long> byDay = new LinkedHashMap<>();
+        for (Object[] row : sumRollupsByDay(hospitalId, startDate, endDate, departmentId, doctorId)) {
+            byDay.put(row[0].toString(), ((Number) row[1]).longValue());
+        }
+
+        AppointmentStatisticsDto statistics = AppointmentStatisticsDto.builder()
+                .totalAppointments(total)
+                .scheduledAppointments(byStatus.getOrDefault(Appointment.AppointmentStatus.SCHEDULED, 0L))
+                .confirmedAppointments(byStatus.getOrDefault(Appointment.AppointmentStatus.CONFIRMED, 0L))
+                .completedAppointments(byStatus.getOrDefault(Appointment.AppointmentStatus.COMPLETED, 0L))
+                .cancelledAppointments(byStatus.getOrDefault(Appointment.AppointmentStatus.CANCELLED, 0L))
+                .noShowAppointments(byStatus.getOrDefault(Appointment.AppointmentStatus.NO_SHOW, 0L))
+                .inProgressAppointments(byStatus.getOrDefault(Appointment.AppointmentStatus.IN_PROGRESS, 0L))
+                .rescheduledAppointments(byStatus.getOrDefault(Appointment.AppointmentStatus.RESCHEDULED, 0L))
+                .appointmentsByDepartment(byDepartment)
+                .appointmentsByDoctor(byDoctor)
+                .appointmentsByType(byType)
+                .appointmentsByDay(byDay)
+                .averageDurationMinutes(total > 0 ? Math.round(totalMinutes * 10.0 / total) / 10.0 : 0.0)
+                .build();
+
+        return ApiResponse.<AppointmentStatisticsDto>builder()
+                .success(true)
+                .message("Appointment statistics retrieved successfully")
+                .data(statistics)
+                .build();
+    }
+
+    private List<Object[]> sumRollupsByDimensions(Long hospitalId, LocalDate startDate, LocalDate endDate,
+                                                  Long departmentId, Long doctorId) {
+        if (departmentId != null && doctorId != null) {
+            return rollupRepository.sumByDepartmentDoctorStatusAndTypeForDepartmentAndDoctor(
+                    hospitalId, startDate, endDate, departmentId, doctorId);
+        }
+        if (doctorId != null) {
+            return rollupRepository.sumByDepartmentDoctorStatusAndTypeForDoctor(hospitalId, startDate, endDate, doctorId);
+        }
+        if (departmentId != null) {
+            return rollupRepository.sumByDepartmentDoctorStatusAndTypeForDepartment(
+                    hospitalId, startDate, endDate, departmentId);
+        }
+        return rollupRepository.sumByDepartmentDoctorStatusAndType(hospitalId, startDate, endDate);
+    }
+
+    private List<Object[]> sumRollupsByDay(Long hospitalId, LocalDate startDate, LocalDate endDate,
+                                           Long departmentId, Long doctorId) {
+        if (departmentId != null && doctorId != null) {
+            return rollupRepository.sumByDayForDepartmentAndDoctor(hospitalId, startDate, endDate, departmentId, doctorId);
+        }
+        if (doctorId != null) {
+            return rollupRepository.sumByDayForDoctor(hospitalId, startDate, endDate, doctorId);
+        }
+        if (departmentId != null) {
+            return rollupRepository.sumByDayForDepartment(hospitalId, startDate, endDate, departmentId);
+        }
+        return rollupRepository.sumByDay(hospitalId, startDate, endDate);
+    }
+
+    /**
+     * Get doctor availability with time slots. Cached as one entry per doctor-day holding the response for each
+     * slot interval asked for, so an appointment write evicts a single key. Cache hits open no transaction.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public ApiResponse<DoctorAvailabilityDto> getDoctorAvailability(Long doctorId, LocalDate date,
                                                                     Integer slotIntervalMinutes) {
+        int interval = slotIntervalMinutes != null ? slotIntervalMinutes : DEFAULT_SLOT_INTERVAL_MINUTES;
+        Cache cache = cacheManager.getCache(CacheNames.DOCTOR_AVAILABILITY);
+        if (cache == null) {
+            return loadDoctorAvailability(doctorId, date, interval);
+        }
+        Map<Integer, ApiResponse<DoctorAvailabilityDto>> byInterval =
+                cache.get(CacheNames.doctorAvailabilityKey(doctorId, date), ConcurrentHashMap::new);
+        return byInterval.computeIfAbsent(interval, key -> loadDoctorAvailability(doctorId, date, key));
+    }
+
+    private ApiResponse<DoctorAvailabilityDto> loadDoctorAvailability(Long doctorId, LocalDate date,
+                                                                      int slotIntervalMinutes) {
         log.info("Getting availability for doctor {} on {}", doctorId, date);
 
         User doctor = userRepository.findById(doctorId)
                 .orElseThrow(() -> new BusinessLogicException("Doctor not found"));
 
-        if (slotIntervalMinutes == null) {
-            slotIntervalMinutes = DEFAULT_SLOT_INTERVAL_MINUTES;
-        }
-
         // Get existing appointments for the date
-        List<Appointment> existingAppointments = appointmentRepository.findAppointmentsByDoctorAndDate(doctorId, date);
+        List<Appointment> existingAppointments = appointmentRepository.findAppointmentsByDoctorAndDate(
+                doctorId, hospitalClock.startOfDay(date), hospitalClock.startOfNextDay(date));
 
         // Generate time slots
-        List<DoctorAvailabilityDto.TimeSlotDto> availableSlots = generateTimeSlots(date, slotIntervalMinutes, existingAppointments);
+        List<DoctorAvailabilityDto.TimeSlotDto> availableSlots = slotAvailabilityEngine.generateTimeSlots(
+                date, DEFAULT_START_TIME, DEFAULT_END_TIME, slotIntervalMinutes, existingAppointments);
         List<DoctorAvailabilityDto.TimeSlotDto> bookedSlots = generateBookedSlots(existingAppointments);
 
         DoctorAvailabilityDto availability = DoctorAvailabilityDto.builder()
@@ -209,6 +395,70 @@ public class AppointmentService {
                 .build();
     }
 
+    /**
+     * Find the earliest free slots across all active doctors of a department or specialty
+     */
+    @Transactional(readOnly = true)
+    public ApiResponse<List<AvailableSlotDto>> findEarliestAvailableSlots(Long hospitalId, Long departmentId, String specialty,
+                                                                          LocalDate fromDate, LocalDate toDate,
+                                                                          Integer durationMinutes, Integer slotIntervalMinutes,
+                                                                          Integer limit) {
+        log.info("Searching earliest slots in hospital {} for department {} / specialty {} between {} and {}",
+                hospitalId, departmentId, specialty, fromDate, toDate);
+
+        if (departmentId == null && (specialty == null || specialty.isBlank())) {
+            throw new BusinessLogicException("Either departmentId or specialty is required");
+        }
+        LocalDate today = hospitalClock.today();
+        if (fromDate == null || fromDate.isBefore(today)) {
+            fromDate = today;
+        }
+        if (toDate == null) {
+            toDate = fromDate.plusDays(maxSearchWindowDays - 1L);
+        }
+        if (toDate.isBefore(fromDate)) {
+            throw new BusinessLogicException("End date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(fromDate, toDate) + 1 > maxSearchWindowDays) {
+            throw new BusinessLogicException("Search window cannot exceed " + maxSearchWindowDays + " days");
+        }
+        int duration = durationMinutes != null ? durationMinutes : DEFAULT_SLOT_INTERVAL_MINUTES;
+        int step = slotIntervalMinutes != null ? slotIntervalMinutes : DEFAULT_SLOT_INTERVAL_MINUTES;
+        int resultLimit = limit != null ? limit : 5;
+        if (duration <= 0 || step <= 0) {
+            throw new BusinessLogicException("Duration and slot interval must be positive");
+        }
+        if (resultLimit <= 0 || resultLimit > maxSearchResults) {
+            throw new BusinessLogicException("Limit must be between 1 and " + maxSearchResults);
+        }
+
+        List<User> doctors = departmentId != null
+                ? userRepository.findActiveDoctorsByDepartmentId(hospitalId, departmentId)
+                : userRepository.findActiveDoctorsBySpecialty(hospitalId, specialty.trim());
+
+        List<AvailableSlotDto> slots = List.of();
+        if (!doctors.isEmpty()) {
+            // One range query for every doctor's bookings; the per-doctor search then runs in memory
+            List<Long> doctorIds = doctors.stream().map(User::getId).toList();
+            Map<Long, List<LocalDateTime[]>> bookedByDoctor = appointmentRepository
+                    .findBookedIntervalsByDoctorsInWindow(doctorIds, hospitalClock.startOfDay(fromDate),
+                            hospitalClock.startOfNextDay(toDate))
+                    .stream()
+                    .collect(Collectors.groupingBy(row -> (Long) row[0],
+                            Collectors.mapping(row -> new LocalDateTime[]{(LocalDateTime) row[1], (LocalDateTime) row[2]},
+                                    Collectors.toList())));
+
+            slots = earliestSlotFinder.findEarliest(doctors, bookedByDoctor, fromDate, toDate,
+                    DEFAULT_START_TIME, DEFAULT_END_TIME, duration, step, resultLimit, hospitalClock.now());
+        }
+
+        return ApiResponse.<List<AvailableSlotDto>>builder()
+                .success(true)
+                .message("Earliest available slots retrieved successfully")
+                .data(slots)
+                .build();
+    }
+
     /**
      * Get upcoming appointments for dashboard
      */
@@ -221,7 +471,7 @@ public class AppointmentService {
 
         List<Appointment> appointments = appointmentRepository.findUpcomingAppointments(hospitalId, fromTime, toTime);
         List<AppointmentDto> appointmentDtos = appointments.stream()
-                .map(this::convertToDto)
+                .map(this::convertToListDto)
                 .collect(Collectors.toList());
 
         return ApiResponse.<List<AppointmentDto>>builder()
@@ -238,9 +488,10 @@ public class AppointmentService {
     public ApiResponse<List<AppointmentDto>> getTodayAppointmentsByDoctor(Long doctorId) {
         log.info("Getting today's appointments for doctor {}", doctorId);
 
-        List<Appointment> appointments = appointmentRepository.findTodayAppointmentsByDoctor(doctorId);
+        List<Appointment> appointments = appointmentRepository.findTodayAppointmentsByDoctor(
+                doctorId, hospitalClock.startOfToday(), hospitalClock.startOfTomorrow());
         List<AppointmentDto> appointmentDtos = appointments.stream()
-                .map(this::convertToDto)
+                .map(this::convertToListDto)
                 .collect(Collectors.toList());
 
         return ApiResponse.<List<AppointmentDto>>builder()
@@ -260,7 +511,7 @@ public class AppointmentService {
 
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "startTime"));
         Page<Appointment> appointments = appointmentRepository.findPatientAppointmentHistory(patientId, hospitalId, pageable);
-        Page<AppointmentDto> appointmentDtos = appointments.map(this::convertToDto);
+        Page<AppointmentDto> appointmentDtos = appointments.map(this::convertToListDto);
 
         return ApiResponse.<Page<AppointmentDto>>builder()
                 .success(true)
@@ -269,8 +520,63 @@ public class AppointmentService {
                 .build();
     }
 
+    /**
+     * Get patient appointment history using keyset (cursor) pagination, newest first
+     */
+    @Transactional(readOnly = true)
+    public ApiResponse<CursorPageDto<AppointmentDto>> scrollPatientAppointmentHistory(Long patientId, Long hospitalId,
+                                                                                     String cursor, int size) {
+        log.info("Scrolling appointment history for patient {} in hospital {}", patientId, hospitalId);
+
+        Window<Appointment> window = appointmentRepository.findByPatientIdAndHospitalIdAndIsActiveTrue(
+                patientId, hospitalId, KeysetCursor.toScrollPosition(cursor, "startTime"),
+                Sort.by(Sort.Direction.DESC, "startTime", "id"), Limit.of(size));
+
+        return ApiResponse.<CursorPageDto<AppointmentDto>>builder()
+                .success(true)
+                .message("Patient appointment history retrieved successfully")
+                .data(toCursorPage(window, "startTime"))
+                .build();
+    }
+
     // Private helper methods
 
+    private Specification<Appointment> buildFilterSpecification(AppointmentFilterDto filter) {
+        return Specification.allOf(
+                AppointmentSpecifications.hospitalId(filter.getHospitalId()),
+                AppointmentSpecifications.doctorId(filter.getDoctorId()),
+                AppointmentSpecifications.patientId(filter.getPatientId()),
+                AppointmentSpecifications.departmentId(filter.getDepartmentId()),
+                AppointmentSpecifications.appointmentType(filter.getAppointmentType()),
+                AppointmentSpecifications.startingFrom(
+                        filter.getStartDate() != null ? hospitalClock.startOfDay(filter.getStartDate()) : null),
+                AppointmentSpecifications.startingBefore(
+                        filter.getEndDate() != null ? hospitalClock.startOfNextDay(filter.getEndDate()) : null),
+                AppointmentSpecifications.statusIn(filter.getStatus()),
+                AppointmentSpecifications.fetchListAssociations());
+    }
+
+    private CursorPageDto<AppointmentDto> toCursorPage(Window<Appointment> window, String sortField) {
+        return CursorPageDto.<AppointmentDto>builder()
+                .content(window.getContent().stream().map(this::convertToListDto).toList())
+                .size(window.size())
+                .hasNext(window.hasNext())
+                .nextCursor(KeysetCursor.nextCursor(window, sortField))
+                .build();
+    }
+
+    private Sort resolveSort(String sortBy, String sortDirection) {
+        String property = sortBy == null || sortBy.isBlank() ? "startTime" : sortBy;
+        if (!SORTABLE_FIELDS.contains(property)) {
+            throw new InvalidDataException("Unsupported sort field '" + sortBy + "'. Allowed values: " + SORTABLE_FIELDS);
+        }
+        Sort.Direction direction = Sort.Direction.fromOptionalString(sortDirection)
+                .orElseThrow(() -> new InvalidDataException("Invalid sort direction '" + sortDirection + "'"));
+        Sort sort = Sort.by(direction, property);
+        // Tie-break on id so pages stay stable when many rows share the sort value
+        return "id".equals(property) ? sort : sort.and(Sort.by(direction, "id"));
+    }
+
     private void validateAppointmentEntities(CreateAppointmentRequestDto request) {
         // Validate patient exists
         Patient patient = patientRepository.findById(request.getPatientId())
@@ -298,14 +604,22 @@ public class AppointmentService {
     private void validateDoctorAvailability(Long doctorId, LocalDateTime startTime, Integer durationMinutes, Long excludeAppointmentId) {
         LocalDateTime endTime = startTime.plusMinutes(durationMinutes);
 
-        Long conflictCount = appointmentRepository.countConflictingAppointments(
-                doctorId, startTime, endTime, excludeAppointmentId != null ? excludeAppointmentId : 0L);
-
-        if (conflictCount > 0) {
+        if (bookingGuard.hasConflict(doctorId, startTime, endTime, excludeAppointmentId)) {
             throw new BusinessLogicException("Doctor is not available at the requested time slot");
         }
     }
 
+    private void publishAppointmentChanged(Appointment appointment, AppointmentChangedEvent.ChangeType changeType,
+                                           Set<LocalDate> affectedDates) {
+        eventPublisher.publishEvent(new AppointmentChangedEvent(
+                appointment.getId(),
+                appointment.getDoctor().getId(),
+                appointment.getHospital().getId(),
+                changeType,
+                appointment.getStatus(),
+                affectedDates));
+    }
+
     private Appointment buildAppointmentEntity(CreateAppointmentRequestDto request, Long createdBy) {
         Patient patient = patientRepository.findById(request.getPatientId()).orElseThrow();
         User doctor = userRepository.findById(request.getDoctorId()).orElseThrow();
@@ -368,34 +682,6 @@ public class AppointmentService {
         appointment.setUpdatedBy(updatedBy);
     }
 
-    private List<DoctorAvailabilityDto.TimeSlotDto> generateTimeSlots(LocalDate date, Integer slotIntervalMinutes,
-                                                                      List<Appointment> existingAppointments) {
-        List<DoctorAvailabilityDto.TimeSlotDto> slots = new ArrayList<>();
-        LocalDateTime currentSlot = date.atTime(DEFAULT_START_TIME);
-        LocalDateTime endOfDay = date.atTime(DEFAULT_END_TIME);
-
-        while (currentSlot.isBefore(endOfDay)) {
-            LocalDateTime slotStartFinal = currentSlot;
-            LocalDateTime slotEndFinal = currentSlot.plusMinutes(slotIntervalMinutes);
-
-            boolean isAvailable = existingAppointments.stream()
-                    .noneMatch(appointment ->
-                            appointment.getStartTime().isBefore(slotEndFinal) &&
-                                    appointment.getEndTime().isAfter(slotStartFinal));
-
-            slots.add(DoctorAvailabilityDto.TimeSlotDto.builder()
-                    .startTime(slotStartFinal.format(TIME_FORMATTER))
-                    .endTime(slotEndFinal.format(TIME_FORMATTER))
-                    .available(isAvailable)
-                    .reason(isAvailable ? null : "Booked")
-                    .build());
-
-            currentSlot = slotEndFinal;
-        }
-
-        return slots;
-    }
-
     private List<DoctorAvailabilityDto.TimeSlotDto> generateBookedSlots(List<Appointment> appointments) {
         return appointments.stream()
                 .map(appointment -> DoctorAvailabilityDto.TimeSlotDto.builder()
@@ -409,7 +695,24 @@ public class AppointmentService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Full-detail mapping for single-appointment views.
+     */
     private AppointmentDto convertToDto(Appointment appointment) {
+        return toDtoBuilder(appointment)
+                .patientMedicalHistory(appointment.getPatient().getMedicalHistory())
+                .build();
+    }
+
+    /**
+     * List-row mapping: leaves out the patient's medical history. Callers load the patient (with address),
+     * doctor, department and hospital in the list query itself so no row triggers a lazy load.
+     */
+    private AppointmentDto convertToListDto(Appointment appointment) {
+        return toDtoBuilder(appointment).build();
+    }
+
+    private AppointmentDto.AppointmentDtoBuilder toDtoBuilder(Appointment appointment) {
         Patient patient = appointment.getPatient();
         User doctor = appointment.getDoctor();
 
@@ -427,7 +730,6 @@ public class AppointmentService {
                 .patientContact(patient.getContact())
                 .patientEmail(patient.getEmail())
                 .patientBloodGroup(patient.getBloodGroup())
-                .patientMedicalHistory(patient.getMedicalHistory())
                 .patientEmergencyContactName(patient.getEmergencyContactName())
                 .patientEmergencyContactRelation(patient.getEmergencyContactRelation())
                 .patientEmergencyContactPhone(patient.getEmergencyContactPhone())
@@ -478,8 +780,7 @@ public class AppointmentService {
                 .lastUpdatedDt(appointment.getLastUpdatedDt())
                 .createdBy(appointment.getCreatedBy())
                 .updatedBy(appointment.getUpdatedBy())
-                .version(appointment.getVersion())
-                .build();
+                .version(appointment.getVersion());
     }
 
     private String formatAddress(Address address) {
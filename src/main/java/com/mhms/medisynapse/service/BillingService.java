@@ -3,13 +3,16 @@ package com.mhms.medisynapse.service;
 import com.mhms.medisynapse.dto.BillItemDto;
 import com.mhms.medisynapse.dto.BillingResponseDto;
 import com.mhms.medisynapse.dto.CreateBillRequestDto;
+import com.mhms.medisynapse.dto.CursorPageDto;
 import com.mhms.medisynapse.dto.RefundRequestDto;
+import com.mhms.medisynapse.dto.RevenueAnalyticsDto;
 import com.mhms.medisynapse.entity.BillItem;
 import com.mhms.medisynapse.entity.Billing;
 import com.mhms.medisynapse.entity.Refund;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public interface BillingService {
@@ -34,5 +37,10 @@ public interface BillingService {
 
     Page<BillingResponseDto> getBillingsByHospitalId(Long hospitalId, Billing.BillingStatus status, Pageable pageable);
 
+    CursorPageDto<BillingResponseDto> scrollBillingsByHospitalId(Long hospitalId, Billing.BillingStatus status,
+                                                                 String cursor, int size);
+
     Page<BillingResponseDto> getAllActiveBillings(Pageable pageable);
+
+    RevenueAnalyticsDto getRevenueAnalytics(Long hospitalId, LocalDate startDate, LocalDate endDate, Long departmentId);
 }
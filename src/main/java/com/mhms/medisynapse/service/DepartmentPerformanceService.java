@@ -1,7 +1,13 @@
 package com.mhms.medisynapse.service;
 
 import com.mhms.medisynapse.dto.DepartmentPerformanceResponseDto;
+import com.mhms.medisynapse.dto.WaitTimePercentilesDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 public interface DepartmentPerformanceService {
     DepartmentPerformanceResponseDto getDepartmentPerformance(Long hospitalId);
+
+    List<WaitTimePercentilesDto> getDepartmentWaitTimes(Long hospitalId, LocalDateTime from, LocalDateTime to);
 }
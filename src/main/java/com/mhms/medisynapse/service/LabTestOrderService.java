@@ -6,6 +6,7 @@ import com.mhms.medisynapse.dto.LabTestOrderRequest;
 import com.mhms.medisynapse.dto.LabTestOrderResponse;
 
 import java.util.List;
+import java.util.Map;
 
 public interface LabTestOrderService {
 
@@ -38,5 +39,10 @@ public interface LabTestOrderService {
      * Get lab orders by hospital and status (for hospital admin)
      */
     List<LabTestOrderResponse> getLabOrdersByHospitalAndStatus(Long hospitalId, List<String> statuses);
+
+    /**
+     * Count lab orders per status for a hospital (for hospital admin); every status is present, zero when unused
+     */
+    Map<String, Long> countLabOrdersByHospitalAndStatus(Long hospitalId);
 }
 
@@ -12,12 +12,20 @@ import com.mhms.medisynapse.entity.PatientHospital;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
+
 public interface PatientService {
     PatientPagedResponseDto getPatientsByHospitalId(Long hospitalId,
                                                     Patient.PatientStatus status,
                                                     String search,
                                                     Pageable pageable);
 
+    PatientPagedResponseDto scrollPatientsByHospitalId(Long hospitalId,
+                                                       Patient.PatientStatus status,
+                                                       String search,
+                                                       String cursor,
+                                                       int size);
+
     CreatePatientResponseDto createPatient(CreatePatientRequestDto request);
 
     UpdatePatientResponseDto updatePatient(Long patientId, UpdatePatientRequestDto request, Long hospitalId);
@@ -34,5 +42,7 @@ public interface PatientService {
 
     PatientListDto convertToPatientListDto(Patient patient);
 
+    List<PatientListDto> convertToPatientListDtos(List<Patient> patients);
+
     PatientHistoryResponseDTO getPatientFullHistory(Long patientId);
 }
@@ -3,30 +3,52 @@ package com.mhms.medisynapse.service.impl;
 import com.mhms.medisynapse.dto.BillItemDto;
 import com.mhms.medisynapse.dto.BillingResponseDto;
 import com.mhms.medisynapse.dto.CreateBillRequestDto;
+import com.mhms.medisynapse.dto.CursorPageDto;
 import com.mhms.medisynapse.dto.RefundRequestDto;
+import com.mhms.medisynapse.dto.RevenueAmountsDto;
+import com.mhms.medisynapse.dto.RevenueAnalyticsDto;
 import com.mhms.medisynapse.entity.Appointment;
 import com.mhms.medisynapse.entity.BillItem;
 import com.mhms.medisynapse.entity.Billing;
 import com.mhms.medisynapse.entity.Hospital;
 import com.mhms.medisynapse.entity.Patient;
 import com.mhms.medisynapse.entity.Refund;
+import com.mhms.medisynapse.entity.RevenueDailyLedger;
+import com.mhms.medisynapse.event.BillingLedgerChangedEvent;
+import com.mhms.medisynapse.exception.InvalidDataException;
+import com.mhms.medisynapse.numbering.DocumentNumberGenerator;
+import com.mhms.medisynapse.numbering.DocumentType;
+import com.mhms.medisynapse.pagination.KeysetCursor;
 import com.mhms.medisynapse.repository.AppointmentRepository;
 import com.mhms.medisynapse.repository.BillItemRepository;
 import com.mhms.medisynapse.repository.BillingRepository;
 import com.mhms.medisynapse.repository.HospitalRepository;
 import com.mhms.medisynapse.repository.PatientRepository;
 import com.mhms.medisynapse.repository.RefundRepository;
+import com.mhms.medisynapse.repository.RevenueDailyLedgerRepository;
 import com.mhms.medisynapse.service.BillingService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -40,6 +62,9 @@ public class BillingServiceImpl implements BillingService {
     private final PatientRepository patientRepository;
     private final HospitalRepository hospitalRepository;
     private final AppointmentRepository appointmentRepository;
+    private final DocumentNumberGenerator documentNumberGenerator;
+    private final RevenueDailyLedgerRepository revenueLedgerRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -76,7 +101,7 @@ public class BillingServiceImpl implements BillingService {
         billing.setPatient(patient);
         billing.setHospital(hospital);
         billing.setAppointment(appointment);
-        billing.setBillNumber(generateBillNumber());
+        billing.setBillNumber(documentNumberGenerator.next(DocumentType.BILL, hospital.getId()));
         billing.setBillDate(LocalDate.now());
         billing.setTotalAmount(itemsTotal);
         billing.setDiscountAmount(discountAmount);
@@ -92,21 +117,11 @@ public class BillingServiceImpl implements BillingService {
         billing = billingRepository.save(billing);
         log.info("Billing created with ID: {}", billing.getId());
 
-        // Create bill items
-        for (BillItemDto itemDto : request.getItems()) {
-            BillItem billItem = new BillItem();
-            billItem.setBilling(billing);
-            billItem.setServiceType(itemDto.getServiceType());
-            billItem.setDescription(itemDto.getDescription());
-            billItem.setQuantity(itemDto.getQuantity());
-            billItem.setUnitPrice(itemDto.getUnitPrice());
-            billItem.setTotal(itemDto.getUnitPrice().multiply(BigDecimal.valueOf(itemDto.getQuantity())));
-            billItem.setCreatedBy(createdBy);
-            billItem.setUpdatedBy(createdBy);
-            billItemRepository.save(billItem);
-        }
+        // Create bill items; flushed with the bill as JDBC batches
+        billItemRepository.saveAll(toBillItems(request.getItems(), billing, createdBy));
 
         log.info("Created {} bill items for billing ID: {}", request.getItems().size(), billing.getId());
+        publishLedgerChange(billing);
         return BillingResponseDto.fromEntity(billing);
     }
 
@@ -141,9 +156,8 @@ public class BillingServiceImpl implements BillingService {
         }
 
         // Delete existing bill items
-        List<BillItem> existingItems = billItemRepository.findByBillingId(billingId);
-        billItemRepository.deleteAll(existingItems);
-        log.info("Deleted {} existing bill items for billing ID: {}", existingItems.size(), billingId);
+        int deletedItems = billItemRepository.deleteActiveByBillingId(billingId);
+        log.info("Deleted {} existing bill items for billing ID: {}", deletedItems, billingId);
 
         // Calculate total from new items
         BigDecimal itemsTotal = request.getItems().stream()
@@ -156,6 +170,7 @@ public class BillingServiceImpl implements BillingService {
         BigDecimal netAmount = itemsTotal.subtract(discountAmount).add(taxAmount);
 
         // Update billing
+        Long previousHospitalId = billing.getHospital().getId();
         billing.setPatient(patient);
         billing.setHospital(hospital);
         billing.setAppointment(appointment);
@@ -170,21 +185,20 @@ public class BillingServiceImpl implements BillingService {
         billing = billingRepository.save(billing);
         log.info("Billing updated with ID: {}", billing.getId());
 
-        // Create new bill items
-        for (BillItemDto itemDto : request.getItems()) {
-            BillItem billItem = new BillItem();
-            billItem.setBilling(billing);
-            billItem.setServiceType(itemDto.getServiceType());
-            billItem.setDescription(itemDto.getDescription());
-            billItem.setQuantity(itemDto.getQuantity());
-            billItem.setUnitPrice(itemDto.getUnitPrice());
-            billItem.setTotal(itemDto.getUnitPrice().multiply(BigDecimal.valueOf(itemDto.getQuantity())));
-            billItem.setCreatedBy(updatedBy);
-            billItem.setUpdatedBy(updatedBy);
-            billItemRepository.save(billItem);
-        }
+        // Create new bill items; flushed with the bill as JDBC batches
+        billItemRepository.saveAll(toBillItems(request.getItems(), billing, updatedBy));
 
         log.info("Created {} new bill items for billing ID: {}", request.getItems().size(), billing.getId());
+        if (!previousHospitalId.equals(hospital.getId())) {
+            // The bill's payments and refunds move to the new hospital's ledger as well
+            List<LocalDate> movementDates = getMovementDates(billing);
+            eventPublisher.publishEvent(new BillingLedgerChangedEvent(previousHospitalId,
+                    ledgerDates(billing, movementDates)));
+            eventPublisher.publishEvent(new BillingLedgerChangedEvent(hospital.getId(),
+                    ledgerDates(billing, movementDates)));
+        } else {
+            publishLedgerChange(billing);
+        }
         return BillingResponseDto.fromEntity(billing);
     }
 
@@ -235,6 +249,7 @@ public class BillingServiceImpl implements BillingService {
         billing.setOutstandingAmount(billing.getNetAmount().subtract(billing.getPaidAmount()));
         billing.setUpdatedBy(createdBy);
         billingRepository.save(billing);
+        publishLedgerChange(billing);
 
         log.info("Bill item added with ID: {}", billItem.getId());
         return billItem;
@@ -247,32 +262,29 @@ public class BillingServiceImpl implements BillingService {
 
         Billing billing = getBillingEntityById(request.getBillingId());
 
-        // Validate refund amount
+        // Fail fast on the balance just read; applyRefund re-checks it atomically
         if (request.getAmount().compareTo(billing.getPaidAmount()) > 0) {
             throw new RuntimeException("Refund amount cannot exceed paid amount");
         }
 
+        // Apply the refund to the bill first; the guarded update clears the persistence context
+        int updated = billingRepository.applyRefund(billing.getId(), request.getAmount(),
+                Billing.BillingStatus.REFUNDED, Billing.BillingStatus.PARTIALLY_PAID, createdBy, LocalDateTime.now());
+        if (updated == 0) {
+            // A concurrent refund or void reduced the paid amount below this refund
+            throw new RuntimeException("Refund amount cannot exceed paid amount");
+        }
+        Billing refunded = getBillingEntityById(billing.getId());
+
         Refund refund = new Refund();
-        refund.setBilling(billing);
+        refund.setBilling(refunded);
         refund.setAmount(request.getAmount());
         refund.setReason(request.getReason());
         refund.setCreatedBy(createdBy);
         refund.setUpdatedBy(createdBy);
 
         refund = refundRepository.save(refund);
-
-        // Update billing status
-        billing.setPaidAmount(billing.getPaidAmount().subtract(request.getAmount()));
-        billing.setOutstandingAmount(billing.getNetAmount().subtract(billing.getPaidAmount()));
-
-        if (billing.getPaidAmount().compareTo(BigDecimal.ZERO) == 0) {
-            billing.setStatus(Billing.BillingStatus.REFUNDED);
-        } else if (billing.getOutstandingAmount().compareTo(BigDecimal.ZERO) > 0) {
-            billing.setStatus(Billing.BillingStatus.PARTIALLY_PAID);
-        }
-
-        billing.setUpdatedBy(createdBy);
-        billingRepository.save(billing);
+        publishLedgerChange(refunded, refund.getRefundDt().toLocalDate());
 
         log.info("Refund processed with ID: {}", refund.getId());
         return refund;
@@ -310,6 +322,25 @@ public class BillingServiceImpl implements BillingService {
         }
     }
 
+    @Override
+    public CursorPageDto<BillingResponseDto> scrollBillingsByHospitalId(Long hospitalId, Billing.BillingStatus status,
+                                                                        String cursor, int size) {
+        log.info("Scrolling billings for hospital ID: {} with status: {}", hospitalId, status);
+
+        ScrollPosition position = KeysetCursor.toScrollPosition(cursor, "createdDt");
+        Sort sort = Sort.by(Sort.Direction.DESC, "createdDt", "id");
+        Window<Billing> window = status != null
+                ? billingRepository.findByHospitalIdAndStatusAndIsActiveTrue(hospitalId, status, position, sort, Limit.of(size))
+                : billingRepository.findByHospitalIdAndIsActiveTrue(hospitalId, position, sort, Limit.of(size));
+
+        return CursorPageDto.<BillingResponseDto>builder()
+                .content(window.getContent().stream().map(BillingResponseDto::fromEntity).toList())
+                .size(window.size())
+                .hasNext(window.hasNext())
+                .nextCursor(KeysetCursor.nextCursor(window, "createdDt"))
+                .build();
+    }
+
     @Override
     public Page<BillingResponseDto> getAllActiveBillings(Pageable pageable) {
         log.info("Fetching all active billings for super admin");
@@ -317,8 +348,122 @@ public class BillingServiceImpl implements BillingService {
                 .map(BillingResponseDto::fromEntity);
     }
 
-    private String generateBillNumber() {
-        // Generate unique bill number (you can customize this logic)
-        return "BILL-" + System.currentTimeMillis();
+    /**
+     * Revenue for {@code [startDate, endDate]}, summed from the daily ledgers so the cost depends on the number of
+     * days in the range rather than the number of bills and payments.
+     */
+    @Override
+    public RevenueAnalyticsDto getRevenueAnalytics(Long hospitalId, LocalDate startDate, LocalDate endDate,
+                                                   Long departmentId) {
+        log.info("Fetching revenue analytics for hospital {} from {} to {}", hospitalId, startDate, endDate);
+
+        if (endDate.isBefore(startDate)) {
+            throw new InvalidDataException("End date must not be before start date");
+        }
+
+        RevenueAmountsDto totals = new RevenueAmountsDto();
+        Map<String, RevenueAmountsDto> byDay = new LinkedHashMap<>();
+        Map<String, RevenueAmountsDto> byPaymentMethod = new LinkedHashMap<>();
+        Map<String, RevenueAmountsDto> byServiceType = new LinkedHashMap<>();
+        Map<String, RevenueAmountsDto> byDepartment = new LinkedHashMap<>();
+        List<Object[]> rows = departmentId != null
+                ? revenueLedgerRepository.sumByDayAndDimensionsForDepartment(hospitalId, startDate, endDate, departmentId)
+                : revenueLedgerRepository.sumByDayAndDimensions(hospitalId, startDate, endDate);
+        for (Object[] row : rows) {
+            RevenueDailyLedger.EntryType entryType = (RevenueDailyLedger.EntryType) row[1];
+            BigDecimal amount = (BigDecimal) row[6];
+            BigDecimal outstanding = (BigDecimal) row[7];
+            String department = row[3] != null ? (String) row[3] : "Unassigned";
+
+            addLedgerAmount(totals, entryType, amount, outstanding);
+            addLedgerAmount(byDay.computeIfAbsent(row[0].toString(), key -> new RevenueAmountsDto()),
+                    entryType, amount, outstanding);
+            addLedgerAmount(byDepartment.computeIfAbsent(department, key -> new RevenueAmountsDto()),
+                    entryType, amount, outstanding);
+            if (entryType == RevenueDailyLedger.EntryType.BILLED) {
+                addLedgerAmount(byServiceType.computeIfAbsent((String) row[5], key -> new RevenueAmountsDto()),
+                        entryType, amount, outstanding);
+            } else {
+                String paymentMethod = row[4] != null ? (String) row[4] : "UNSPECIFIED";
+                addLedgerAmount(byPaymentMethod.computeIfAbsent(paymentMethod, key -> new RevenueAmountsDto()),
+                        entryType, amount, outstanding);
+            }
+        }
+
+        roundAmounts(totals);
+        byDay.values().forEach(this::roundAmounts);
+        byPaymentMethod.values().forEach(this::roundAmounts);
+        byServiceType.values().forEach(this::roundAmounts);
+        byDepartment.values().forEach(this::roundAmounts);
+
+        return RevenueAnalyticsDto.builder()
+                .hospitalId(hospitalId)
+                .startDate(startDate)
+                .endDate(endDate)
+                .totals(totals)
+                .revenueByDay(byDay)
+                .revenueByPaymentMethod(byPaymentMethod)
+                .revenueByServiceType(byServiceType)
+                .revenueByDepartment(byDepartment)
+                .build();
+    }
+
+    private void addLedgerAmount(RevenueAmountsDto amounts, RevenueDailyLedger.EntryType entryType,
+                                 BigDecimal amount, BigDecimal outstanding) {
+        switch (entryType) {
+            case BILLED -> {
+                amounts.setBilled(amounts.getBilled().add(amount));
+                amounts.setOutstanding(amounts.getOutstanding().add(outstanding));
+            }
+            case PAYMENT -> amounts.setPaid(amounts.getPaid().add(amount));
+            case REFUND -> amounts.setRefunded(amounts.getRefunded().add(amount));
+        }
+    }
+
+    private void roundAmounts(RevenueAmountsDto amounts) {
+        amounts.setBilled(amounts.getBilled().setScale(2, RoundingMode.HALF_UP));
+        amounts.setPaid(amounts.getPaid().setScale(2, RoundingMode.HALF_UP));
+        amounts.setRefunded(amounts.getRefunded().setScale(2, RoundingMode.HALF_UP));
+        amounts.setOutstanding(amounts.getOutstanding().setScale(2, RoundingMode.HALF_UP));
+        amounts.setNetCollected(amounts.getPaid().subtract(amounts.getRefunded()));
+    }
+
+    private void publishLedgerChange(Billing billing, LocalDate... movementDates) {
+        eventPublisher.publishEvent(new BillingLedgerChangedEvent(billing.getHospital().getId(),
+                ledgerDates(billing, List.of(movementDates))));
+    }
+
+    private Set<LocalDate> ledgerDates(Billing billing, List<LocalDate> movementDates) {
+        Set<LocalDate> dates = new HashSet<>(movementDates);
+        dates.add(billing.getBillDate());
+        return dates;
+    }
+
+    private List<LocalDate> getMovementDates(Billing billing) {
+        List<LocalDate> dates = new ArrayList<>();
+        if (billing.getPayments() != null) {
+            billing.getPayments().forEach(payment -> dates.add(payment.getPaymentDate().toLocalDate()));
+        }
+        refundRepository.findByBillingId(billing.getId()).stream()
+                .filter(refund -> refund.getRefundDt() != null)
+                .forEach(refund -> dates.add(refund.getRefundDt().toLocalDate()));
+        return dates;
+    }
+
+    private List<BillItem> toBillItems(List<BillItemDto> itemDtos, Billing billing, Long userId) {
+        return itemDtos.stream()
+                .map(itemDto -> {
+                    BillItem billItem = new BillItem();
+                    billItem.setBilling(billing);
+                    billItem.setServiceType(itemDto.getServiceType());
+                    billItem.setDescription(itemDto.getDescription());
+                    billItem.setQuantity(itemDto.getQuantity());
+                    billItem.setUnitPrice(itemDto.getUnitPrice());
+                    billItem.setTotal(itemDto.getUnitPrice().multiply(BigDecimal.valueOf(itemDto.getQuantity())));
+                    billItem.setCreatedBy(userId);
+                    billItem.setUpdatedBy(userId);
+                    return billItem;
+                })
+                .toList();
     }
 }
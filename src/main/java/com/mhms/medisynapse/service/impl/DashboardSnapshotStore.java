@@ -0,0 +1,136 @@
+package com.mhms.medisynapse.service.impl;
+
+import com.mhms.medisynapse.dto.DashboardStatisticsDto;
+import com.mhms.medisynapse.event.AppointmentChangedEvent;
+import com.mhms.medisynapse.event.DashboardDataChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory, per-hospital snapshots of the hospital admin dashboard.
+ * <p>
+ * Reads are served from the last snapshot; only the first read for a hospital computes it inline. A background
+ * tick refreshes snapshots that writes marked dirty or that reached {@code dashboard.snapshot.max-age-seconds},
+ * oldest first and at most {@code dashboard.snapshot.refreshes-per-tick} hospitals per tick, one after another, so
+ * refresh work is spread out instead of hitting the connection pool for every hospital at once. Hospitals whose
+ * dashboard has not been read for {@code dashboard.snapshot.idle-eviction-minutes} are dropped.
+ */
+@Component
+@Slf4j
+public class DashboardSnapshotStore {
+
+    private final DashboardStatisticsAssembler dashboardStatisticsAssembler;
+    private final Clock clock = Clock.systemDefaultZone();
+    private final Map<Long, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    @Value("${dashboard.snapshot.max-age-seconds:30}")
+    private long maxAgeSeconds;
+
+    @Value("${dashboard.snapshot.refreshes-per-tick:2}")
+    private int refreshesPerTick;
+
+    @Value("${dashboard.snapshot.idle-eviction-minutes:10}")
+    private long idleEvictionMinutes;
+
+    public DashboardSnapshotStore(DashboardStatisticsAssembler dashboardStatisticsAssembler) {
+        this.dashboardStatisticsAssembler = dashboardStatisticsAssembler;
+    }
+
+    /**
+     * The latest snapshot for {@code hospitalId}, stamped with when it was taken and its age.
+     */
+    public DashboardStatisticsDto get(Long hospitalId) {
+        Snapshot snapshot = snapshots.computeIfAbsent(hospitalId, id -> new Snapshot());
+        snapshot.lastReadAt = clock.instant();
+        if (snapshot.statistics == null) {
+            synchronized (snapshot) {
+                if (snapshot.statistics == null) {
+                    try {
+                        refresh(hospitalId, snapshot);
+                    } catch (RuntimeException e) {
+                        snapshots.remove(hospitalId, snapshot);
+                        throw e;
+                    }
+                }
+            }
+        }
+
+        DashboardStatisticsDto statistics = snapshot.statistics;
+        Instant takenAt = snapshot.takenAt;
+        return statistics.toBuilder()
+                .snapshotTakenAt(LocalDateTime.ofInstant(takenAt, clock.getZone()))
+                .snapshotAgeMs(Duration.between(takenAt, clock.instant()).toMillis())
+                .build();
+    }
+
+    public void markDirty(Long hospitalId) {
+        Snapshot snapshot = hospitalId != null ? snapshots.get(hospitalId) : null;
+        if (snapshot != null) {
+            snapshot.dirty = true;
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        markDirty(event.getHospitalId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDashboardDataChanged(DashboardDataChangedEvent event) {
+        markDirty(event.getHospitalId());
+    }
+
+    @Scheduled(fixedDelayString = "${dashboard.snapshot.tick-interval-ms:1000}")
+    public void refreshDueSnapshots() {
+        Instant now = clock.instant();
+        Instant idleCutoff = now.minus(Duration.ofMinutes(idleEvictionMinutes));
+        Instant staleCutoff = now.minusSeconds(maxAgeSeconds);
+
+        snapshots.entrySet().removeIf(entry -> entry.getValue().lastReadAt.isBefore(idleCutoff));
+
+        snapshots.entrySet().stream()
+                .filter(entry -> entry.getValue().takenAt != null)
+                .filter(entry -> entry.getValue().dirty || entry.getValue().takenAt.isBefore(staleCutoff))
+                .sorted(Comparator.comparing(entry -> entry.getValue().takenAt))
+                .limit(refreshesPerTick)
+                .forEach(entry -> {
+                    try {
+                        refresh(entry.getKey(), entry.getValue());
+                    } catch (RuntimeException e) {
+                        log.warn("Failed to refresh dashboard snapshot for hospital ID: {}", entry.getKey(), e);
+                    }
+                });
+    }
+
+    private void refresh(Long hospitalId, Snapshot snapshot) {
+        // Cleared before loading so writes that land during the refresh mark it dirty again
+        snapshot.dirty = false;
+        DashboardStatisticsDto statistics = dashboardStatisticsAssembler.assemble(hospitalId);
+        snapshot.takenAt = clock.instant();
+        snapshot.statistics = statistics;
+        if (statistics.isPartial()) {
+            // Retry the missing sections on the next tick
+            snapshot.dirty = true;
+        }
+        log.debug("Refreshed dashboard snapshot for hospital ID: {}", hospitalId);
+    }
+
+    private static final class Snapshot {
+        private volatile DashboardStatisticsDto statistics;
+        private volatile Instant takenAt;
+        private volatile boolean dirty;
+        private volatile Instant lastReadAt = Instant.now();
+    }
+}
@@ -0,0 +1,229 @@
+package com.mhms.medisynapse.service.impl;
+
+import com.mhms.medisynapse.dto.BedOccupancyDto;
+import com.mhms.medisynapse.dto.DashboardStatisticsDto;
+import com.mhms.medisynapse.dto.DepartmentStatsDto;
+import com.mhms.medisynapse.dto.RecentAdmissionDto;
+import com.mhms.medisynapse.dto.StaffOnDutyDto;
+import com.mhms.medisynapse.entity.Admission;
+import com.mhms.medisynapse.entity.Hospital;
+import com.mhms.medisynapse.entity.User;
+import com.mhms.medisynapse.exception.ResourceNotFoundException;
+import com.mhms.medisynapse.repository.AdmissionRepository;
+import com.mhms.medisynapse.repository.AppointmentRepository;
+import com.mhms.medisynapse.repository.HospitalRepository;
+import com.mhms.medisynapse.repository.PatientRepository;
+import com.mhms.medisynapse.repository.ShiftRepository;
+import com.mhms.medisynapse.repository.UserRepository;
+import com.mhms.medisynapse.scheduling.HospitalClock;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the hospital admin dashboard. Like {@link PatientHistoryAssembler}, each independent section is loaded
+ * concurrently in its own read-only transaction; a section that fails or exceeds the configured timeout is left
+ * empty and reported in {@code unavailableSections} instead of failing the whole dashboard.
+ * <p>
+ * Every section run is recorded in the {@code dashboard.section.duration} timer, tagged with the section and its
+ * outcome, so slow sections can be spotted from the metrics endpoint.
+ */
+@Component
+@Slf4j
+public class DashboardStatisticsAssembler {
+
+    private static final String SECTION_TOTAL_PATIENTS = "totalPatients";
+    private static final String SECTION_TOTAL_DOCTORS = "totalDoctors";
+    private static final String SECTION_ACTIVE_APPOINTMENTS = "activeAppointments";
+    private static final String SECTION_BED_OCCUPANCY = "bedOccupancy";
+    private static final String SECTION_STAFF_ON_DUTY = "staffOnDuty";
+    private static final String SECTION_DEPARTMENT_STATS = "departmentStats";
+    private static final String SECTION_RECENT_ADMISSIONS = "recentAdmissions";
+
+    private static final String SECTION_TIMER = "dashboard.section.duration";
+
+    private final PatientRepository patientRepository;
+    private final UserRepository userRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final DepartmentLoadStatistics departmentLoadStatistics;
+    private final HospitalClock hospitalClock;
+    private final HospitalRepository hospitalRepository;
+    private final ShiftRepository shiftRepository;
+    private final AdmissionRepository admissionRepository;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Executor executor;
+
+    @Value("${dashboard.section-timeout-ms:2000}")
+    private long sectionTimeoutMs;
+
+    public DashboardStatisticsAssembler(PatientRepository patientRepository,
+                                        UserRepository userRepository,
+                                        AppointmentRepository appointmentRepository,
+                                        DepartmentLoadStatistics departmentLoadStatistics,
+                                        HospitalClock hospitalClock,
+                                        HospitalRepository hospitalRepository,
+                                        ShiftRepository shiftRepository,
+                                        AdmissionRepository admissionRepository,
+                                        MeterRegistry meterRegistry,
+                                        PlatformTransactionManager transactionManager,
+                                        @Qualifier("dashboardExecutor") Executor executor) {
+        this.patientRepository = patientRepository;
+        this.userRepository = userRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.departmentLoadStatistics = departmentLoadStatistics;
+        this.hospitalClock = hospitalClock;
+        this.hospitalRepository = hospitalRepository;
+        this.shiftRepository = shiftRepository;
+        this.admissionRepository = admissionRepository;
+        this.meterRegistry = meterRegistry;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.executor = executor;
+    }
+
+    public DashboardStatisticsDto assemble(Long hospitalId) {
+        CompletableFuture<Long> totalPatients = loadSection(SECTION_TOTAL_PATIENTS,
+                () -> patientRepository.countPatientsByHospitalId(hospitalId));
+        CompletableFuture<Long> totalDoctors = loadSection(SECTION_TOTAL_DOCTORS,
+                () -> userRepository.countByHospitalIdAndRole(hospitalId, User.UserRole.DOCTOR));
+        CompletableFuture<Long> activeAppointments = loadSection(SECTION_ACTIVE_APPOINTMENTS,
+                () -> appointmentRepository.countActiveAppointmentsByHospitalId(hospitalId));
+        CompletableFuture<BedOccupancyDto> bedOccupancy = loadSection(SECTION_BED_OCCUPANCY,
+                () -> getBedOccupancyData(hospitalId));
+        CompletableFuture<StaffOnDutyDto> staffOnDuty = loadSection(SECTION_STAFF_ON_DUTY,
+                () -> getStaffOnDutyData(hospitalId));
+        CompletableFuture<List<DepartmentStatsDto>> departmentStats = loadSection(SECTION_DEPARTMENT_STATS,
+                () -> departmentLoadStatistics.getDepartmentStatistics(hospitalId, hospitalClock.today()));
+        CompletableFuture<List<RecentAdmissionDto>> recentAdmissions = loadSection(SECTION_RECENT_ADMISSIONS,
+                () -> getRecentAdmissions(hospitalId));
+
+        List<String> unavailableSections = new ArrayList<>();
+        DashboardStatisticsDto dto = DashboardStatisticsDto.builder()
+                .totalPatients(resolve(SECTION_TOTAL_PATIENTS, totalPatients, null, unavailableSections, hospitalId))
+                .totalDoctors(resolve(SECTION_TOTAL_DOCTORS, totalDoctors, null, unavailableSections, hospitalId))
+                .activeAppointments(resolve(SECTION_ACTIVE_APPOINTMENTS, activeAppointments, null,
+                        unavailableSections, hospitalId))
+                .bedOccupancy(resolve(SECTION_BED_OCCUPANCY, bedOccupancy, null, unavailableSections, hospitalId))
+                .staffOnDuty(resolve(SECTION_STAFF_ON_DUTY, staffOnDuty, null, unavailableSections, hospitalId))
+                .departmentStats(resolve(SECTION_DEPARTMENT_STATS, departmentStats, Collections.emptyList(),
+                        unavailableSections, hospitalId))
+                .recentAdmissions(resolve(SECTION_RECENT_ADMISSIONS, recentAdmissions, Collections.emptyList(),
+                        unavailableSections, hospitalId))
+                .build();
+        dto.setPartial(!unavailableSections.isEmpty());
+        dto.setUnavailableSections(unavailableSections);
+        return dto;
+    }
+
+    private <T> CompletableFuture<T> loadSection(String section, Supplier<T> loader) {
+        return CompletableFuture
+                .supplyAsync(() -> timed(section, () -> readOnlyTransaction.execute(status -> loader.get())), executor)
+                .orTimeout(sectionTimeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    private <T> T timed(String section, Supplier<T> loader) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            return loader.get();
+        } catch (RuntimeException e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer(SECTION_TIMER, "section", section, "outcome", outcome));
+        }
+    }
+
+    private <T> T resolve(String section, CompletableFuture<T> future, T fallback,
+                          List<String> unavailableSections, Long hospitalId) {
+        try {
+            T result = future.join();
+            return result != null ? result : fallback;
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof ResourceNotFoundException notFound) {
+                throw notFound;
+            }
+            if (e.getCause() instanceof TimeoutException) {
+                log.warn("Dashboard section '{}' timed out after {} ms for hospital ID: {}",
+                        section, sectionTimeoutMs, hospitalId);
+                meterRegistry.counter(SECTION_TIMER + ".timeouts", "section", section).increment();
+            } else {
+                log.error("Failed to load dashboard section '{}' for hospital ID: {}",
+                        section, hospitalId, e.getCause());
+            }
+            unavailableSections.add(section);
+            return fallback;
+        }
+    }
+
+    private BedOccupancyDto getBedOccupancyData(Long hospitalId) {
+        // Get hospital entity to access bed information
+        Hospital hospital = hospitalRepository.findById(hospitalId)
+                .orElseThrow(() -> new ResourceNotFoundException("Hospital not found with ID: " + hospitalId));
+
+        // Use hospital's bed fields
+        Long total = hospital.getTotalBeds() != null ? hospital.getTotalBeds().longValue() : 0L;
+        Long available = hospital.getAvailableBeds() != null ? hospital.getAvailableBeds().longValue() : 0L;
+        Long occupied = total - available;
+
+        Double occupancyPercentage = total > 0 ?
+                Math.round((occupied.doubleValue() / total.doubleValue()) * 100 * 100.0) / 100.0 : 0.0;
+
+        return BedOccupancyDto.builder()
+                .occupied(occupied)
+                .available(available)
+                .total(total)
+                .occupancyPercentage(occupancyPercentage)
+                .build();
+    }
+
+    private StaffOnDutyDto getStaffOnDutyData(Long hospitalId) {
+        LocalDateTime currentTime = LocalDateTime.now();
+
+        // Get real staff duty data from shifts
+        Long onDuty = shiftRepository.countStaffOnDutyByHospitalId(hospitalId, currentTime);
+        Long totalStaff = shiftRepository.countTotalStaffByHospitalId(hospitalId);
+        Long offDuty = totalStaff - onDuty;
+
+        return StaffOnDutyDto.builder()
+                .onDuty(onDuty)
+                .offDuty(offDuty)
+                .total(totalStaff)
+                .build();
+    }
+
+    private List<RecentAdmissionDto> getRecentAdmissions(Long hospitalId) {
+        // Get admissions from the last 24 hours
+        LocalDateTime last24Hours = LocalDateTime.now().minusHours(24);
+        List<Admission> recentAdmissions = admissionRepository.findRecentAdmissionsByHospitalId(hospitalId, last24Hours);
+
+        return recentAdmissions.stream()
+                .limit(10) // Limit to 10 recent admissions
+                .map(admission -> RecentAdmissionDto.builder()
+                        .patientId(admission.getPatient().getId())
+                        .patientName(admission.getPatient().getFirstName() + " " + admission.getPatient().getLastName())
+                        .roomNumber(admission.getBedNo() != null ? admission.getBedNo() : "N/A")
+                        .department(admission.getDepartment().getName())
+                        .admissionTime(admission.getCreatedDt())
+                        .build())
+                .collect(Collectors.toList());
+    }
+}
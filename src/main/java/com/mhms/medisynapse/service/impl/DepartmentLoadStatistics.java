@@ -0,0 +1,83 @@
+package com.mhms.medisynapse.service.impl;
+
+import com.mhms.medisynapse.cache.CacheNames;
+import com.mhms.medisynapse.dto.DepartmentStatsDto;
+import com.mhms.medisynapse.entity.DepartmentType;
+import com.mhms.medisynapse.repository.AdmissionRepository;
+import com.mhms.medisynapse.repository.AppointmentRepository;
+import com.mhms.medisynapse.repository.DepartmentTypeRepository;
+import com.mhms.medisynapse.scheduling.HospitalClock;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Today's patient load per department type for the hospital admin dashboard.
+ * <p>
+ * Appointments and admissions are counted by two separate queries grouped by department name and merged onto the
+ * active department types here; joining both to the departments in one query would multiply appointment rows by
+ * admission rows. Results are cached per hospital and day for a short
+ * TTL ({@code cache.department-load.ttl-seconds}), so polling dashboards do not rerun it on every request.
+ */
+@Component
+@RequiredArgsConstructor
+public class DepartmentLoadStatistics {
+
+    // Department icon mapping
+    private static final Map<String, String> DEPARTMENT_ICONS = new HashMap<>();
+
+    static {
+        DEPARTMENT_ICONS.put("Cardiology", "heart-pulse");
+        DEPARTMENT_ICONS.put("Neurology", "brain");
+        DEPARTMENT_ICONS.put("Orthopedics", "bone");
+        DEPARTMENT_ICONS.put("Pediatrics", "baby");
+        DEPARTMENT_ICONS.put("Emergency", "ambulance");
+        DEPARTMENT_ICONS.put("Surgery", "scalpel");
+        DEPARTMENT_ICONS.put("Radiology", "x-ray");
+        DEPARTMENT_ICONS.put("Laboratory", "flask");
+        DEPARTMENT_ICONS.put("Pharmacy", "pills");
+        DEPARTMENT_ICONS.put("ICU", "heart-monitor");
+    }
+
+    private final DepartmentTypeRepository departmentTypeRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final AdmissionRepository admissionRepository;
+    private final HospitalClock hospitalClock;
+
+    /**
+     * Appointments starting on {@code day} plus admissions created on {@code day}, per active department type.
+     * Department types the hospital has no department for are reported with zero.
+     */
+    @Cacheable(value = CacheNames.DEPARTMENT_LOAD)
+    public List<DepartmentStatsDto> getDepartmentStatistics(Long hospitalId, LocalDate day) {
+        LocalDateTime dayStart = hospitalClock.startOfDay(day);
+        LocalDateTime nextDayStart = hospitalClock.startOfNextDay(day);
+        Map<String, Long> appointments = countsByName(
+                appointmentRepository.countDailyAppointmentsByDepartmentName(hospitalId, dayStart, nextDayStart));
+        Map<String, Long> admissions = countsByName(
+                admissionRepository.countDailyAdmissionsByDepartmentName(hospitalId, dayStart, nextDayStart));
+
+        return departmentTypeRepository.findAllActiveOrderByName().stream()
+                .map(DepartmentType::getName)
+                .map(name -> DepartmentStatsDto.builder()
+                        .departmentName(name)
+                        .patientsToday(appointments.getOrDefault(name, 0L) + admissions.getOrDefault(name, 0L))
+                        .icon(DEPARTMENT_ICONS.getOrDefault(name, "stethoscope"))
+                        .build())
+                .toList();
+    }
+
+    private static Map<String, Long> countsByName(List<Object[]> rows) {
+        Map<String, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.put((String) row[0], ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+}
@@ -1,23 +1,30 @@
 package com.mhms.medisynapse.service.impl;
 
+import com.mhms.medisynapse.analytics.WaitTimeSketches;
+import com.mhms.medisynapse.cache.CacheNames;
 import com.mhms.medisynapse.dto.DepartmentPerformanceDto;
 import com.mhms.medisynapse.dto.DepartmentPerformanceResponseDto;
-import com.mhms.medisynapse.entity.Appointment;
+import com.mhms.medisynapse.dto.WaitTimePercentilesDto;
 import com.mhms.medisynapse.entity.Department;
+import com.mhms.medisynapse.exception.InvalidDataException;
 import com.mhms.medisynapse.repository.AppointmentRepository;
 import com.mhms.medisynapse.repository.DepartmentRepository;
 import com.mhms.medisynapse.repository.UserRepository;
+import com.mhms.medisynapse.scheduling.HospitalClock;
 import com.mhms.medisynapse.service.DepartmentPerformanceService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -28,17 +35,70 @@ public class DepartmentPerformanceServiceImpl implements DepartmentPerformanceSe
     private final DepartmentRepository departmentRepository;
     private final AppointmentRepository appointmentRepository;
     private final UserRepository userRepository;
-
+    private final HospitalClock hospitalClock;
+    private final WaitTimeSketches waitTimeSketches;
+
+    /**
+     * Metrics for every department of the hospital from a fixed set of hospital-wide grouped queries, merged by
+     * department id; wait times come from the persisted hourly sketches. Cached per hospital for
+     * {@code cache.department-performance.ttl-seconds}.
+     */
     @Override
+    @Cacheable(value = CacheNames.DEPARTMENT_PERFORMANCE, key = "#hospitalId")
     public DepartmentPerformanceResponseDto getDepartmentPerformance(Long hospitalId) {
         log.info("Fetching department performance metrics for hospital ID: {}", hospitalId);
 
+        LocalDate today = hospitalClock.today();
+        YearMonth currentMonth = YearMonth.from(today);
+        LocalDateTime startOfMonth = currentMonth.atDay(1).atStartOfDay();
+        LocalDateTime endOfMonth = currentMonth.plusMonths(1).atDay(1).atStartOfDay();
+        LocalDateTime now = hospitalClock.now();
+        LocalDateTime thirtyDaysAgo = now.minusDays(30);
+        LocalDateTime rangeStart = startOfMonth.isBefore(thirtyDaysAgo) ? startOfMonth : thirtyDaysAgo;
+
         List<Department> departments = departmentRepository.findByHospitalId(hospitalId);
-        List<DepartmentPerformanceDto> performanceList = new ArrayList<>();
 
+        Map<Long, long[]> appointmentCounts = new HashMap<>();
+        for (Object[] row : appointmentRepository.countPerformanceByDepartmentForHospital(hospitalId,
+                hospitalClock.startOfDay(today), hospitalClock.startOfNextDay(today),
+                startOfMonth, endOfMonth, thirtyDaysAgo, rangeStart)) {
+            appointmentCounts.put((Long) row[0], new long[]{
+                    toLong(row[1]), toLong(row[2]), toLong(row[3]), toLong(row[4])});
+        }
+
+        Map<Long, Long> activeDoctors = new HashMap<>();
+        for (Object[] row : userRepository.countActiveDoctorsByDepartmentForHospital(hospitalId)) {
+            activeDoctors.put((Long) row[0], (Long) row[1]);
+        }
+
+        Map<Long, WaitTimeSketches.Summary> waitTimesByDepartment = waitTimeSketches.summarize(
+                departments.stream().map(Department::getId).toList(), thirtyDaysAgo, now);
+
+        List<DepartmentPerformanceDto> performanceList = new ArrayList<>();
         for (Department department : departments) {
-            DepartmentPerformanceDto performance = calculateDepartmentPerformance(department);
-            performanceList.add(performance);
+            Long departmentId = department.getId();
+            long[] counts = appointmentCounts.getOrDefault(departmentId, new long[4]);
+            WaitTimeSketches.Summary waitTimes = waitTimesByDepartment.getOrDefault(departmentId,
+                    WaitTimeSketches.Summary.EMPTY);
+            Double avgWaitTime = waitTimes.mean();
+            Double patientSatisfaction = calculatePatientSatisfaction(counts[2], counts[3], avgWaitTime);
+
+            log.debug("Department {} metrics - Today: {}, Monthly: {}, Doctors: {}, Wait: {}min, Satisfaction: {}",
+                    department.getName(), counts[0], counts[1], activeDoctors.get(departmentId), avgWaitTime,
+                    patientSatisfaction);
+
+            performanceList.add(DepartmentPerformanceDto.builder()
+                    .departmentId(departmentId)
+                    .name(department.getName())
+                    .todayPatients(counts[0])
+                    .monthlyPatients(counts[1])
+                    .activeDoctors(activeDoctors.getOrDefault(departmentId, 0L))
+                    .avgWaitTime(avgWaitTime)
+                    .waitTimeP50(waitTimes.p50())
+                    .waitTimeP90(waitTimes.p90())
+                    .waitTimeP99(waitTimes.p99())
+                    .patientSatisfaction(patientSatisfaction)
+                    .build());
         }
 
         log.info("Department performance metrics calculated for {} departments", performanceList.size());
@@ -48,86 +108,43 @@ public class DepartmentPerformanceServiceImpl implements DepartmentPerformanceSe
                 .build();
     }
 
-    private DepartmentPerformanceDto calculateDepartmentPerformance(Department department) {
-        Long departmentId = department.getId();
-
-        // Calculate today's patients
-        Long todayPatients = appointmentRepository.countTodayPatientsByDepartmentId(departmentId);
-
-        // Calculate monthly patients
-        YearMonth currentMonth = YearMonth.now();
-        LocalDateTime startOfMonth = currentMonth.atDay(1).atStartOfDay();
-        LocalDateTime endOfMonth = currentMonth.plusMonths(1).atDay(1).atStartOfDay();
-        Long monthlyPatients = appointmentRepository.countMonthlyPatientsByDepartmentId(
-                departmentId, startOfMonth, endOfMonth);
-
-        // Count active doctors
-        Long activeDoctors = userRepository.countActiveDoctorsByDepartmentId(departmentId);
-
-        // Calculate average wait time
-        Double avgWaitTime = calculateAverageWaitTime(departmentId);
-
-        // Calculate patient satisfaction
-        Double patientSatisfaction = calculatePatientSatisfaction(departmentId);
-
-        log.debug("Department {} metrics - Today: {}, Monthly: {}, Doctors: {}, Wait: {}min, Satisfaction: {}",
-                department.getName(), todayPatients, monthlyPatients, activeDoctors, avgWaitTime, patientSatisfaction);
-
-        return DepartmentPerformanceDto.builder()
-                .departmentId(departmentId)
-                .name(department.getName())
-                .todayPatients(todayPatients)
-                .monthlyPatients(monthlyPatients)
-                .activeDoctors(activeDoctors)
-                .avgWaitTime(avgWaitTime)
-                .patientSatisfaction(patientSatisfaction)
-                .build();
-    }
-
-    private Double calculateAverageWaitTime(Long departmentId) {
-        // Get appointments from the last 30 days that have check-in times
-        LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-        List<Appointment> appointmentsWithWaitTime = appointmentRepository
-                .findAppointmentsWithWaitTimeByDepartmentId(departmentId, thirtyDaysAgo);
-
-        if (appointmentsWithWaitTime.isEmpty()) {
-            return 0.0;
-        }
-
-        long totalWaitTimeMinutes = 0;
-        int validAppointments = 0;
-
-        for (Appointment appointment : appointmentsWithWaitTime) {
-            if (appointment.getCheckedInAt() != null && appointment.getStartTime() != null) {
-                // Calculate wait time as difference between scheduled start time and actual check-in
-                Duration waitTime = Duration.between(appointment.getStartTime(), appointment.getCheckedInAt());
-
-                // Only consider positive wait times (cases where patients were late are ignored for this metric)
-                if (!waitTime.isNegative()) {
-                    totalWaitTimeMinutes += waitTime.toMinutes();
-                    validAppointments++;
-                }
-            }
-        }
-
-        if (validAppointments == 0) {
-            return 0.0;
+    /**
+     * Wait-time percentiles per department for appointments scheduled in {@code [from, to)}, merged from the
+     * hourly sketches.
+     */
+    @Override
+    public List<WaitTimePercentilesDto> getDepartmentWaitTimes(Long hospitalId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new InvalidDataException("'from' must be before 'to'");
         }
+        log.info("Fetching department wait times for hospital ID: {} from {} to {}", hospitalId, from, to);
 
-        return (double) totalWaitTimeMinutes / validAppointments;
+        List<Department> departments = departmentRepository.findByHospitalId(hospitalId);
+        Map<Long, WaitTimeSketches.Summary> waitTimesByDepartment = waitTimeSketches.summarize(
+                departments.stream().map(Department::getId).toList(), from, to);
+
+        return departments.stream()
+                .map(department -> {
+                    WaitTimeSketches.Summary waitTimes = waitTimesByDepartment.getOrDefault(department.getId(),
+                            WaitTimeSketches.Summary.EMPTY);
+                    return WaitTimePercentilesDto.builder()
+                            .departmentId(department.getId())
+                            .name(department.getName())
+                            .sampleCount(waitTimes.count())
+                            .mean(waitTimes.mean())
+                            .p50(waitTimes.p50())
+                            .p90(waitTimes.p90())
+                            .p99(waitTimes.p99())
+                            .build();
+                })
+                .toList();
     }
 
-    private Double calculatePatientSatisfaction(Long departmentId) {
+    private Double calculatePatientSatisfaction(long completedAppointments, long totalAppointments,
+                                                Double avgWaitTime) {
         // Since there's no patient feedback/rating system yet, calculate a mock satisfaction score
         // based on appointment completion rate and average wait time as a proxy
 
-        LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-
-        Long completedAppointments = appointmentRepository
-                .countCompletedAppointmentsByDepartmentId(departmentId, thirtyDaysAgo);
-        Long totalAppointments = appointmentRepository
-                .countTotalAppointmentsByDepartmentId(departmentId, thirtyDaysAgo);
-
         if (totalAppointments == 0) {
             return 0.0;
         }
@@ -135,9 +152,6 @@ public class DepartmentPerformanceServiceImpl implements DepartmentPerformanceSe
         // Calculate completion rate (0.0 to 1.0)
         double completionRate = (double) completedAppointments / totalAppointments;
 
-        // Get average wait time for this department
-        Double avgWaitTime = calculateAverageWaitTime(departmentId);
-
         // Calculate satisfaction score (0.0 to 5.0)
         // Base score from completion rate (3.0 to 5.0 range)
         double baseScore = 3.0 + (completionRate * 2.0);
@@ -153,4 +167,8 @@ public class DepartmentPerformanceServiceImpl implements DepartmentPerformanceSe
         // Round to 1 decimal place
         return Math.round(finalScore * 10.0) / 10.0;
     }
+
+    private static long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
 }
@@ -1,5 +1,6 @@
 package com.mhms.medisynapse.service.impl;
 
+import com.mhms.medisynapse.cache.CacheNames;
 import com.mhms.medisynapse.dto.AppointmentDetailDto;
 import com.mhms.medisynapse.dto.AppointmentDetailsResponseDto;
 import com.mhms.medisynapse.dto.DoctorAppointmentDto;
@@ -20,20 +21,30 @@ import com.mhms.medisynapse.entity.Appointment;
 import com.mhms.medisynapse.entity.Patient;
 import com.mhms.medisynapse.entity.Prescription;
 import com.mhms.medisynapse.entity.User;
+import com.mhms.medisynapse.event.AppointmentChangedEvent;
 import com.mhms.medisynapse.exception.ResourceNotFoundException;
 import com.mhms.medisynapse.repository.AdmissionRepository;
 import com.mhms.medisynapse.repository.AppointmentRepository;
 import com.mhms.medisynapse.repository.PatientRepository;
 import com.mhms.medisynapse.repository.PrescriptionRepository;
 import com.mhms.medisynapse.repository.UserRepository;
+import com.mhms.medisynapse.repository.projection.DoctorAppointmentCounters;
+import com.mhms.medisynapse.repository.specification.AppointmentSpecifications;
+import com.mhms.medisynapse.repository.specification.PatientSpecifications;
+import com.mhms.medisynapse.scheduling.DoctorBookingGuard;
+import com.mhms.medisynapse.scheduling.HospitalClock;
 import com.mhms.medisynapse.service.DoctorService;
 import com.mhms.medisynapse.service.LabTestOrderService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -43,6 +54,7 @@ import java.time.Period;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -59,6 +71,10 @@ public class DoctorServiceImpl implements DoctorService {
     private final AppointmentRepository appointmentRepository;
     private final AdmissionRepository admissionRepository;
     private final LabTestOrderService labTestOrderService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DoctorBookingGuard bookingGuard;
+    private final HospitalClock hospitalClock;
+    private final CacheManager cacheManager;
 
     @Override
     public DoctorDashboardStatisticsDto getDashboardStatistics(Long doctorId) {
@@ -66,11 +82,12 @@ public class DoctorServiceImpl implements DoctorService {
 
         validateDoctor(doctorId);
 
-        Long totalPatients = appointmentRepository.countDistinctPatientsByDoctor(doctorId);
-        Long todayAppointments = appointmentRepository.countTodayAppointmentsByDoctor(doctorId);
-        Long upcomingAppointments = appointmentRepository.countUpcomingAppointmentsByDoctor(doctorId);
-        Long completedAppointments = appointmentRepository.countCompletedAppointmentsByDoctor(doctorId);
-        Long pendingAppointments = appointmentRepository.countPendingAppointmentsByDoctor(doctorId);
+        DoctorAppointmentCounters counters = getAppointmentCounters(doctorId);
+        Long totalPatients = counters.getTotalPatients();
+        Long todayAppointments = counters.getTodayAppointments();
+        Long upcomingAppointments = counters.getUpcomingAppointments();
+        Long completedAppointments = counters.getCompletedAppointments();
+        Long pendingAppointments = counters.getPendingAppointments();
 
         log.info("Dashboard stats for doctor {}: {} patients, {} today, {} upcoming",
                 doctorId, totalPatients, todayAppointments, upcomingAppointments);
@@ -90,13 +107,22 @@ public class DoctorServiceImpl implements DoctorService {
         log.info("Fetching patients for doctor ID: {} with status: {}, search: {}",
                 doctorId, status, search);
 
-        Page<Patient> patientPage;
+        Specification<Patient> spec;
         if (doctorId != null) {
             validateDoctor(doctorId);
-            patientPage = patientRepository.findPatientsByDoctor(doctorId, status, search, pageable);
+            spec = Specification.allOf(
+                    PatientSpecifications.seenByDoctor(doctorId),
+                    PatientSpecifications.isActive(),
+                    PatientSpecifications.status(status),
+                    PatientSpecifications.nameOrFieldsContain(search, "contact", "email"),
+                    PatientSpecifications.fetchAddress());
         } else {
-            patientPage = patientRepository.findAllPatientsWithFilters(status, search, pageable);
+            spec = Specification.allOf(
+                    PatientSpecifications.status(status),
+                    PatientSpecifications.nameOrFieldsContain(search, "contact", "email"),
+                    PatientSpecifications.fetchAddress());
         }
+        Page<Patient> patientPage = patientRepository.findAll(spec, pageable);
 
         List<DoctorPatientDto> patientDtos = patientPage.getContent().stream()
                 .map(patient -> mapToPatientDto(patient, doctorId))
@@ -126,8 +152,14 @@ public class DoctorServiceImpl implements DoctorService {
             endDate = date;
         }
 
-        Page<Appointment> appointmentPage = appointmentRepository.findAppointmentsByDoctorWithFilters(
-                doctorId, status, startDate, endDate, pageable);
+        Specification<Appointment> spec = Specification.allOf(
+                AppointmentSpecifications.doctorId(doctorId),
+                AppointmentSpecifications.isActive(),
+                AppointmentSpecifications.status(status),
+                AppointmentSpecifications.startingFrom(startDate != null ? hospitalClock.startOfDay(startDate) : null),
+                AppointmentSpecifications.startingBefore(endDate != null ? hospitalClock.startOfNextDay(endDate) : null),
+                AppointmentSpecifications.fetchPatientAndDepartment());
+        Page<Appointment> appointmentPage = appointmentRepository.findAll(spec, pageable);
 
         List<DoctorAppointmentDto> appointmentDtos = appointmentPage.getContent().stream()
                 .map(this::mapToAppointmentDto)
@@ -148,7 +180,8 @@ public class DoctorServiceImpl implements DoctorService {
 
         validateDoctor(doctorId);
 
-        List<Appointment> appointments = appointmentRepository.findTodayAppointmentsByDoctor(doctorId);
+        List<Appointment> appointments = appointmentRepository.findTodayAppointmentsByDoctor(
+                doctorId, hospitalClock.startOfToday(), hospitalClock.startOfTomorrow());
 
         log.info("Found {} appointments for today for doctor ID: {}", appointments.size(), doctorId);
 
@@ -168,8 +201,8 @@ public class DoctorServiceImpl implements DoctorService {
         }
 
         // Start from tomorrow
-        LocalDateTime startDate = LocalDate.now().plusDays(1).atStartOfDay();
-        LocalDateTime endDate = LocalDate.now().plusDays(days + 1).atStartOfDay();
+        LocalDateTime startDate = hospitalClock.startOfTomorrow();
+        LocalDateTime endDate = hospitalClock.startOfNextDay(hospitalClock.today().plusDays(days));
 
         List<Appointment> appointments = appointmentRepository.findUpcomingAppointmentsByDoctor(
                 doctorId, startDate, endDate);
@@ -194,6 +227,8 @@ public class DoctorServiceImpl implements DoctorService {
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Appointment not found with ID: " + appointmentId + " for doctor: " + doctorId));
 
+        bookingGuard.lockDoctorForTransaction(doctorId);
+
         // Update status
         appointment.setStatus(request.getStatus());
 
@@ -228,6 +263,7 @@ public class DoctorServiceImpl implements DoctorService {
 
         appointment.setUpdatedBy(doctorId);
         Appointment savedAppointment = appointmentRepository.save(appointment);
+        publishStatusChanged(savedAppointment);
 
         log.info("Successfully updated appointment {} to status {}", appointmentId, request.getStatus());
 
@@ -268,11 +304,12 @@ public class DoctorServiceImpl implements DoctorService {
             throw new IllegalArgumentException("Doctor with ID " + doctorId + " is not active");
         }
 
-        Long patientCount = appointmentRepository.countDistinctPatientsByDoctor(doctorId);
-        Long todayAppointments = appointmentRepository.countTodayAppointmentsByDoctor(doctorId);
-        Long upcomingAppointments = appointmentRepository.countUpcomingAppointmentsByDoctor(doctorId);
-        Long completedAppointments = appointmentRepository.countCompletedAppointmentsByDoctor(doctorId);
-        Long pendingAppointments = appointmentRepository.countPendingAppointmentsByDoctor(doctorId);
+        DoctorAppointmentCounters counters = getAppointmentCounters(doctorId);
+        Long patientCount = counters.getTotalPatients();
+        Long todayAppointments = counters.getTodayAppointments();
+        Long upcomingAppointments = counters.getUpcomingAppointments();
+        Long completedAppointments = counters.getCompletedAppointments();
+        Long pendingAppointments = counters.getPendingAppointments();
         Long totalAppointments = completedAppointments + pendingAppointments; // excludes historical cancelled/no-show
 
         return DoctorProfileResponseDto.builder()
@@ -300,6 +337,25 @@ public class DoctorServiceImpl implements DoctorService {
 
     // Helper Methods
 
+    /**
+     * The doctor's counters, cached briefly per doctor and hospital day so the "today" figures roll over at
+     * midnight; appointment changes evict the doctor's entries.
+     */
+    private DoctorAppointmentCounters getAppointmentCounters(Long doctorId) {
+        LocalDate today = hospitalClock.today();
+        Cache cache = cacheManager.getCache(CacheNames.DOCTOR_APPOINTMENT_COUNTERS);
+        if (cache == null) {
+            return loadAppointmentCounters(doctorId, today);
+        }
+        return cache.get(CacheNames.doctorAppointmentCountersKey(doctorId, today),
+                () -> loadAppointmentCounters(doctorId, today));
+    }
+
+    private DoctorAppointmentCounters loadAppointmentCounters(Long doctorId, LocalDate today) {
+        return appointmentRepository.getDoctorAppointmentCounters(
+                doctorId, hospitalClock.startOfDay(today), hospitalClock.startOfNextDay(today), hospitalClock.now());
+    }
+
     private void validateDoctor(Long doctorId) {
         User doctor = userRepository.findById(doctorId)
                 .orElseThrow(() -> new ResourceNotFoundException("Doctor not found with ID: " + doctorId));
@@ -626,6 +682,7 @@ public class DoctorServiceImpl implements DoctorService {
     }
 
     @Override
+    @Transactional
     public DoctorAppointmentDto completeAppointment(Long appointmentId, Long doctorId) {
         log.info("Marking appointment {} as completed by doctor {}", appointmentId, doctorId);
 
@@ -658,6 +715,8 @@ public class DoctorServiceImpl implements DoctorService {
         // Store old status for logging
         Appointment.AppointmentStatus oldStatus = appointment.getStatus();
 
+        bookingGuard.lockDoctorForTransaction(doctorId);
+
         // Update appointment status to COMPLETED
         appointment.setStatus(Appointment.AppointmentStatus.COMPLETED);
         appointment.setCompletedAt(java.time.LocalDateTime.now());
@@ -665,11 +724,21 @@ public class DoctorServiceImpl implements DoctorService {
 
         Appointment completedAppointment = appointmentRepository.save(appointment);
         appointmentRepository.flush(); // Force immediate persistence
+        publishStatusChanged(completedAppointment);
 
         log.info("Appointment {} status changed from {} to COMPLETED successfully",
                 appointmentId, oldStatus);
 
         return mapToAppointmentDto(completedAppointment);
     }
-}
 
+    private void publishStatusChanged(Appointment appointment) {
+        eventPublisher.publishEvent(new AppointmentChangedEvent(
+                appointment.getId(),
+                appointment.getDoctor().getId(),
+                appointment.getHospital().getId(),
+                AppointmentChangedEvent.ChangeType.STATUS_CHANGED,
+                appointment.getStatus(),
+                Set.of(appointment.getStartTime().toLocalDate())));
+    }
+}
@@ -1,11 +1,14 @@
 package com.mhms.medisynapse.service.impl;
 
+import com.mhms.medisynapse.cache.CacheNames;
 import com.mhms.medisynapse.constants.ErrorMessages;
 import com.mhms.medisynapse.dto.AddressDto;
 import com.mhms.medisynapse.dto.HospitalDto;
 import com.mhms.medisynapse.dto.HospitalStatsDto;
 import com.mhms.medisynapse.dto.PagedResponse;
 import com.mhms.medisynapse.entity.Hospital;
+import com.mhms.medisynapse.event.DashboardDataChangedEvent;
+import com.mhms.medisynapse.event.HospitalChangedEvent;
 import com.mhms.medisynapse.exception.BusinessLogicException;
 import com.mhms.medisynapse.exception.InvalidDataException;
 import com.mhms.medisynapse.exception.ResourceNotFoundException;
@@ -13,6 +16,8 @@ import com.mhms.medisynapse.repository.HospitalRepository;
 import com.mhms.medisynapse.service.HospitalService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -23,8 +28,10 @@ import org.springframework.util.StringUtils;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -37,6 +44,7 @@ public class HospitalServiceImpl implements HospitalService {
     private static final int MAX_NAME_LENGTH = 100;
     private static final int MIN_BEDS = 1;
     private final HospitalRepository hospitalRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -73,6 +81,7 @@ public class HospitalServiceImpl implements HospitalService {
 
             // Save hospital
             Hospital savedHospital = hospitalRepository.save(hospital);
+            eventPublisher.publishEvent(new HospitalChangedEvent(savedHospital.getId()));
 
             log.info("Hospital created successfully with ID: {} and name: {}",
                     savedHospital.getId(), savedHospital.getName());
@@ -106,11 +115,19 @@ public class HospitalServiceImpl implements HospitalService {
             // Check business rules for update
             validateBusinessRulesForUpdate(id, hospitalDto);
 
+            boolean bedsChanged = !Objects.equals(existingHospital.getTotalBeds(), hospitalDto.getTotalBeds())
+                    || !Objects.equals(existingHospital.getAvailableBeds(), hospitalDto.getAvailableBeds());
+
             // Update fields while preserving creation data
             updateHospitalFields(existingHospital, hospitalDto);
 
             // Save updated hospital
             Hospital updatedHospital = hospitalRepository.save(existingHospital);
+            eventPublisher.publishEvent(new HospitalChangedEvent(updatedHospital.getId()));
+            if (bedsChanged) {
+                // Bed counts feed the hospital dashboard, so its snapshot and live subscribers must hear of it
+                eventPublisher.publishEvent(new DashboardDataChangedEvent(updatedHospital.getId()));
+            }
 
             log.info("Hospital updated successfully with ID: {} - name: {}",
                     updatedHospital.getId(), updatedHospital.getName());
@@ -147,6 +164,7 @@ public class HospitalServiceImpl implements HospitalService {
 
             // Perform soft delete
             performSoftDelete(existingHospital);
+            eventPublisher.publishEvent(new HospitalChangedEvent(id));
 
             log.info("Hospital soft deleted successfully with ID: {} - name: {}",
                     id, existingHospital.getName());
@@ -312,7 +330,12 @@ public class HospitalServiceImpl implements HospitalService {
         }
     }
 
+    /**
+     * Platform-wide statistics from two aggregate queries, cached as a single snapshot that
+     * {@link com.mhms.medisynapse.cache.HospitalStatisticsCacheRefresher} rebuilds after hospital writes.
+     */
     @Override
+    @Cacheable(value = CacheNames.HOSPITAL_STATISTICS, key = "'platform'")
     public HospitalStatsDto getHospitalStatistics() {
         log.info("Calculating hospital statistics");
 
@@ -507,25 +530,35 @@ public class HospitalServiceImpl implements HospitalService {
     }
 
     private HospitalStatsDto calculateHospitalStatistics() {
-        // Basic counts
-        Long totalHospitals = hospitalRepository.countTotalHospitals();
-        Long activeHospitals = hospitalRepository.countActiveHospitals();
-        Long inactiveHospitals = hospitalRepository.countInactiveHospitals();
-
-        // Bed statistics
-        Long totalBeds = hospitalRepository.sumTotalBeds();
-        Long availableBeds = hospitalRepository.sumAvailableBeds();
-
-        // Staff statistics
-        Long totalStaff = hospitalRepository.sumTotalStaff();
-        Integer averageBedsPerHospital = hospitalRepository.averageBedsPerHospital();
-
-        // Calculate occupancy rate
-        BigDecimal occupancyRate = calculateOccupancyRate(totalBeds, availableBeds);
-
-        // Distribution data
-        Map<String, Long> statusDistribution = getStatusDistribution();
-        Map<String, Long> departmentDistribution = getDepartmentDistribution();
+        long totalHospitals = 0;
+        long activeHospitals = 0;
+        long inactiveHospitals = 0;
+        // Bed and staff figures cover active hospitals only
+        long totalBeds = 0;
+        long availableBeds = 0;
+        long totalStaff = 0;
+        long hospitalsWithBedCount = 0;
+        Map<String, Long> statusDistribution = new LinkedHashMap<>();
+
+        for (Object[] row : hospitalRepository.summarizeByStatusAndActive()) {
+            String status = (String) row[0];
+            Boolean isActive = (Boolean) row[1];
+            long hospitals = ((Number) row[2]).longValue();
+
+            totalHospitals += hospitals;
+            if (status != null) {
+                statusDistribution.merge(status, hospitals, Long::sum);
+            }
+            if (Boolean.TRUE.equals(isActive)) {
+                activeHospitals += hospitals;
+                totalBeds += ((Number) row[3]).longValue();
+                availableBeds += ((Number) row[4]).longValue();
+                totalStaff += ((Number) row[5]).longValue();
+                hospitalsWithBedCount += ((Number) row[6]).longValue();
+            } else if (Boolean.FALSE.equals(isActive)) {
+                inactiveHospitals += hospitals;
+            }
+        }
 
         return HospitalStatsDto.builder()
                 .totalHospitals(totalHospitals)
@@ -533,10 +566,10 @@ public class HospitalServiceImpl implements HospitalService {
                 .inactiveHospitals(inactiveHospitals)
                 .totalBeds(totalBeds)
                 .availableBeds(availableBeds)
-                .occupancyRate(occupancyRate)
+                .occupancyRate(calculateOccupancyRate(totalBeds, availableBeds))
                 .totalStaff(totalStaff)
-                .averageBedsPerHospital(averageBedsPerHospital)
-                .departmentDistribution(departmentDistribution)
+                .averageBedsPerHospital(hospitalsWithBedCount > 0 ? (int) (totalBeds / hospitalsWithBedCount) : 0)
+                .departmentDistribution(getDepartmentDistribution())
                 .statusDistribution(statusDistribution)
                 .build();
     }
@@ -552,20 +585,6 @@ public class HospitalServiceImpl implements HospitalService {
                 .divide(BigDecimal.valueOf(totalBeds), 1, RoundingMode.HALF_UP);
     }
 
-    private Map<String, Long> getStatusDistribution() {
-        try {
-            return hospitalRepository.getStatusDistribution()
-                    .stream()
-                    .collect(Collectors.toMap(
-                            row -> (String) row[0],
-                            row -> (Long) row[1]
-                    ));
-        } catch (Exception ex) {
-            log.warn("Error getting status distribution, returning empty map", ex);
-            return Map.of();
-        }
-    }
-
     private Map<String, Long> getDepartmentDistribution() {
         try {
             return hospitalRepository.getDepartmentDistribution()
@@ -7,6 +7,9 @@ import com.mhms.medisynapse.entity.Billing;
 import com.mhms.medisynapse.entity.Insurance;
 import com.mhms.medisynapse.entity.InsuranceClaim;
 import com.mhms.medisynapse.entity.InsuranceSettlement;
+import com.mhms.medisynapse.event.BillingLedgerChangedEvent;
+import com.mhms.medisynapse.numbering.DocumentNumberGenerator;
+import com.mhms.medisynapse.numbering.DocumentType;
 import com.mhms.medisynapse.repository.BillingRepository;
 import com.mhms.medisynapse.repository.InsuranceClaimRepository;
 import com.mhms.medisynapse.repository.InsuranceRepository;
@@ -14,6 +17,7 @@ import com.mhms.medisynapse.repository.InsuranceSettlementRepository;
 import com.mhms.medisynapse.service.InsuranceClaimService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -23,6 +27,8 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -34,6 +40,8 @@ public class InsuranceClaimServiceImpl implements InsuranceClaimService {
     private final InsuranceSettlementRepository insuranceSettlementRepository;
     private final BillingRepository billingRepository;
     private final InsuranceRepository insuranceRepository;
+    private final DocumentNumberGenerator documentNumberGenerator;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -71,6 +79,7 @@ public class InsuranceClaimServiceImpl implements InsuranceClaimService {
         InsuranceClaim claim = new InsuranceClaim();
         claim.setBilling(billing);
         claim.setPolicy(policy);
+        claim.setClaimNumber(documentNumberGenerator.next(DocumentType.CLAIM, billing.getHospital().getId()));
         claim.setClaimAmount(request.getClaimAmount());
         claim.setStatus(InsuranceClaim.ClaimStatus.SUBMITTED);
         claim.setCreatedBy(createdBy);
@@ -96,6 +105,7 @@ public class InsuranceClaimServiceImpl implements InsuranceClaimService {
 
         return InsuranceClaimResponseDto.builder()
                 .id(claim.getId())
+                .claimNumber(claim.getClaimNumber())
                 .billingId(claim.getBilling().getId())
                 .policyId(claim.getPolicy().getId())
                 .policyNumber(claim.getPolicy().getPolicyNumber())
@@ -166,6 +176,8 @@ public class InsuranceClaimServiceImpl implements InsuranceClaimService {
 
         billing.setUpdatedBy(createdBy);
         billingRepository.save(billing);
+        eventPublisher.publishEvent(new BillingLedgerChangedEvent(billing.getHospital().getId(),
+                Stream.of(billing.getBillDate(), settlement.getSettlementDate().toLocalDate()).collect(Collectors.toSet())));
 
         log.info("Settlement created with ID: {}", settlement.getId());
         return settlement;
@@ -25,7 +25,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -179,6 +181,20 @@ public class LabTestOrderServiceImpl implements LabTestOrderService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public Map<String, Long> countLabOrdersByHospitalAndStatus(Long hospitalId) {
+        log.info("Counting lab orders by status for hospital: {}", hospitalId);
+
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (LabTestStatus status : LabTestStatus.values()) {
+            counts.put(status.name(), 0L);
+        }
+        for (Object[] row : labTestOrderRepository.countByHospitalGroupedByStatus(hospitalId)) {
+            counts.put(((LabTestStatus) row[0]).name(), (Long) row[1]);
+        }
+        return counts;
+    }
+
     // Helper method to map entity to response
     private LabTestOrderResponse mapToResponse(LabTestOrder order) {
         return LabTestOrderResponse.builder()
@@ -0,0 +1,321 @@
+package com.mhms.medisynapse.service.impl;
+
+import com.mhms.medisynapse.dto.PatientHistoryResponseDTO;
+import com.mhms.medisynapse.entity.Admission;
+import com.mhms.medisynapse.entity.Appointment;
+import com.mhms.medisynapse.entity.Attachment;
+import com.mhms.medisynapse.entity.Billing;
+import com.mhms.medisynapse.entity.Department;
+import com.mhms.medisynapse.entity.Ehr;
+import com.mhms.medisynapse.entity.Hospital;
+import com.mhms.medisynapse.entity.Patient;
+import com.mhms.medisynapse.entity.PatientInsurance;
+import com.mhms.medisynapse.entity.Prescription;
+import com.mhms.medisynapse.entity.User;
+import com.mhms.medisynapse.repository.AdmissionRepository;
+import com.mhms.medisynapse.repository.AppointmentRepository;
+import com.mhms.medisynapse.repository.BillingRepository;
+import com.mhms.medisynapse.repository.EhrRepository;
+import com.mhms.medisynapse.repository.PatientHospitalRepository;
+import com.mhms.medisynapse.repository.PatientInsuranceRepository;
+import com.mhms.medisynapse.repository.PatientRepository;
+import com.mhms.medisynapse.repository.PrescriptionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Builds a patient's full history from patient-scoped, fetch-joined queries.
+ * Each independent section is loaded concurrently in its own read-only transaction whose timeout bounds the
+ * section's queries; a section that fails or times out is returned empty and reported in
+ * {@code unavailableSections}.
+ */
+@Component
+@Slf4j
+public class PatientHistoryAssembler {
+
+    private static final String SECTION_APPOINTMENTS = "appointments";
+    private static final String SECTION_ADMISSIONS = "admissions";
+    private static final String SECTION_EHRS = "ehrs";
+    private static final String SECTION_PRESCRIPTIONS = "prescriptions";
+    private static final String SECTION_INSURANCES = "insurances";
+    private static final String SECTION_BILLINGS = "billings";
+    private static final String SECTION_HOSPITALS = "hospitals";
+
+    private final PatientRepository patientRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final AdmissionRepository admissionRepository;
+    private final EhrRepository ehrRepository;
+    private final PrescriptionRepository prescriptionRepository;
+    private final PatientInsuranceRepository patientInsuranceRepository;
+    private final BillingRepository billingRepository;
+    private final PatientHospitalRepository patientHospitalRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate sectionTransaction;
+    private final Executor executor;
+
+    public PatientHistoryAssembler(PatientRepository patientRepository,
+                                   AppointmentRepository appointmentRepository,
+                                   AdmissionRepository admissionRepository,
+                                   EhrRepository ehrRepository,
+                                   PrescriptionRepository prescriptionRepository,
+                                   PatientInsuranceRepository patientInsuranceRepository,
+                                   BillingRepository billingRepository,
+                                   PatientHospitalRepository patientHospitalRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Qualifier("patientHistoryExecutor") Executor executor,
+                                   @Value("${patient-history.section-timeout-ms:3000}") long sectionTimeoutMs) {
+        this.patientRepository = patientRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.admissionRepository = admissionRepository;
+        this.ehrRepository = ehrRepository;
+        this.prescriptionRepository = prescriptionRepository;
+        this.patientInsuranceRepository = patientInsuranceRepository;
+        this.billingRepository = billingRepository;
+        this.patientHospitalRepository = patientHospitalRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // The transaction timeout becomes the query timeout of every query in the section, so a slow section is
+        // cancelled in the database and releases its connection instead of running on after the view gave up on it
+        this.sectionTransaction = new TransactionTemplate(transactionManager);
+        this.sectionTransaction.setReadOnly(true);
+        this.sectionTransaction.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(sectionTimeoutMs + 999)));
+        this.executor = executor;
+    }
+
+    public PatientHistoryResponseDTO assemble(Long patientId) {
+        PatientHistoryResponseDTO dto = new PatientHistoryResponseDTO();
+
+        PatientHistoryResponseDTO.PatientInfoDTO patientInfo = readOnlyTransaction.execute(status ->
+                patientRepository.findByIdWithAddress(patientId).map(this::toPatientInfo).orElse(null));
+        if (patientInfo == null) {
+            return dto;
+        }
+        dto.setPatientInfo(patientInfo);
+
+        CompletableFuture<List<PatientHistoryResponseDTO.AppointmentDTO>> appointments = loadSection(
+                () -> appointmentRepository.findPatientHistoryAppointments(patientId).stream().map(this::toAppointmentDto).toList());
+        CompletableFuture<List<PatientHistoryResponseDTO.AdmissionDTO>> admissions = loadSection(
+                () -> admissionRepository.findPatientHistoryAdmissions(patientId).stream().map(this::toAdmissionDto).toList());
+        CompletableFuture<List<PatientHistoryResponseDTO.EhrDTO>> ehrs = loadSection(
+                () -> ehrRepository.findPatientHistoryEhrsWithAttachments(patientId).stream().map(this::toEhrDto).toList());
+        CompletableFuture<List<PatientHistoryResponseDTO.PrescriptionDTO>> prescriptions = loadSection(
+                () -> prescriptionRepository.findPatientHistoryPrescriptions(patientId).stream().map(this::toPrescriptionDto).toList());
+        CompletableFuture<List<PatientHistoryResponseDTO.InsuranceDTO>> insurances = loadSection(
+                () -> patientInsuranceRepository.findByPatientIdWithInsurance(patientId).stream().map(this::toInsuranceDto).toList());
+        CompletableFuture<List<PatientHistoryResponseDTO.BillingDTO>> billings = loadSection(
+                () -> billingRepository.findPatientHistoryBillings(patientId).stream().map(this::toBillingDto).toList());
+        CompletableFuture<List<PatientHistoryResponseDTO.HospitalDTO>> hospitals = loadSection(
+                () -> patientHospitalRepository.findByPatientIdWithHospital(patientId).stream().map(ph -> toHospitalDto(ph.getHospital())).toList());
+
+        List<String> unavailableSections = new ArrayList<>();
+        dto.setAppointments(resolve(SECTION_APPOINTMENTS, appointments, unavailableSections, patientId));
+        dto.setAdmissions(resolve(SECTION_ADMISSIONS, admissions, unavailableSections, patientId));
+        dto.setEhrs(resolve(SECTION_EHRS, ehrs, unavailableSections, patientId));
+        dto.setPrescriptions(resolve(SECTION_PRESCRIPTIONS, prescriptions, unavailableSections, patientId));
+        dto.setInsurances(resolve(SECTION_INSURANCES, insurances, unavailableSections, patientId));
+        dto.setBillings(resolve(SECTION_BILLINGS, billings, unavailableSections, patientId));
+        dto.setHospitals(resolve(SECTION_HOSPITALS, hospitals, unavailableSections, patientId));
+
+        // Attachments come with the EHR query, so no per-EHR lookup is needed
+        dto.setAttachments(dto.getEhrs().stream()
+                .flatMap(ehr -> ehr.getAttachments().stream())
+                .toList());
+
+        // LabResults: Not directly available, set as empty for now
+        dto.setLabResults(Collections.emptyList());
+
+        dto.setPartial(!unavailableSections.isEmpty());
+        dto.setUnavailableSections(unavailableSections);
+        return dto;
+    }
+
+    private <T> CompletableFuture<List<T>> loadSection(Supplier<List<T>> loader) {
+        return CompletableFuture.supplyAsync(() -> sectionTransaction.execute(status -> loader.get()), executor);
+    }
+
+    private <T> List<T> resolve(String section, CompletableFuture<List<T>> future,
+                                List<String> unavailableSections, Long patientId) {
+        try {
+            List<T> result = future.join();
+            return result != null ? result : Collections.emptyList();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof QueryTimeoutException || e.getCause() instanceof TransactionTimedOutException) {
+                log.warn("Patient history section '{}' timed out after {} s for patient ID: {}",
+                        section, sectionTransaction.getTimeout(), patientId);
+            } else {
+                log.error("Failed to load patient history section '{}' for patient ID: {}",
+                        section, patientId, e.getCause());
+            }
+            unavailableSections.add(section);
+            return Collections.emptyList();
+        }
+    }
+
+    private PatientHistoryResponseDTO.PatientInfoDTO toPatientInfo(Patient patient) {
+        PatientHistoryResponseDTO.PatientInfoDTO patientInfo = new PatientHistoryResponseDTO.PatientInfoDTO();
+        patientInfo.setId(patient.getId());
+        patientInfo.setFirstName(patient.getFirstName());
+        patientInfo.setLastName(patient.getLastName());
+        patientInfo.setDob(patient.getDob());
+        patientInfo.setGender(patient.getGender() != null ? patient.getGender().toString() : null);
+        patientInfo.setContact(patient.getContact());
+        patientInfo.setEmail(patient.getEmail());
+        patientInfo.setBloodGroup(patient.getBloodGroup());
+        patientInfo.setStatus(patient.getStatus() != null ? patient.getStatus().toString() : null);
+        patientInfo.setCreatedDt(patient.getCreatedDt());
+        patientInfo.setLastUpdatedDt(patient.getLastUpdatedDt());
+        // Address
+        if (patient.getAddress() != null) {
+            PatientHistoryResponseDTO.AddressDTO addressDTO = new PatientHistoryResponseDTO.AddressDTO();
+            addressDTO.setLine1(patient.getAddress().getLine1());
+            addressDTO.setLine2(patient.getAddress().getLine2());
+            addressDTO.setCity(patient.getAddress().getCity());
+            addressDTO.setState(patient.getAddress().getState());
+            addressDTO.setPostalCode(patient.getAddress().getPostalCode());
+            addressDTO.setCountry(patient.getAddress().getCountry());
+            addressDTO.setType(patient.getAddress().getType() != null ? patient.getAddress().getType().toString() : null);
+            patientInfo.setAddress(addressDTO);
+        }
+        // Emergency contacts
+        PatientHistoryResponseDTO.EmergencyContactDTO ec = new PatientHistoryResponseDTO.EmergencyContactDTO();
+        ec.setName(patient.getEmergencyContactName());
+        ec.setRelation(patient.getEmergencyContactRelation());
+        ec.setPhone(patient.getEmergencyContactPhone());
+        patientInfo.setEmergencyContacts(
+                (ec.getName() != null || ec.getPhone() != null) ? Collections.singletonList(ec) : Collections.emptyList()
+        );
+        return patientInfo;
+    }
+
+    private PatientHistoryResponseDTO.AppointmentDTO toAppointmentDto(Appointment a) {
+        PatientHistoryResponseDTO.AppointmentDTO adto = new PatientHistoryResponseDTO.AppointmentDTO();
+        adto.setId(a.getId());
+        adto.setDateTime(a.getStartTime()); // Use startTime as the appointment date/time
+        adto.setDoctor(toDoctorDto(a.getDoctor()));
+        adto.setDepartment(toDepartmentDto(a.getDepartment()));
+        adto.setStatus(a.getStatus() != null ? a.getStatus().toString() : null);
+        adto.setType(a.getAppointmentType() != null ? a.getAppointmentType().toString() : null);
+        adto.setReason(a.getReason());
+        return adto;
+    }
+
+    private PatientHistoryResponseDTO.AdmissionDTO toAdmissionDto(Admission ad) {
+        PatientHistoryResponseDTO.AdmissionDTO adto = new PatientHistoryResponseDTO.AdmissionDTO();
+        adto.setId(ad.getId());
+        adto.setAdmissionDate(ad.getAdmissionDate());
+        adto.setDischargeDate(ad.getDischargeDt());
+        adto.setHospital(toHospitalDto(ad.getHospital()));
+        adto.setDepartment(toDepartmentDto(ad.getDepartment()));
+        adto.setAdmittingDoctor(toDoctorDto(ad.getAdmittingDoctor()));
+        adto.setStatus(ad.getStatus() != null ? ad.getStatus().toString() : null);
+        adto.setReason(ad.getNotes()); // Use notes as the reason for admission
+        return adto;
+    }
+
+    private PatientHistoryResponseDTO.EhrDTO toEhrDto(Ehr e) {
+        PatientHistoryResponseDTO.EhrDTO edto = new PatientHistoryResponseDTO.EhrDTO();
+        edto.setId(e.getId());
+        edto.setVisitDate(e.getVisitDate());
+        edto.setDoctor(toDoctorDto(e.getDoctor()));
+        edto.setDepartment(toDepartmentDto(e.getDepartment()));
+        edto.setDiagnosis(e.getDiagnosis());
+        edto.setCreatedDt(e.getCreatedDt());
+        edto.setLastUpdatedDt(e.getLastUpdatedDt());
+        edto.setAttachments(e.getAttachments() != null
+                ? e.getAttachments().stream()
+                    .sorted(Comparator.comparing(Attachment::getId))
+                    .map(this::toAttachmentDto)
+                    .toList()
+                : Collections.emptyList());
+        return edto;
+    }
+
+    private PatientHistoryResponseDTO.AttachmentDTO toAttachmentDto(Attachment a) {
+        PatientHistoryResponseDTO.AttachmentDTO adto = new PatientHistoryResponseDTO.AttachmentDTO();
+        adto.setId(a.getId());
+        adto.setType(a.getType() != null ? a.getType().toString() : null);
+        adto.setUrl(a.getFilePath());
+        adto.setDate(a.getCreatedDt());
+        adto.setDescription(null); // No description field in entity
+        return adto;
+    }
+
+    private PatientHistoryResponseDTO.PrescriptionDTO toPrescriptionDto(Prescription p) {
+        PatientHistoryResponseDTO.PrescriptionDTO pdto = new PatientHistoryResponseDTO.PrescriptionDTO();
+        pdto.setId(p.getId());
+        pdto.setStatus(p.getStatus() != null ? p.getStatus().toString() : null);
+        pdto.setCreatedDt(p.getCreatedDt());
+        pdto.setDoctor(toDoctorDto(p.getDoctor()));
+        pdto.setHospital(toHospitalDto(p.getHospital()));
+        return pdto;
+    }
+
+    private PatientHistoryResponseDTO.InsuranceDTO toInsuranceDto(PatientInsurance pi) {
+        PatientHistoryResponseDTO.InsuranceDTO idto = new PatientHistoryResponseDTO.InsuranceDTO();
+        idto.setId(pi.getInsurance().getId());
+        idto.setProvider(pi.getInsurance().getProvider());
+        idto.setPolicyNumber(pi.getInsurance().getPolicyNumber());
+        idto.setStatus(null); // No status field in entity
+        idto.setStartDate(pi.getInsurance().getValidFrom());
+        idto.setEndDate(pi.getInsurance().getValidTo());
+        return idto;
+    }
+
+    private PatientHistoryResponseDTO.BillingDTO toBillingDto(Billing b) {
+        PatientHistoryResponseDTO.BillingDTO bdto = new PatientHistoryResponseDTO.BillingDTO();
+        bdto.setId(b.getId());
+        bdto.setType(b.getPaymentMethod() != null ? b.getPaymentMethod().toString() : null);
+        bdto.setAmount(b.getTotalAmount() != null ? b.getTotalAmount().doubleValue() : null);
+        bdto.setStatus(b.getStatus() != null ? b.getStatus().toString() : null);
+        bdto.setDate(b.getCreatedDt());
+        return bdto;
+    }
+
+    private PatientHistoryResponseDTO.HospitalDTO toHospitalDto(Hospital hospital) {
+        if (hospital == null) {
+            return null;
+        }
+        PatientHistoryResponseDTO.HospitalDTO h = new PatientHistoryResponseDTO.HospitalDTO();
+        h.setId(hospital.getId());
+        h.setName(hospital.getName());
+        h.setAddress(null); // No address mapping for now
+        return h;
+    }
+
+    private PatientHistoryResponseDTO.DepartmentDTO toDepartmentDto(Department department) {
+        if (department == null) {
+            return null;
+        }
+        PatientHistoryResponseDTO.DepartmentDTO dep = new PatientHistoryResponseDTO.DepartmentDTO();
+        dep.setId(department.getId());
+        dep.setName(department.getName());
+        return dep;
+    }
+
+    private PatientHistoryResponseDTO.DoctorDTO toDoctorDto(User doctor) {
+        if (doctor == null) {
+            return null;
+        }
+        PatientHistoryResponseDTO.DoctorDTO d = new PatientHistoryResponseDTO.DoctorDTO();
+        d.setId(doctor.getId());
+        d.setName(doctor.getName());
+        d.setSpecialization(null); // Specialization not available in User entity
+        return d;
+    }
+}
@@ -10,30 +10,40 @@ import com.mhms.medisynapse.dto.PatientPagedResponseDto;
 import com.mhms.medisynapse.dto.UpdatePatientRequestDto;
 import com.mhms.medisynapse.dto.UpdatePatientResponseDto;
 import com.mhms.medisynapse.entity.Address;
+import com.mhms.medisynapse.entity.Admission;
 import com.mhms.medisynapse.entity.Hospital;
 import com.mhms.medisynapse.entity.Patient;
 import com.mhms.medisynapse.entity.PatientHospital;
 import com.mhms.medisynapse.entity.PatientHospital.PatientHospitalStatus;
-import com.mhms.medisynapse.entity.Prescription;
+import com.mhms.medisynapse.event.DashboardDataChangedEvent;
+import com.mhms.medisynapse.pagination.KeysetCursor;
 import com.mhms.medisynapse.repository.AddressRepository;
 import com.mhms.medisynapse.repository.AdmissionRepository;
 import com.mhms.medisynapse.repository.AppointmentRepository;
-import com.mhms.medisynapse.repository.EhrRepository;
 import com.mhms.medisynapse.repository.HospitalRepository;
 import com.mhms.medisynapse.repository.PatientHospitalRepository;
 import com.mhms.medisynapse.repository.PatientRepository;
-import com.mhms.medisynapse.repository.PrescriptionRepository;
+import com.mhms.medisynapse.repository.specification.PatientSpecifications;
 import com.mhms.medisynapse.service.PatientService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.Period;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -48,8 +58,8 @@ public class PatientServiceImpl implements PatientService {
     private final AppointmentRepository appointmentRepository;
     private final AddressRepository addressRepository;
     private final PatientHospitalRepository patientHospitalRepository;
-    private final EhrRepository ehrRepository;
-    private final PrescriptionRepository prescriptionRepository;
+    private final PatientHistoryAssembler patientHistoryAssembler;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public PatientPagedResponseDto getPatientsByHospitalId(Long hospitalId,
@@ -58,11 +68,8 @@ public class PatientServiceImpl implements PatientService {
                                                            Pageable pageable) {
         log.info("Fetching patients for hospital ID: {}, status: {}, search: {}", hospitalId, status, search);
 
-        Page<Patient> patientPage = patientRepository.findPatientsByHospitalId(hospitalId, status, search, pageable);
-
-        List<PatientListDto> patientDtos = patientPage.getContent().stream()
-                .map(this::convertToPatientListDto)
-                .collect(Collectors.toList());
+        Page<Patient> patientPage = patientRepository.findAll(hospitalPatientsSpec(hospitalId, status, search), pageable);
+        List<PatientListDto> patientDtos = toPatientListDtos(patientPage.getContent(), hospitalId);
 
         PaginationDto pagination = PaginationDto.builder()
                 .currentPage(patientPage.getNumber())
@@ -79,8 +86,106 @@ public class PatientServiceImpl implements PatientService {
                 .build();
     }
 
+    @Override
+    public PatientPagedResponseDto scrollPatientsByHospitalId(Long hospitalId,
+                                                              Patient.PatientStatus status,
+                                                              String search,
+                                                              String cursor,
+                                                              int size) {
+        log.info("Scrolling patients for hospital ID: {}, status: {}, search: {}", hospitalId, status, search);
+
+        Sort sort = Sort.by(Sort.Direction.DESC, "createdDt", "id");
+        Window<Patient> window = patientRepository.findBy(hospitalPatientsSpec(hospitalId, status, search),
+                query -> query.sortBy(sort).limit(size).scroll(KeysetCursor.toScrollPosition(cursor, "createdDt")));
+        List<PatientListDto> patientDtos = toPatientListDtos(window.getContent(), hospitalId);
+
+        PaginationDto pagination = PaginationDto.builder()
+                .size(window.size())
+                .hasNext(window.hasNext())
+                .nextCursor(KeysetCursor.nextCursor(window, "createdDt"))
+                .build();
+
+        return PatientPagedResponseDto.builder()
+                .patients(patientDtos)
+                .pagination(pagination)
+                .build();
+    }
+
+    private Specification<Patient> hospitalPatientsSpec(Long hospitalId, Patient.PatientStatus status, String search) {
+        return Specification.allOf(
+                PatientSpecifications.registeredWithHospital(hospitalId),
+                PatientSpecifications.isActive(),
+                PatientSpecifications.status(status),
+                PatientSpecifications.nameOrFieldsContain(search, "contact", "nationalId"));
+    }
+
+    private List<PatientListDto> toPatientListDtos(List<Patient> patients, Long hospitalId) {
+        // Load hospital links for just this page; fetching the collection in the paged query would paginate in memory
+        List<Long> patientIds = patients.stream().map(Patient::getId).toList();
+        List<Patient> pageWithLinks;
+        if (patientIds.isEmpty()) {
+            pageWithLinks = List.of();
+        } else if (hospitalId != null) {
+            pageWithLinks = patientRepository.findByIdsWithHospitalLinks(patientIds, hospitalId);
+        } else {
+            pageWithLinks = patientRepository.findByIdsWithAllHospitalLinks(patientIds);
+        }
+        Map<Long, Patient> withLinks = pageWithLinks.stream()
+                .collect(Collectors.toMap(Patient::getId, Function.identity()));
+
+        return patientIds.stream()
+                .map(withLinks::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.collectingAndThen(Collectors.toList(), this::convertToPatientListDtos));
+    }
+
     @Override
     public PatientListDto convertToPatientListDto(Patient patient) {
+        return convertToPatientListDtos(List.of(patient)).get(0);
+    }
+
+    @Override
+    public List<PatientListDto> convertToPatientListDtos(List<Patient> patients) {
+        if (patients.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Admission> currentAdmissions = findCurrentAdmissions(patients);
+        return patients.stream()
+                .map(patient -> toPatientListDto(patient, currentAdmissions.get(patient.getId())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Current admissions for a page of patients in one query, keyed by patient id. As before, only an admission
+     * in the hospital of the patient's first hospital link counts; the most recent one wins.
+     */
+    private Map<Long, Admission> findCurrentAdmissions(List<Patient> patients) {
+        Map<Long, Long> hospitalByPatient = new HashMap<>();
+        for (Patient patient : patients) {
+            Long hospitalId = firstLinkedHospitalId(patient);
+            if (hospitalId != null) {
+                hospitalByPatient.put(patient.getId(), hospitalId);
+            }
+        }
+        if (hospitalByPatient.isEmpty()) {
+            return Map.of();
+        }
+        return admissionRepository.findCurrentAdmissionsByPatientIds(hospitalByPatient.keySet()).stream()
+                .filter(admission -> admission.getHospital() != null && Objects.equals(
+                        admission.getHospital().getId(), hospitalByPatient.get(admission.getPatient().getId())))
+                .collect(Collectors.toMap(admission -> admission.getPatient().getId(), Function.identity(),
+                        (mostRecent, older) -> mostRecent));
+    }
+
+    private Long firstLinkedHospitalId(Patient patient) {
+        if (patient.getPatientHospitals() == null || patient.getPatientHospitals().isEmpty()) {
+            return null;
+        }
+        PatientHospital link = patient.getPatientHospitals().iterator().next();
+        return link.getHospital() != null ? link.getHospital().getId() : null;
+    }
+
+    private PatientListDto toPatientListDto(Patient patient, Admission currentAdmission) {
         // Calculate age from date of birth
         Integer age = null;
         if (patient.getDob() != null) {
@@ -90,31 +195,12 @@ public class PatientServiceImpl implements PatientService {
         String admissionStatus = "Outpatient";
         Long assignedDoctorId = null;
         String assignedDoctorName = null;
-        java.util.List<com.mhms.medisynapse.entity.PatientHospital> patientHospitals = new java.util.ArrayList<>();
-        if (patient.getPatientHospitals() != null) {
-            patientHospitals.addAll(patient.getPatientHospitals());
-        }
-        Long hospitalId = null;
-        if (!patientHospitals.isEmpty() && patientHospitals.get(0).getHospital() != null) {
-            hospitalId = patientHospitals.get(0).getHospital().getId();
-        }
-        java.util.List<com.mhms.medisynapse.entity.Admission> admissions = new java.util.ArrayList<>();
-        if (hospitalId != null) {
-            admissions.addAll(admissionRepository.findRecentAdmissionsByHospitalId(
-                    hospitalId,
-                    java.time.LocalDateTime.now().minusDays(30)
-            ));
-        }
-        for (com.mhms.medisynapse.entity.Admission admission : admissions) {
-            if (admission.getPatient() != null && admission.getPatient().getId().equals(patient.getId()) &&
-                    "ADMITTED".equals(admission.getStatus().toString())) {
-                roomNumber = admission.getBedNo();
-                admissionStatus = "Admitted";
-                if (admission.getAdmittingDoctor() != null) {
-                    assignedDoctorId = admission.getAdmittingDoctor().getId();
-                    assignedDoctorName = admission.getAdmittingDoctor().getName();
-                }
-                break;
+        if (currentAdmission != null) {
+            roomNumber = currentAdmission.getBedNo();
+            admissionStatus = "Admitted";
+            if (currentAdmission.getAdmittingDoctor() != null) {
+                assignedDoctorId = currentAdmission.getAdmittingDoctor().getId();
+                assignedDoctorName = currentAdmission.getAdmittingDoctor().getName();
             }
         }
         com.mhms.medisynapse.dto.EmergencyContactDto emergencyContact = com.mhms.medisynapse.dto.EmergencyContactDto.builder()
@@ -237,6 +323,7 @@ public class PatientServiceImpl implements PatientService {
         patientHospital.setIsActive(true);
         // Persist PatientHospital association
         patientHospitalRepository.save(patientHospital);
+        eventPublisher.publishEvent(new DashboardDataChangedEvent(hospital.getId()));
 
         // Calculate age for response
         Integer age = null;
@@ -392,6 +479,7 @@ public class PatientServiceImpl implements PatientService {
         // existingPatient.setUpdatedBy(getCurrentUserId());
 
         patientRepository.save(existingPatient);
+        eventPublisher.publishEvent(new DashboardDataChangedEvent(hospitalId));
 
         log.info("Patient ID: {} soft deleted successfully", patientId);
     }
@@ -476,215 +564,9 @@ public class PatientServiceImpl implements PatientService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public PatientHistoryResponseDTO getPatientFullHistory(Long patientId) {
-        PatientHistoryResponseDTO dto = new PatientHistoryResponseDTO();
-
-        // Fetch patient
-        Patient patient = patientRepository.findById(patientId).orElse(null);
-        if (patient == null) {
-            return dto;
-        }
-
-        // Map patient info
-        PatientHistoryResponseDTO.PatientInfoDTO patientInfo = new PatientHistoryResponseDTO.PatientInfoDTO();
-        patientInfo.setId(patient.getId());
-        patientInfo.setFirstName(patient.getFirstName());
-        patientInfo.setLastName(patient.getLastName());
-        patientInfo.setDob(patient.getDob());
-        patientInfo.setGender(patient.getGender() != null ? patient.getGender().toString() : null);
-        patientInfo.setContact(patient.getContact());
-        patientInfo.setEmail(patient.getEmail());
-        patientInfo.setBloodGroup(patient.getBloodGroup());
-        patientInfo.setStatus(patient.getStatus() != null ? patient.getStatus().toString() : null);
-        patientInfo.setCreatedDt(patient.getCreatedDt());
-        patientInfo.setLastUpdatedDt(patient.getLastUpdatedDt());
-        // Address
-        if (patient.getAddress() != null) {
-            PatientHistoryResponseDTO.AddressDTO addressDTO = new PatientHistoryResponseDTO.AddressDTO();
-            addressDTO.setLine1(patient.getAddress().getLine1());
-            addressDTO.setLine2(patient.getAddress().getLine2());
-            addressDTO.setCity(patient.getAddress().getCity());
-            addressDTO.setState(patient.getAddress().getState());
-            addressDTO.setPostalCode(patient.getAddress().getPostalCode());
-            addressDTO.setCountry(patient.getAddress().getCountry());
-            addressDTO.setType(patient.getAddress().getType() != null ? patient.getAddress().getType().toString() : null);
-            patientInfo.setAddress(addressDTO);
-        }
-        // Emergency contacts
-        PatientHistoryResponseDTO.EmergencyContactDTO ec = new PatientHistoryResponseDTO.EmergencyContactDTO();
-        ec.setName(patient.getEmergencyContactName());
-        ec.setRelation(patient.getEmergencyContactRelation());
-        ec.setPhone(patient.getEmergencyContactPhone());
-        patientInfo.setEmergencyContacts(
-                (ec.getName() != null || ec.getPhone() != null) ? java.util.Collections.singletonList(ec) : java.util.Collections.emptyList()
-        );
-        dto.setPatientInfo(patientInfo);
-
-        // Appointments
-        dto.setAppointments(appointmentRepository.findAll().stream()
-                .filter(a -> a.getPatient() != null && a.getPatient().getId().equals(patientId))
-                .map(a -> {
-                    PatientHistoryResponseDTO.AppointmentDTO adto = new PatientHistoryResponseDTO.AppointmentDTO();
-                    adto.setId(a.getId());
-                    adto.setDateTime(a.getStartTime()); // Use startTime as the appointment date/time
-                    if (a.getDoctor() != null) {
-                        PatientHistoryResponseDTO.DoctorDTO d = new PatientHistoryResponseDTO.DoctorDTO();
-                        d.setId(a.getDoctor().getId());
-                        d.setName(a.getDoctor().getName());
-                        // Specialization not available in User entity; set as null or fetch from related entity if needed
-                        d.setSpecialization(null);
-                        adto.setDoctor(d);
-                    }
-                    if (a.getDepartment() != null) {
-                        PatientHistoryResponseDTO.DepartmentDTO dep = new PatientHistoryResponseDTO.DepartmentDTO();
-                        dep.setId(a.getDepartment().getId());
-                        dep.setName(a.getDepartment().getName());
-                        adto.setDepartment(dep);
-                    }
-                    adto.setStatus(a.getStatus() != null ? a.getStatus().toString() : null);
-                    adto.setType(a.getAppointmentType() != null ? a.getAppointmentType().toString() : null);
-                    adto.setReason(a.getReason());
-                    return adto;
-                }).toList());
-
-        // Admissions
-        dto.setAdmissions(admissionRepository.findAll().stream()
-                .filter(ad -> ad.getPatient() != null && ad.getPatient().getId().equals(patientId))
-                .map(ad -> {
-                    PatientHistoryResponseDTO.AdmissionDTO adto = new PatientHistoryResponseDTO.AdmissionDTO();
-                    adto.setId(ad.getId());
-                    adto.setAdmissionDate(ad.getAdmissionDate());
-                    adto.setDischargeDate(ad.getDischargeDt()); // Use correct field name
-                    if (ad.getHospital() != null) {
-                        PatientHistoryResponseDTO.HospitalDTO h = new PatientHistoryResponseDTO.HospitalDTO();
-                        h.setId(ad.getHospital().getId());
-                        h.setName(ad.getHospital().getName());
-                        adto.setHospital(h);
-                    }
-                    if (ad.getDepartment() != null) {
-                        PatientHistoryResponseDTO.DepartmentDTO dep = new PatientHistoryResponseDTO.DepartmentDTO();
-                        dep.setId(ad.getDepartment().getId());
-                        dep.setName(ad.getDepartment().getName());
-                        adto.setDepartment(dep);
-                    }
-                    if (ad.getAdmittingDoctor() != null) {
-                        PatientHistoryResponseDTO.DoctorDTO d = new PatientHistoryResponseDTO.DoctorDTO();
-                        d.setId(ad.getAdmittingDoctor().getId());
-                        d.setName(ad.getAdmittingDoctor().getName());
-                        d.setSpecialization(null); // Specialization not available
-                        adto.setAdmittingDoctor(d);
-                    }
-                    adto.setStatus(ad.getStatus() != null ? ad.getStatus().toString() : null);
-                    adto.setReason(ad.getNotes()); // Use notes as the reason for admission
-                    return adto;
-                }).toList());
-
-        // EHRs
-        dto.setEhrs(ehrRepository.findAllByPatientId(patientId).stream().map(e -> {
-            PatientHistoryResponseDTO.EhrDTO edto = new PatientHistoryResponseDTO.EhrDTO();
-            edto.setId(e.getId());
-            edto.setVisitDate(e.getVisitDate());
-            if (e.getDoctor() != null) {
-                PatientHistoryResponseDTO.DoctorDTO d = new PatientHistoryResponseDTO.DoctorDTO();
-                d.setId(e.getDoctor().getId());
-                d.setName(e.getDoctor().getName());
-                d.setSpecialization(null); // Specialization not available
-                edto.setDoctor(d);
-            }
-            if (e.getDepartment() != null) {
-                PatientHistoryResponseDTO.DepartmentDTO dep = new PatientHistoryResponseDTO.DepartmentDTO();
-                dep.setId(e.getDepartment().getId());
-                dep.setName(e.getDepartment().getName());
-                edto.setDepartment(dep);
-            }
-            edto.setDiagnosis(e.getDiagnosis());
-            edto.setCreatedDt(e.getCreatedDt());
-            edto.setLastUpdatedDt(e.getLastUpdatedDt());
-            // TODO: Map prescriptions and attachments if needed
-            return edto;
-        }).toList());
-
-        // Map prescriptions
-        List<Prescription> prescriptions = prescriptionRepository.findByPatientAndHospital(patientId, null);
-        dto.setPrescriptions(prescriptions.stream().map(p -> {
-            PatientHistoryResponseDTO.PrescriptionDTO pdto = new PatientHistoryResponseDTO.PrescriptionDTO();
-            pdto.setId(p.getId());
-            pdto.setStatus(p.getStatus() != null ? p.getStatus().toString() : null);
-            pdto.setCreatedDt(p.getCreatedDt());
-            if (p.getDoctor() != null) {
-                PatientHistoryResponseDTO.DoctorDTO d = new PatientHistoryResponseDTO.DoctorDTO();
-                d.setId(p.getDoctor().getId());
-                d.setName(p.getDoctor().getName());
-                pdto.setDoctor(d);
-            }
-            if (p.getHospital() != null) {
-                PatientHistoryResponseDTO.HospitalDTO h = new PatientHistoryResponseDTO.HospitalDTO();
-                h.setId(p.getHospital().getId());
-                h.setName(p.getHospital().getName());
-                pdto.setHospital(h);
-            }
-            return pdto;
-        }).toList());
-
-        // Map attachments from all EHRs (fix: map from entity Attachment, not AttachmentDTO)
-        List<PatientHistoryResponseDTO.AttachmentDTO> attachments = dto.getEhrs().stream()
-            .flatMap(ehr -> {
-                if (ehr.getId() == null) return java.util.stream.Stream.empty();
-                // Find the EHR entity by id to get attachments
-                com.mhms.medisynapse.entity.Ehr ehrEntity = ehrRepository.findById(ehr.getId()).orElse(null);
-                if (ehrEntity == null || ehrEntity.getAttachments() == null) return java.util.stream.Stream.empty();
-                return ehrEntity.getAttachments().stream();
-            })
-            .map(a -> {
-                PatientHistoryResponseDTO.AttachmentDTO adto = new PatientHistoryResponseDTO.AttachmentDTO();
-                adto.setId(a.getId());
-                adto.setType(a.getType() != null ? a.getType().toString() : null);
-                adto.setUrl(a.getFilePath());
-                adto.setDate(a.getCreatedDt());
-                adto.setDescription(null); // No description field in entity
-                return adto;
-            }).toList();
-        dto.setAttachments(attachments);
-
-        // Map insurances
-        dto.setInsurances(patient.getPatientInsurances() != null ? patient.getPatientInsurances().stream().map(pi -> {
-            PatientHistoryResponseDTO.InsuranceDTO idto = new PatientHistoryResponseDTO.InsuranceDTO();
-            idto.setId(pi.getInsurance().getId());
-            idto.setProvider(pi.getInsurance().getProvider());
-            idto.setPolicyNumber(pi.getInsurance().getPolicyNumber());
-            idto.setStatus(null); // No status field in entity
-            idto.setStartDate(pi.getInsurance().getValidFrom());
-            idto.setEndDate(pi.getInsurance().getValidTo());
-            return idto;
-        }).toList() : java.util.Collections.emptyList());
-
-        // Map billings
-        dto.setBillings(patient.getBillings() != null ? patient.getBillings().stream().map(b -> {
-            PatientHistoryResponseDTO.BillingDTO bdto = new PatientHistoryResponseDTO.BillingDTO();
-            bdto.setId(b.getId());
-            bdto.setType(b.getPaymentMethod() != null ? b.getPaymentMethod().toString() : null);
-            bdto.setAmount(b.getTotalAmount() != null ? b.getTotalAmount().doubleValue() : null);
-            bdto.setStatus(b.getStatus() != null ? b.getStatus().toString() : null);
-            bdto.setDate(b.getCreatedDt());
-            return bdto;
-        }).toList() : java.util.Collections.emptyList());
-
-        // Map hospitals
-        dto.setHospitals(patient.getPatientHospitals() != null ? patient.getPatientHospitals().stream().map(ph -> {
-            PatientHistoryResponseDTO.HospitalDTO hdto = new PatientHistoryResponseDTO.HospitalDTO();
-            hdto.setId(ph.getHospital().getId());
-            hdto.setName(ph.getHospital().getName());
-            hdto.setAddress(null); // No address mapping for now
-            return hdto;
-        }).toList() : java.util.Collections.emptyList());
-
-        // LabResults: Not directly available, set as empty for now
-        dto.setLabResults(java.util.Collections.emptyList());
-
-        dto.setAppointments(dto.getAppointments() != null ? dto.getAppointments() : java.util.Collections.emptyList());
-        dto.setAdmissions(dto.getAdmissions() != null ? dto.getAdmissions() : java.util.Collections.emptyList());
-        dto.setEhrs(dto.getEhrs() != null ? dto.getEhrs() : java.util.Collections.emptyList());
-
-        return dto;
+        log.info("Fetching full history for patient ID: {}", patientId);
+        return patientHistoryAssembler.assemble(patientId);
     }
 }
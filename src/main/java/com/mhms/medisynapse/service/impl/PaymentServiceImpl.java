@@ -4,12 +4,16 @@ import com.mhms.medisynapse.dto.PaymentRequestDto;
 import com.mhms.medisynapse.dto.PaymentResponseDto;
 import com.mhms.medisynapse.entity.Billing;
 import com.mhms.medisynapse.entity.Payment;
+import com.mhms.medisynapse.event.BillingLedgerChangedEvent;
 import com.mhms.medisynapse.exception.ResourceNotFoundException;
+import com.mhms.medisynapse.numbering.DocumentNumberGenerator;
+import com.mhms.medisynapse.numbering.DocumentType;
 import com.mhms.medisynapse.repository.BillingRepository;
 import com.mhms.medisynapse.repository.PaymentRepository;
 import com.mhms.medisynapse.service.PaymentService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -19,6 +23,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -27,6 +32,8 @@ public class PaymentServiceImpl implements PaymentService {
 
     private final PaymentRepository paymentRepository;
     private final BillingRepository billingRepository;
+    private final DocumentNumberGenerator documentNumberGenerator;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -37,52 +44,48 @@ public class PaymentServiceImpl implements PaymentService {
         Billing billing = billingRepository.findById(request.getBillingId())
                 .orElseThrow(() -> new ResourceNotFoundException("Billing not found with ID: " + request.getBillingId()));
 
-        // Validate payment amount
+        // Fail fast on the balance just read; applyPayment re-checks it atomically
         if (request.getAmount().compareTo(billing.getOutstandingAmount()) > 0) {
             throw new IllegalArgumentException("Payment amount cannot exceed outstanding amount: " + billing.getOutstandingAmount());
         }
 
+        // Numbered before the bill is locked: allocating a receipt block needs a connection of its own
+        String receiptNumber = documentNumberGenerator.next(DocumentType.RECEIPT, billing.getHospital().getId());
+
+        // Update billing amounts and status first: the bill's row lock is then taken before the payment insert
+        // share-locks it through the foreign key, so concurrent payments on one bill queue instead of deadlocking
+        applyPayment(billing.getId(), request.getAmount(), createdBy);
+        Billing paid = billingRepository.findById(billing.getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Billing not found with ID: " + billing.getId()));
+
         // Create a payment record
         Payment payment = new Payment();
-        payment.setBilling(billing);
-        payment.setPatient(billing.getPatient());
+        payment.setBilling(paid);
+        payment.setPatient(paid.getPatient());
         payment.setAmount(request.getAmount());
         payment.setPaymentDate(LocalDateTime.now());
         payment.setPaymentMethod(request.getPaymentMethod());
         payment.setReferenceNo(request.getReferenceNo());
+        payment.setReceiptNumber(receiptNumber);
         payment.setCreatedBy(createdBy);
         payment.setIsActive(true);
 
         payment = paymentRepository.save(payment);
         log.info("Payment saved with ID: {}", payment.getId());
-
-        // Update billing amounts and status
-        updateBillingStatus(billing, request.getAmount());
+        publishLedgerChange(payment);
 
         return mapToResponseDto(payment);
     }
 
-    private void updateBillingStatus(Billing billing, BigDecimal paymentAmount) {
-        // Update paid amount
-        BigDecimal newPaidAmount = billing.getPaidAmount().add(paymentAmount);
-        billing.setPaidAmount(newPaidAmount);
-
-        // Update outstanding amount
-        BigDecimal newOutstandingAmount = billing.getNetAmount().subtract(newPaidAmount);
-        billing.setOutstandingAmount(newOutstandingAmount);
-
-        // Update billing status based on outstanding amount
-        if (newOutstandingAmount.compareTo(BigDecimal.ZERO) == 0) {
-            billing.setStatus(Billing.BillingStatus.PAID);
-            log.info("Billing ID {} status updated to PAID", billing.getId());
-        } else if (newPaidAmount.compareTo(BigDecimal.ZERO) > 0) {
-            billing.setStatus(Billing.BillingStatus.PARTIALLY_PAID);
-            log.info("Billing ID {} status updated to PARTIALLY_PAID", billing.getId());
+    private void applyPayment(Long billingId, BigDecimal paymentAmount, Long updatedBy) {
+        int updated = billingRepository.applyPayment(billingId, paymentAmount, Billing.BillingStatus.PAID,
+                Billing.BillingStatus.PARTIALLY_PAID, updatedBy, LocalDateTime.now());
+        if (updated == 0) {
+            // A concurrent payment reduced the outstanding amount below this one
+            throw new IllegalArgumentException("Payment amount exceeds the current outstanding amount of billing ID: "
+                    + billingId);
         }
-
-        billingRepository.save(billing);
-        log.info("Billing ID {} updated - Paid: {}, Outstanding: {}",
-                billing.getId(), newPaidAmount, newOutstandingAmount);
+        log.info("Billing ID {} updated - Paid: +{}", billingId, paymentAmount);
     }
 
     @Override
@@ -150,30 +153,35 @@ public class PaymentServiceImpl implements PaymentService {
             throw new IllegalStateException("Payment is already voided");
         }
 
-        // Mark payment as inactive
-        payment.setIsActive(false);
-        payment.setUpdatedBy(updatedBy);
-        payment = paymentRepository.save(payment);
-
-        // Reverse the payment in billing
-        Billing billing = payment.getBilling();
-        BigDecimal reversedPaidAmount = billing.getPaidAmount().subtract(payment.getAmount());
-        BigDecimal reversedOutstandingAmount = billing.getOutstandingAmount().add(payment.getAmount());
-
-        billing.setPaidAmount(reversedPaidAmount);
-        billing.setOutstandingAmount(reversedOutstandingAmount);
+        Long billingId = payment.getBilling().getId();
+        BigDecimal amount = payment.getAmount();
+
+        // Reverse the payment in billing first, so the bill's row lock is taken before the payment's, in the same
+        // order as payments and refunds take them
+        LocalDateTime now = LocalDateTime.now();
+        int updated = billingRepository.reversePayment(billingId, amount, Billing.BillingStatus.DRAFT,
+                Billing.BillingStatus.PARTIALLY_PAID, updatedBy, now);
+        if (updated == 0) {
+            throw new IllegalStateException("Paid amount of billing ID " + billingId
+                    + " is lower than the payment being voided");
+        }
 
-        // Update billing status
-        if (reversedOutstandingAmount.compareTo(billing.getNetAmount()) == 0) {
-            billing.setStatus(Billing.BillingStatus.DRAFT);
-        } else if (reversedPaidAmount.compareTo(BigDecimal.ZERO) > 0) {
-            billing.setStatus(Billing.BillingStatus.PARTIALLY_PAID);
+        // Mark payment as inactive; the guard makes a concurrent second void fail here and roll back the reversal
+        if (paymentRepository.voidIfActive(paymentId, updatedBy, now) == 0) {
+            throw new IllegalStateException("Payment is already voided");
         }
+        log.info("Payment ID {} voided and billing ID {} updated", paymentId, billingId);
 
-        billingRepository.save(billing);
-        log.info("Payment ID {} voided and billing ID {} updated", paymentId, billing.getId());
+        Payment voided = paymentRepository.findById(paymentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Payment not found with ID: " + paymentId));
+        publishLedgerChange(voided);
+        return mapToResponseDto(voided);
+    }
 
-        return mapToResponseDto(payment);
+    private void publishLedgerChange(Payment payment) {
+        Billing billing = payment.getBilling();
+        eventPublisher.publishEvent(new BillingLedgerChangedEvent(billing.getHospital().getId(),
+                Stream.of(billing.getBillDate(), payment.getPaymentDate().toLocalDate()).collect(Collectors.toSet())));
     }
 
     private PaymentResponseDto mapToResponseDto(Payment payment) {
@@ -185,6 +193,7 @@ public class PaymentServiceImpl implements PaymentService {
                 .paymentDate(payment.getPaymentDate())
                 .paymentMethod(payment.getPaymentMethod())
                 .referenceNo(payment.getReferenceNo())
+                .receiptNumber(payment.getReceiptNumber())
                 .createdDt(payment.getCreatedDt())
                 .createdBy(payment.getCreatedBy())
                 .isActive(payment.getIsActive())
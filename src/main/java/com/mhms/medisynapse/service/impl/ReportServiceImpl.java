@@ -250,7 +250,9 @@ public class ReportServiceImpl implements ReportService {
             parameters.put("hospitalName", hospital.getName());
             parameters.put("hospitalAddress", hospital.getAddressString() != null ? hospital.getAddressString() : (hospital.getAddress() != null ? hospital.getAddress().getFullAddress() : ""));
             parameters.put("hospitalContact", hospital.getPhone() != null ? hospital.getPhone() : "");
-            parameters.put("receiptNumber", "RCPT-" + payment.getId());
+            // Payments recorded before receipt numbering fall back to the id-based number
+            parameters.put("receiptNumber", payment.getReceiptNumber() != null
+                    ? payment.getReceiptNumber() : "RCPT-" + payment.getId());
             parameters.put("patientName", patient.getFirstName() + " " + patient.getLastName());
             parameters.put("paymentDate", payment.getPaymentDate());
             parameters.put("amount", payment.getAmount());
@@ -20,6 +20,8 @@ import com.mhms.medisynapse.exception.ValidationException;
 import com.mhms.medisynapse.repository.AppointmentRepository;
 import com.mhms.medisynapse.repository.HospitalRepository;
 import com.mhms.medisynapse.repository.UserRepository;
+import com.mhms.medisynapse.scheduling.HospitalClock;
+import com.mhms.medisynapse.scheduling.SlotAvailabilityEngine;
 import com.mhms.medisynapse.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -34,11 +36,9 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -50,6 +50,8 @@ public class UserServiceImpl implements UserService {
     private final HospitalRepository hospitalRepository;
     private final PasswordEncoder passwordEncoder;
     private final AppointmentRepository appointmentRepository;
+    private final SlotAvailabilityEngine slotAvailabilityEngine;
+    private final HospitalClock hospitalClock;
 
     @Override
     public HospitalAdminResponseDto createHospitalAdmin(CreateHospitalAdminDto createDto) {
@@ -366,10 +368,12 @@ public class UserServiceImpl implements UserService {
         }
 
         // Fetch appointments for the doctor on the specified date
-        List<Appointment> appointments = appointmentRepository.findAppointmentsByDoctorAndDate(doctorId, date);
+        List<Appointment> appointments = appointmentRepository.findAppointmentsByDoctorAndDate(
+                doctorId, hospitalClock.startOfDay(date), hospitalClock.startOfNextDay(date));
 
         // Generate time slots (assuming 30-minute slots from 9 AM to 5 PM)
-        List<DoctorAvailabilityDto.TimeSlotDto> timeSlots = generateTimeSlots(appointments);
+        List<DoctorAvailabilityDto.TimeSlotDto> timeSlots = slotAvailabilityEngine.generateTimeSlots(
+                date, LocalTime.of(9, 0), LocalTime.of(17, 0), 30, appointments);
 
         return DoctorAvailabilityDto.builder()
                 .doctorId(doctorId)
@@ -380,7 +384,8 @@ public class UserServiceImpl implements UserService {
 
     private DoctorDto mapToDoctorDto(User user) {
         // Get today's appointment count
-        Long todayAppointments = userRepository.countTodayAppointmentsByDoctor(user.getId());
+        Long todayAppointments = userRepository.countTodayAppointmentsByDoctor(
+                user.getId(), hospitalClock.startOfToday(), hospitalClock.startOfTomorrow());
 
         // Create sample schedule (in real implementation, this would come from a schedule table)
         Map<String, DoctorDto.ScheduleDto> schedule = createDefaultSchedule();
@@ -416,42 +421,6 @@ public class UserServiceImpl implements UserService {
         return schedule;
     }
 
-    private List<DoctorAvailabilityDto.TimeSlotDto> generateTimeSlots(List<Appointment> appointments) {
-        List<DoctorAvailabilityDto.TimeSlotDto> timeSlots = new ArrayList<>();
-
-        // Generate 30-minute slots from 9:00 AM to 5:00 PM
-        LocalTime startTime = LocalTime.of(9, 0);
-        LocalTime endTime = LocalTime.of(17, 0);
-
-        LocalTime currentTime = startTime;
-        while (currentTime.isBefore(endTime)) {
-            LocalTime slotEndTime = currentTime.plusMinutes(30);
-
-            // Check if this slot is booked
-            final LocalTime finalCurrentTime = currentTime;
-            final LocalTime finalSlotEndTime = slotEndTime;
-
-            Optional<Appointment> bookedAppointment = appointments.stream()
-                    .filter(apt -> {
-                        LocalTime aptTime = apt.getStartTime().toLocalTime();
-                        return !aptTime.isBefore(finalCurrentTime) && aptTime.isBefore(finalSlotEndTime);
-                    })
-                    .findFirst();
-
-            DoctorAvailabilityDto.TimeSlotDto.TimeSlotDtoBuilder slotBuilder = DoctorAvailabilityDto.TimeSlotDto.builder()
-                    .startTime(currentTime.toString())
-                    .endTime(slotEndTime.toString())
-                    .available(bookedAppointment.isEmpty());
-
-            bookedAppointment.ifPresent(appointment -> slotBuilder.appointmentId(appointment.getId()));
-
-            timeSlots.add(slotBuilder.build());
-            currentTime = slotEndTime;
-        }
-
-        return timeSlots;
-    }
-
     private AvailableHospitalDto mapToAvailableHospitalDto(Hospital hospital) {
         return AvailableHospitalDto.builder()
                 .id(hospital.getId())
@@ -0,0 +1,22 @@
+-- Migration script for aggregate refresh locks
+-- Description: One row per key that recomputations of a derived table (appointment rollups, revenue ledgers)
+--              serialize on. A per-scope refresh takes its day's key in shared mode and its own scope key
+--              exclusively; a whole-day rebuild takes the day's key exclusively, so it waits for in-flight refreshes
+--              of that day and they wait for it. Startup backfills and nightly reconciles run on the one node that
+--              gets their key without waiting. Rows only carry locks and are purged by the nightly reconcile.
+
+USE medisynapse;
+
+CREATE TABLE IF NOT EXISTS aggregate_refresh_lock
+(
+    lock_key  VARCHAR(120) PRIMARY KEY,
+    locked_dt DATETIME NOT NULL,
+    KEY idx_aggregate_refresh_lock_locked_dt (locked_dt)
+);
+
+-- Verify the plan: taking a lock should be a const lookup on the primary key
+EXPLAIN
+SELECT lock_key
+FROM aggregate_refresh_lock
+WHERE lock_key = 'appointment-rollup:2025-01-01'
+    FOR UPDATE;
@@ -0,0 +1,39 @@
+-- Migration script for appointment daily rollups
+-- Description: One row per hospital, department, doctor, day, status and appointment type with the number of
+--              appointments and their total booked minutes. Appointment statistics over any date range are
+--              answered by summing these rows instead of scanning the appointment table. Rows are refreshed
+--              per doctor-day on every appointment write and rebuilt by the backfill job
+--              (appointment-rollups.* in application.yml); the table fills itself on first startup when empty.
+
+USE medisynapse;
+
+CREATE TABLE IF NOT EXISTS appointment_daily_rollup
+(
+    id                BIGINT PRIMARY KEY AUTO_INCREMENT,
+    hospital_id       BIGINT      NOT NULL,
+    department_id     BIGINT      NOT NULL,
+    doctor_id         BIGINT      NOT NULL,
+    appointment_date  DATE        NOT NULL,
+    status            VARCHAR(30) NOT NULL,
+    appointment_type  VARCHAR(50) NOT NULL,
+    appointment_count BIGINT      NOT NULL DEFAULT 0,
+    total_minutes     BIGINT      NOT NULL DEFAULT 0,
+    UNIQUE KEY uk_appointment_rollup (doctor_id, appointment_date, hospital_id, department_id, status,
+                                      appointment_type),
+    -- Statistics ranges for a hospital
+    KEY idx_appointment_rollup_hospital_date (hospital_id, appointment_date),
+    -- Statistics ranges filtered to one department
+    KEY idx_appointment_rollup_department_date (department_id, appointment_date)
+);
+
+CREATE INDEX IF NOT EXISTS idx_appointment_rollup_department_date
+    ON appointment_daily_rollup (department_id, appointment_date);
+
+-- Verify the plan: the statistics query should be a range access on idx_appointment_rollup_hospital_date
+EXPLAIN
+SELECT status, SUM(appointment_count), SUM(total_minutes)
+FROM appointment_daily_rollup
+WHERE hospital_id = 1
+  AND appointment_date >= CURRENT_DATE - INTERVAL 30 DAY
+  AND appointment_date <= CURRENT_DATE
+GROUP BY status;
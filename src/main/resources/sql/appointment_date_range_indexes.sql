@@ -0,0 +1,57 @@
+-- Migration script for sargable date-range appointment queries
+-- Description: Day filters now use half-open [dayStart, nextDayStart) predicates on start_time instead of
+--              DATE(start_time), so composite indexes leading with the equality columns and ending in
+--              start_time can serve them as range scans.
+
+USE medisynapse;
+
+-- Expression indexes on DATE(start_time) are no longer matched by any query
+DROP INDEX IF EXISTS idx_appointment_doctor_date ON appointment;
+DROP INDEX IF EXISTS idx_appointment_hospital_date ON appointment;
+
+-- Doctor day schedule, availability, conflict checks and today's counters
+CREATE INDEX IF NOT EXISTS idx_appointment_doctor_start_status
+    ON appointment (fk_doctor_id, start_time, status, is_active);
+
+-- Hospital-wide upcoming lists, filtered listings and statistics ranges
+CREATE INDEX IF NOT EXISTS idx_appointment_hospital_start
+    ON appointment (fk_hospital_id, start_time);
+
+-- Patient appointment history within a hospital
+CREATE INDEX IF NOT EXISTS idx_appointment_patient_hospital_start
+    ON appointment (fk_patient_id, fk_hospital_id, start_time);
+
+-- Department today/monthly counters
+CREATE INDEX IF NOT EXISTS idx_appointment_department_start
+    ON appointment (fk_department_id, start_time);
+
+-- Department admissions created today
+CREATE INDEX IF NOT EXISTS idx_admission_department_created
+    ON admission (fk_department_id, created_dt);
+
+-- Verify the plans: each should show a range access on the new index rather than a full scan
+EXPLAIN
+SELECT *
+FROM appointment
+WHERE fk_doctor_id = 1
+  AND start_time >= CURRENT_DATE
+  AND start_time < CURRENT_DATE + INTERVAL 1 DAY
+  AND status IN ('SCHEDULED', 'CONFIRMED', 'IN_PROGRESS')
+  AND is_active = TRUE
+ORDER BY start_time;
+
+EXPLAIN
+SELECT COUNT(*)
+FROM appointment
+WHERE fk_department_id = 1
+  AND start_time >= CURRENT_DATE
+  AND start_time < CURRENT_DATE + INTERVAL 1 DAY
+  AND is_active = TRUE;
+
+EXPLAIN
+SELECT *
+FROM appointment
+WHERE fk_patient_id = 1
+  AND fk_hospital_id = 1
+  AND is_active = TRUE
+ORDER BY start_time DESC;
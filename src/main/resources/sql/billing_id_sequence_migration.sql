@@ -0,0 +1,29 @@
+-- Migration script for pooled billing ids
+-- Description: billing, bill_item, payment and refund ids are now allocated by Hibernate from the id_sequence
+--              table in blocks of 50 (pooled optimizer) instead of AUTO_INCREMENT, so bill and item inserts can be
+--              sent as JDBC batches. Each row holds the upper bound of the last allocated block; the seed must be at
+--              least MAX(id) + 50 so the first block starts above existing rows. Rows for these tables must be
+--              inserted through the application from now on.
+
+USE medisynapse;
+
+CREATE TABLE IF NOT EXISTS id_sequence
+(
+    sequence_name VARCHAR(100) NOT NULL PRIMARY KEY,
+    next_val      BIGINT       NOT NULL
+);
+
+INSERT IGNORE INTO id_sequence (sequence_name, next_val)
+SELECT 'billing', COALESCE(MAX(id), 0) + 50 FROM billing;
+
+INSERT IGNORE INTO id_sequence (sequence_name, next_val)
+SELECT 'bill_item', COALESCE(MAX(id), 0) + 50 FROM bill_item;
+
+INSERT IGNORE INTO id_sequence (sequence_name, next_val)
+SELECT 'payment', COALESCE(MAX(id), 0) + 50 FROM payment;
+
+INSERT IGNORE INTO id_sequence (sequence_name, next_val)
+SELECT 'refund', COALESCE(MAX(id), 0) + 50 FROM refund;
+
+-- Verify the seeds
+SELECT sequence_name, next_val FROM id_sequence ORDER BY sequence_name;
@@ -0,0 +1,33 @@
+-- Migration script for persisted department wait-time sketches
+-- Description: One row per department and hour holding a compressed HdrHistogram of the wait (scheduled start to
+--              check-in, in seconds) of the appointments scheduled in that hour. A row is recomputed from the
+--              appointment table, under its own row lock, whenever one of its appointments changes after check-in,
+--              so every node reads the same sketches. Wait-time percentiles over any window merge the rows in that
+--              window. Rows older than wait-time-sketches.retention-days are purged hourly; the table fills itself
+--              on first startup when empty.
+
+USE medisynapse;
+
+CREATE TABLE IF NOT EXISTS department_wait_time_sketch
+(
+    id              BIGINT PRIMARY KEY AUTO_INCREMENT,
+    department_id   BIGINT   NOT NULL,
+    sketch_hour     DATETIME NOT NULL,
+    wait_count      BIGINT   NOT NULL DEFAULT 0,
+    sketch          BLOB     NULL COMMENT 'HdrHistogram compressed encoding',
+    last_updated_dt DATETIME NOT NULL,
+    -- One row per department-hour, locked while it is recomputed; also serves the window reads
+    UNIQUE KEY uk_wait_time_sketch_department_hour (department_id, sketch_hour),
+    KEY idx_wait_time_sketch_hour (sketch_hour)
+);
+
+-- A department-hour is recomputed through idx_appointment_department_start (appointment_date_range_indexes.sql)
+
+-- Verify the plan: a window read should be a range access on uk_wait_time_sketch_department_hour
+EXPLAIN
+SELECT department_id, sketch
+FROM department_wait_time_sketch
+WHERE department_id IN (1, 2, 3)
+  AND sketch_hour >= NOW() - INTERVAL 30 DAY
+  AND sketch_hour < NOW()
+  AND wait_count > 0;
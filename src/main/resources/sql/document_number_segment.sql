@@ -0,0 +1,31 @@
+-- Migration script for collision-free document numbers
+-- Description: Bill, receipt and claim numbers are issued per hospital and day as PREFIX-<hospital>-<yyyyMMdd>-<seq>.
+--              Application nodes reserve blocks of sequence values by advancing max_value in
+--              document_number_segment (document-numbers.block-size in application.yml) and hand them out from
+--              memory. Payments and insurance claims get columns to store their numbers.
+
+USE medisynapse;
+
+CREATE TABLE IF NOT EXISTS document_number_segment
+(
+    id            BIGINT PRIMARY KEY AUTO_INCREMENT,
+    document_type VARCHAR(20) NOT NULL,
+    hospital_id   BIGINT      NOT NULL,
+    sequence_date DATE        NOT NULL,
+    max_value     BIGINT      NOT NULL,
+    UNIQUE KEY uk_document_number_segment (document_type, hospital_id, sequence_date)
+);
+
+-- Existing payments keep the id-based receipt number (RCPT-<id>) on their receipts
+ALTER TABLE payment
+    ADD COLUMN IF NOT EXISTS receipt_number VARCHAR(50) NULL UNIQUE COMMENT 'Receipt number issued with the payment';
+
+ALTER TABLE insurance_claim
+    ADD COLUMN IF NOT EXISTS claim_number VARCHAR(50) NULL UNIQUE COMMENT 'Claim number issued on submission';
+
+-- Verify the changes
+SELECT TABLE_NAME, COLUMN_NAME, COLUMN_TYPE, IS_NULLABLE
+FROM INFORMATION_SCHEMA.COLUMNS
+WHERE TABLE_SCHEMA = 'medisynapse'
+  AND ((TABLE_NAME = 'payment' AND COLUMN_NAME = 'receipt_number')
+    OR (TABLE_NAME = 'insurance_claim' AND COLUMN_NAME = 'claim_number'));
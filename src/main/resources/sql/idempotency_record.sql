@@ -0,0 +1,26 @@
+-- Migration script for idempotent billing and payment requests
+-- Description: POSTs to the billing and payment endpoints may carry an Idempotency-Key header. Each key (hashed
+--              with the caller and path) is claimed here as IN_PROGRESS before the request runs and then stores
+--              the response so retries, on any node, replay it. Rows expire after idempotency.ttl-hours and are
+--              purged by a scheduled job.
+
+USE medisynapse;
+
+CREATE TABLE IF NOT EXISTS idempotency_record
+(
+    idempotency_key       CHAR(64) PRIMARY KEY COMMENT 'SHA-256 of user, path and Idempotency-Key header',
+    request_hash          CHAR(64)    NOT NULL COMMENT 'SHA-256 of query string and body',
+    status                VARCHAR(20) NOT NULL,
+    response_status       INT         NULL,
+    response_content_type VARCHAR(100) NULL,
+    response_body         MEDIUMTEXT  NULL,
+    created_dt            DATETIME    NOT NULL,
+    expires_at            DATETIME    NOT NULL,
+    INDEX idx_idempotency_record_expires_at (expires_at)
+);
+
+-- Verify the changes
+SELECT TABLE_NAME, COLUMN_NAME, COLUMN_TYPE, IS_NULLABLE
+FROM INFORMATION_SCHEMA.COLUMNS
+WHERE TABLE_SCHEMA = 'medisynapse'
+  AND TABLE_NAME = 'idempotency_record';
@@ -0,0 +1,55 @@
+-- Migration script for keyset (cursor) pagination
+-- Description: Cursor mode seeks with (sort_column, id) < (last_value, last_id) in descending order. InnoDB
+--              secondary indexes carry the primary key, so (filter columns, sort column) indexes serve both
+--              the seek and the ORDER BY without a filesort. The seek compares with < and >, which no NULL
+--              satisfies, so every cursor sort column is made NOT NULL (as the entities already map them).
+
+USE medisynapse;
+
+-- Hospital billing list, newest first
+CREATE INDEX IF NOT EXISTS idx_billing_hospital_created
+    ON billing (fk_hospital_id, created_dt);
+
+-- Hospital billing list filtered by status
+CREATE INDEX IF NOT EXISTS idx_billing_hospital_status_created
+    ON billing (fk_hospital_id, status, created_dt);
+
+-- Patient list, newest first (hospital membership is checked per row through patient_hospital)
+CREATE INDEX IF NOT EXISTS idx_patient_created
+    ON patient (created_dt);
+
+-- Patient appointment history is served by idx_appointment_patient_hospital_start
+-- from appointment_date_range_indexes.sql
+
+-- Cursor sort columns must be NOT NULL. created_dt was declared with only a default, so backfill rows that
+-- were inserted with an explicit NULL (keeping last_updated_dt as it is) before tightening the columns.
+UPDATE appointment
+SET end_time        = DATE_ADD(start_time, INTERVAL COALESCE(duration_minutes, 30) MINUTE),
+    last_updated_dt = last_updated_dt
+WHERE end_time IS NULL;
+
+UPDATE appointment
+SET created_dt      = COALESCE(last_updated_dt, start_time, CURRENT_TIMESTAMP),
+    last_updated_dt = last_updated_dt
+WHERE created_dt IS NULL;
+
+UPDATE patient
+SET created_dt      = COALESCE(last_updated_dt, CURRENT_TIMESTAMP),
+    last_updated_dt = last_updated_dt
+WHERE created_dt IS NULL;
+
+UPDATE billing
+SET created_dt      = COALESCE(last_updated_dt, CURRENT_TIMESTAMP),
+    last_updated_dt = last_updated_dt
+WHERE created_dt IS NULL;
+
+ALTER TABLE appointment
+    MODIFY start_time DATETIME NOT NULL,
+    MODIFY end_time DATETIME NOT NULL,
+    MODIFY created_dt DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+ALTER TABLE patient
+    MODIFY created_dt DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+ALTER TABLE billing
+    MODIFY created_dt DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP;
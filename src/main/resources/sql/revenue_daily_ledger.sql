@@ -0,0 +1,48 @@
+-- Migration script for revenue daily ledgers
+-- Description: One row per hospital, day, entry type and dimension with the amount billed, collected or refunded.
+--              BILLED rows split each bill's net amount (and its current outstanding balance) across its service
+--              types on the bill date; PAYMENT rows hold payments and insurance settlements by payment method on
+--              the day received; REFUND rows hold refunds on the day issued. Department comes from the bill's
+--              appointment. Revenue analytics over any date range sum these rows instead of scanning billing and
+--              payment tables. A hospital-day is recomputed after every billing, payment, refund or settlement
+--              write and recent days are rebuilt nightly (revenue-ledgers.* in application.yml); the table fills
+--              itself on first startup when empty.
+
+USE medisynapse;
+
+CREATE TABLE IF NOT EXISTS revenue_daily_ledger
+(
+    id                 BIGINT PRIMARY KEY AUTO_INCREMENT,
+    hospital_id        BIGINT         NOT NULL,
+    ledger_date        DATE           NOT NULL,
+    entry_type         VARCHAR(20)    NOT NULL,
+    department_id      BIGINT         NULL,
+    payment_method     VARCHAR(30)    NULL,
+    service_type       VARCHAR(100)   NULL,
+    amount             DECIMAL(19, 4) NOT NULL DEFAULT 0,
+    outstanding_amount DECIMAL(19, 4) NOT NULL DEFAULT 0,
+    -- Analytics ranges and per hospital-day refreshes
+    KEY idx_revenue_ledger_hospital_date (hospital_id, ledger_date)
+);
+
+-- Source lookups used when a hospital-day is recomputed
+CREATE INDEX IF NOT EXISTS idx_billing_hospital_bill_date
+    ON billing (fk_hospital_id, bill_date);
+
+CREATE INDEX IF NOT EXISTS idx_payment_date
+    ON payment (payment_date);
+
+CREATE INDEX IF NOT EXISTS idx_refund_dt
+    ON refund (refund_dt);
+
+CREATE INDEX IF NOT EXISTS idx_insurance_settlement_date
+    ON insurance_settlement (settlement_date);
+
+-- Verify the plan: the analytics query should be a range access on idx_revenue_ledger_hospital_date
+EXPLAIN
+SELECT ledger_date, entry_type, SUM(amount), SUM(outstanding_amount)
+FROM revenue_daily_ledger
+WHERE hospital_id = 1
+  AND ledger_date >= CURRENT_DATE - INTERVAL 90 DAY
+  AND ledger_date <= CURRENT_DATE
+GROUP BY ledger_date, entry_type;
@@ -0,0 +1,103 @@
+package com.mhms.medisynapse.live;
+
+import com.mhms.medisynapse.controller.HospitalAdminDashboardController;
+import com.mhms.medisynapse.dto.HospitalDto;
+import com.mhms.medisynapse.entity.Hospital;
+import com.mhms.medisynapse.service.HospitalService;
+import com.mhms.medisynapse.support.MySqlIntegrationTest;
+import com.mhms.medisynapse.support.TestFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Checks that committed writes reach the hospital dashboard stream, using the controller directly so the stream is
+ * a real async SSE response without the security filter chain in front of it.
+ */
+class LiveUpdateHubTest extends MySqlIntegrationTest {
+
+    private static final Duration DELIVERY_TIMEOUT = Duration.ofSeconds(5);
+
+    @Autowired
+    private HospitalAdminDashboardController dashboardController;
+
+    @Autowired
+    private HospitalService hospitalService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    private MockMvc mockMvc;
+    private Hospital hospital;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(dashboardController).build();
+        hospital = fixtures.hospital();
+    }
+
+    @Test
+    void freedBedIsPushedToHospitalSubscribers() throws Exception {
+        MvcResult stream = subscribe();
+
+        hospitalService.updateHospital(hospital.getId(), withAvailableBeds(hospital.getAvailableBeds() - 1));
+        hospitalService.updateHospital(hospital.getId(), withAvailableBeds(hospital.getAvailableBeds()));
+
+        assertThat(awaitEvents(stream, 2)).contains("\"type\":\"DASHBOARD_DATA_CHANGED\"")
+                .contains("\"hospitalId\":" + hospital.getId());
+    }
+
+    @Test
+    void updateWithoutBedChangeIsNotPushed() throws Exception {
+        MvcResult stream = subscribe();
+
+        HospitalDto unchangedBeds = withAvailableBeds(hospital.getAvailableBeds());
+        unchangedBeds.setPhone("555-0100");
+        hospitalService.updateHospital(hospital.getId(), unchangedBeds);
+
+        Thread.sleep(DELIVERY_TIMEOUT.toMillis() / 5);
+        assertThat(stream.getResponse().getContentAsString()).doesNotContain("DASHBOARD_DATA_CHANGED");
+    }
+
+    private MvcResult subscribe() throws Exception {
+        return mockMvc.perform(get("/api/v1/hospital-admin/dashboard/stream")
+                        .param("hospitalId", hospital.getId().toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private HospitalDto withAvailableBeds(int availableBeds) {
+        return HospitalDto.builder()
+                .name(hospital.getName())
+                .email(UUID.randomUUID().toString().substring(0, 8) + "@hospital.test")
+                .status(hospital.getStatus())
+                .totalBeds(hospital.getTotalBeds())
+                .availableBeds(availableBeds)
+                .build();
+    }
+
+    /**
+     * Waits until the stream holds {@code count} update events and returns its content.
+     */
+    private static String awaitEvents(MvcResult stream, int count) throws Exception {
+        Instant deadline = Instant.now().plus(DELIVERY_TIMEOUT);
+        String content = stream.getResponse().getContentAsString();
+        while (content.split("event:update", -1).length - 1 < count && Instant.now().isBefore(deadline)) {
+            Thread.sleep(50);
+            content = stream.getResponse().getContentAsString();
+        }
+        assertThat(content.split("event:update", -1).length - 1).isEqualTo(count);
+        return content;
+    }
+}
@@ -0,0 +1,67 @@
+package com.mhms.medisynapse.pagination;
+
+import com.mhms.medisynapse.exception.InvalidDataException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2026, 3, 14, 9, 26, 53);
+
+    @Test
+    void cursorForLastRowRoundTripsToItsSeekPosition() {
+        String cursor = KeysetCursor.nextCursor(window(CREATED, 42L), "createdDt");
+
+        KeysetScrollPosition position = (KeysetScrollPosition) KeysetCursor.toScrollPosition(cursor, "createdDt");
+
+        assertThat(position.getKeys()).containsExactly(Map.entry("createdDt", CREATED), Map.entry("id", 42L));
+    }
+
+    @Test
+    void lastRowWithoutSortValueDoesNotIssueACursor() {
+        Window<Object> window = window(null, 42L);
+
+        assertThatThrownBy(() -> KeysetCursor.nextCursor(window, "createdDt"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("createdDt");
+    }
+
+    @Test
+    void cursorWithNullSortValueIsRejectedAsInvalid() {
+        String cursor = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("createdDt|null|42".getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> KeysetCursor.toScrollPosition(cursor, "createdDt"))
+                .isInstanceOf(InvalidDataException.class);
+    }
+
+    @Test
+    void cursorForAnotherSortOrderIsRejected() {
+        String cursor = new KeysetCursor("createdDt", CREATED, 42L).encode();
+
+        assertThatThrownBy(() -> KeysetCursor.toScrollPosition(cursor, "startTime"))
+                .isInstanceOf(InvalidDataException.class);
+    }
+
+    /**
+     * A window whose only row sits at {@code (createdDt, id)} with more rows after it.
+     */
+    private static Window<Object> window(LocalDateTime createdDt, Long id) {
+        Map<String, Object> keys = new HashMap<>();
+        keys.put("createdDt", createdDt);
+        keys.put("id", id);
+        return Window.from(List.of(new Object()), index -> ScrollPosition.forward(keys), true);
+    }
+}
@@ -0,0 +1,171 @@
+package com.mhms.medisynapse.service;
+
+import com.mhms.medisynapse.dto.CreateAppointmentRequestDto;
+import com.mhms.medisynapse.entity.Appointment;
+import com.mhms.medisynapse.entity.Department;
+import com.mhms.medisynapse.entity.Hospital;
+import com.mhms.medisynapse.entity.Patient;
+import com.mhms.medisynapse.entity.User;
+import com.mhms.medisynapse.exception.BusinessLogicException;
+import com.mhms.medisynapse.repository.AppointmentRepository;
+import com.mhms.medisynapse.scheduling.HospitalClock;
+import com.mhms.medisynapse.support.MySqlIntegrationTest;
+import com.mhms.medisynapse.support.TestFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AppointmentBookingConcurrencyTest extends MySqlIntegrationTest {
+
+    private static final int THREADS = 200;
+    private static final int BOOKINGS_PER_THREAD = 3;
+    private static final int DURATION_MINUTES = 30;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private HospitalClock hospitalClock;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    private Hospital hospital;
+    private Department department;
+    private User doctor;
+    private Patient patient;
+
+    @BeforeEach
+    void setUp() {
+        hospital = fixtures.hospital();
+        department = fixtures.department(hospital);
+        doctor = fixtures.doctor(hospital, department);
+        patient = fixtures.patient();
+    }
+
+    @Test
+    void concurrentBookingsForOneDoctorNeverOverlap() throws Exception {
+        // 600 attempts at 30-minute appointments starting on any 5-minute mark of an 8-hour window
+        LocalDateTime windowStart = hospitalClock.today().plusDays(1).atTime(9, 0);
+        AtomicInteger booked = new AtomicInteger();
+        ConcurrentLinkedQueue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < BOOKINGS_PER_THREAD; i++) {
+                    LocalDateTime startTime = windowStart.plusMinutes(5L * ThreadLocalRandom.current().nextInt(96));
+                    try {
+                        appointmentService.createAppointment(request(startTime), 1L);
+                        booked.incrementAndGet();
+                    } catch (BusinessLogicException e) {
+                        assertThat(e.getMessage()).contains("not available");
+                    } catch (Throwable e) {
+                        unexpected.add(e);
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(5, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+
+        assertThat(unexpected).isEmpty();
+        List<Appointment> appointments = appointmentRepository.findBookedAppointmentsByDoctorEndingAfter(
+                doctor.getId(), windowStart.minusDays(1));
+        assertThat(appointments).hasSize(booked.get()).isNotEmpty();
+        for (int i = 0; i < appointments.size(); i++) {
+            for (int j = i + 1; j < appointments.size(); j++) {
+                Appointment a = appointments.get(i);
+                Appointment b = appointments.get(j);
+                assertThat(a.getStartTime().isBefore(b.getEndTime()) && b.getStartTime().isBefore(a.getEndTime()))
+                        .as("appointments %d and %d overlap", a.getId(), b.getId())
+                        .isFalse();
+            }
+        }
+    }
+
+    @Test
+    void bookingCommittedElsewhereIsDetected() {
+        LocalDateTime morning = hospitalClock.today().plusDays(2).atTime(9, 0);
+        LocalDateTime afternoon = morning.withHour(14);
+
+        appointmentService.createAppointment(request(morning), 1L);
+
+        // Booked as another node would: committed straight to the table
+        appointmentRepository.save(Appointment.builder()
+                .patient(patient)
+                .doctor(doctor)
+                .hospital(hospital)
+                .department(department)
+                .startTime(afternoon)
+                .durationMinutes(DURATION_MINUTES)
+                .build());
+
+        assertThatThrownBy(() -> appointmentService.createAppointment(request(afternoon.plusMinutes(15)), 1L))
+                .isInstanceOf(BusinessLogicException.class)
+                .hasMessageContaining("not available");
+    }
+
+    @Test
+    void cancelledSlotCanBeRebooked() {
+        LocalDateTime slot = hospitalClock.today().plusDays(3).atTime(10, 0);
+        Long appointmentId = appointmentService.createAppointment(request(slot), 1L).getData().getId();
+        assertThatThrownBy(() -> appointmentService.createAppointment(request(slot), 1L))
+                .isInstanceOf(BusinessLogicException.class);
+
+        appointmentService.cancelAppointment(appointmentId, "Patient request", hospital.getId(), 1L);
+
+        assertThat(appointmentService.createAppointment(request(slot), 1L).getData().getStartTime()).isEqualTo(slot);
+    }
+
+    @Test
+    void slotCancelledElsewhereCanBeRebooked() {
+        LocalDateTime slot = hospitalClock.today().plusDays(4).atTime(11, 0);
+        Long appointmentId = appointmentService.createAppointment(request(slot), 1L).getData().getId();
+        assertThatThrownBy(() -> appointmentService.createAppointment(request(slot), 1L))
+                .isInstanceOf(BusinessLogicException.class);
+
+        // Cancelled as another node would: committed straight to the table
+        Appointment appointment = appointmentRepository.findById(appointmentId).orElseThrow();
+        appointment.setStatus(Appointment.AppointmentStatus.CANCELLED);
+        appointmentRepository.save(appointment);
+
+        assertThat(appointmentService.createAppointment(request(slot), 1L).getData().getStartTime()).isEqualTo(slot);
+    }
+
+    private CreateAppointmentRequestDto request(LocalDateTime startTime) {
+        CreateAppointmentRequestDto request = new CreateAppointmentRequestDto();
+        request.setPatientId(patient.getId());
+        request.setDoctorId(doctor.getId());
+        request.setHospitalId(hospital.getId());
+        request.setDepartmentId(department.getId());
+        request.setStartTime(startTime);
+        request.setDurationMinutes(DURATION_MINUTES);
+        return request;
+    }
+}
@@ -0,0 +1,147 @@
+package com.mhms.medisynapse.service;
+
+import com.mhms.medisynapse.dto.AppointmentFilterDto;
+import com.mhms.medisynapse.entity.Department;
+import com.mhms.medisynapse.entity.Hospital;
+import com.mhms.medisynapse.entity.Patient;
+import com.mhms.medisynapse.entity.User;
+import com.mhms.medisynapse.scheduling.HospitalClock;
+import com.mhms.medisynapse.support.MySqlIntegrationTest;
+import com.mhms.medisynapse.support.TestFixtures;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the appointment list endpoints against N+1 selects: each page must be served by its page query (plus the
+ * count query where totals are returned), however many distinct patients, doctors and departments it shows.
+ */
+class AppointmentListQueryCountTest extends MySqlIntegrationTest {
+
+    private static final int ROWS = 6;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private HospitalClock hospitalClock;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Hospital hospital;
+    private Patient regularPatient;
+    private User firstDoctor;
+
+    @BeforeEach
+    void setUp() {
+        hospital = fixtures.hospital();
+        regularPatient = fixtures.patientWithAddress();
+        LocalDateTime tomorrow = hospitalClock.startOfTomorrow();
+        LocalDateTime today = hospitalClock.startOfToday();
+
+        List<User> doctors = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            Department department = fixtures.department(hospital);
+            User doctor = fixtures.doctor(hospital, department);
+            doctors.add(doctor);
+            fixtures.appointment(fixtures.patientWithAddress(), doctor, department, tomorrow.plusHours(8 + i));
+            fixtures.appointment(regularPatient, doctor, department, tomorrow.plusDays(1).plusHours(8 + i));
+        }
+        firstDoctor = doctors.get(0);
+        for (int i = 0; i < ROWS; i++) {
+            fixtures.appointment(fixtures.patientWithAddress(), firstDoctor, firstDoctor.getDepartment(),
+                    today.plusMinutes(30L * i));
+        }
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @AfterEach
+    void disableStatistics() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    void filteredPageWithTotalUsesPageAndCountQueries() {
+        // A page smaller than the result forces the count query
+        var page = appointmentService.getAppointments(filter(true, ROWS)).getData();
+
+        assertThat(page.getContent()).hasSize(ROWS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void filteredSliceUsesOneQuery() {
+        var slice = appointmentService.getAppointments(filter(false, 50)).getData();
+
+        assertThat(slice.getContent()).hasSize(3 * ROWS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void filteredScrollUsesOneQuery() {
+        var window = appointmentService.scrollAppointments(filter(false, 50), null).getData();
+
+        assertThat(window.getContent()).hasSize(3 * ROWS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void upcomingAppointmentsUseOneQuery() {
+        var upcoming = appointmentService.getUpcomingAppointments(hospital.getId(), 7).getData();
+
+        assertThat(upcoming).hasSizeGreaterThanOrEqualTo(2 * ROWS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void todaysDoctorAppointmentsUseOneQuery() {
+        var today = appointmentService.getTodayAppointmentsByDoctor(firstDoctor.getId()).getData();
+
+        assertThat(today).hasSize(ROWS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void patientHistoryPageUsesPageAndCountQueries() {
+        var history = appointmentService.getPatientAppointmentHistory(
+                regularPatient.getId(), hospital.getId(), 0, ROWS - 1).getData();
+
+        assertThat(history.getContent()).hasSize(ROWS - 1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void patientHistoryScrollUsesOneQuery() {
+        var history = appointmentService.scrollPatientAppointmentHistory(
+                regularPatient.getId(), hospital.getId(), null, 20).getData();
+
+        assertThat(history.getContent()).hasSize(ROWS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private AppointmentFilterDto filter(boolean includeTotal, int size) {
+        return AppointmentFilterDto.builder()
+                .hospitalId(hospital.getId())
+                .size(size)
+                .includeTotal(includeTotal)
+                .build();
+    }
+}
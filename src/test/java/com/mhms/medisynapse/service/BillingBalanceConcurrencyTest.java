@@ -0,0 +1,163 @@
+package com.mhms.medisynapse.service;
+
+import com.mhms.medisynapse.dto.BillItemDto;
+import com.mhms.medisynapse.dto.CreateBillRequestDto;
+import com.mhms.medisynapse.dto.PaymentRequestDto;
+import com.mhms.medisynapse.dto.PaymentResponseDto;
+import com.mhms.medisynapse.dto.RefundRequestDto;
+import com.mhms.medisynapse.entity.Billing;
+import com.mhms.medisynapse.entity.Hospital;
+import com.mhms.medisynapse.entity.Patient;
+import com.mhms.medisynapse.entity.Payment;
+import com.mhms.medisynapse.entity.Refund;
+import com.mhms.medisynapse.repository.BillingRepository;
+import com.mhms.medisynapse.repository.PaymentRepository;
+import com.mhms.medisynapse.repository.RefundRepository;
+import com.mhms.medisynapse.support.MySqlIntegrationTest;
+import com.mhms.medisynapse.support.TestFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrent payments, voids and refunds on one bill must leave it balanced: the paid amount equals the active
+ * payments minus the refunds, the outstanding amount is the rest of the net amount, and the status matches both.
+ * Pins down the guarded balance UPDATEs in {@link BillingRepository}, whose SET clauses must not depend on MySQL's
+ * left-to-right assignment order.
+ */
+class BillingBalanceConcurrencyTest extends MySqlIntegrationTest {
+
+    private static final int THREADS = 8;
+    private static final int OPERATIONS_PER_THREAD = 20;
+    private static final BigDecimal NET_AMOUNT = new BigDecimal("1000.00");
+
+    @Autowired
+    private BillingService billingService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private BillingRepository billingRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private RefundRepository refundRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    private Long billingId;
+
+    @BeforeEach
+    void setUp() {
+        Hospital hospital = fixtures.hospital();
+        Patient patient = fixtures.patient();
+        BillItemDto item = new BillItemDto();
+        item.setServiceType("CONSULTATION");
+        item.setDescription("Consultation");
+        item.setQuantity(1);
+        item.setUnitPrice(NET_AMOUNT);
+        CreateBillRequestDto request = new CreateBillRequestDto();
+        request.setPatientId(patient.getId());
+        request.setHospitalId(hospital.getId());
+        request.setItems(List.of(item));
+        billingId = billingService.createBill(request, 1L).getId();
+    }
+
+    @Test
+    void concurrentPaymentsVoidsAndRefundsKeepTheBillBalanced() throws Exception {
+        ConcurrentLinkedQueue<Long> paymentIds = new ConcurrentLinkedQueue<>();
+        ConcurrentLinkedQueue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    try {
+                        int operation = random.nextInt(10);
+                        if (operation < 6) {
+                            PaymentResponseDto payment = paymentService.processPayment(
+                                    payment(BigDecimal.valueOf(random.nextInt(10, 150))), 1L);
+                            paymentIds.add(payment.getId());
+                        } else if (operation < 8) {
+                            Long paymentId = paymentIds.poll();
+                            if (paymentId != null) {
+                                paymentService.voidPayment(paymentId, 1L);
+                            }
+                        } else {
+                            billingService.processRefund(refund(BigDecimal.valueOf(random.nextInt(5, 60))), 1L);
+                        }
+                    } catch (IllegalArgumentException | IllegalStateException e) {
+                        // Overpayment, a payment voided twice, or a void larger than what is left after refunds
+                    } catch (RuntimeException e) {
+                        if (!"Refund amount cannot exceed paid amount".equals(e.getMessage())) {
+                            unexpected.add(e);
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+
+        assertThat(unexpected).isEmpty();
+        Billing billing = billingRepository.findById(billingId).orElseThrow();
+        BigDecimal payments = paymentRepository.findByBillingIdAndIsActiveTrue(billingId).stream()
+                .map(Payment::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal refunds = refundRepository.findByBillingId(billingId).stream()
+                .map(Refund::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        assertThat(payments).isPositive();
+        assertThat(billing.getPaidAmount()).isEqualByComparingTo(payments.subtract(refunds));
+        assertThat(billing.getOutstandingAmount()).isEqualByComparingTo(NET_AMOUNT.subtract(billing.getPaidAmount()));
+        if (billing.getPaidAmount().compareTo(NET_AMOUNT) == 0) {
+            assertThat(billing.getStatus()).isEqualTo(Billing.BillingStatus.PAID);
+        } else if (billing.getPaidAmount().signum() > 0) {
+            assertThat(billing.getStatus()).isEqualTo(Billing.BillingStatus.PARTIALLY_PAID);
+        } else {
+            assertThat(billing.getStatus()).isIn(Billing.BillingStatus.DRAFT, Billing.BillingStatus.REFUNDED);
+        }
+    }
+
+    private PaymentRequestDto payment(BigDecimal amount) {
+        PaymentRequestDto request = new PaymentRequestDto();
+        request.setBillingId(billingId);
+        request.setAmount(amount);
+        request.setPaymentMethod(Payment.PaymentMethod.CASH);
+        return request;
+    }
+
+    private RefundRequestDto refund(BigDecimal amount) {
+        RefundRequestDto request = new RefundRequestDto();
+        request.setBillingId(billingId);
+        request.setAmount(amount);
+        request.setReason("Stress test");
+        return request;
+    }
+}
@@ -0,0 +1,19 @@
+package com.mhms.medisynapse.support;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Base for tests that need real MySQL semantics (row locks, multi-column updates, native queries).
+ * <p>
+ * The schema is created from the entities by the {@code test} profile. Tests are skipped when Docker is not
+ * available.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestcontainersConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class MySqlIntegrationTest {
+}
@@ -0,0 +1,99 @@
+package com.mhms.medisynapse.support;
+
+import com.mhms.medisynapse.entity.Address;
+import com.mhms.medisynapse.entity.Appointment;
+import com.mhms.medisynapse.entity.Department;
+import com.mhms.medisynapse.entity.Hospital;
+import com.mhms.medisynapse.entity.Patient;
+import com.mhms.medisynapse.entity.User;
+import com.mhms.medisynapse.repository.AddressRepository;
+import com.mhms.medisynapse.repository.AppointmentRepository;
+import com.mhms.medisynapse.repository.DepartmentRepository;
+import com.mhms.medisynapse.repository.HospitalRepository;
+import com.mhms.medisynapse.repository.PatientRepository;
+import com.mhms.medisynapse.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Minimal hospital, department, doctor and patient rows for integration tests. Every call creates fresh rows so
+ * tests sharing the database do not see each other's data.
+ */
+@Component
+@RequiredArgsConstructor
+public class TestFixtures {
+
+    private final HospitalRepository hospitalRepository;
+    private final DepartmentRepository departmentRepository;
+    private final UserRepository userRepository;
+    private final PatientRepository patientRepository;
+    private final AddressRepository addressRepository;
+    private final AppointmentRepository appointmentRepository;
+
+    public Hospital hospital() {
+        return hospitalRepository.save(Hospital.builder()
+                .name("Hospital " + unique())
+                .status("ACTIVE")
+                .totalBeds(100)
+                .availableBeds(100)
+                .build());
+    }
+
+    public Department department(Hospital hospital) {
+        Department department = new Department();
+        department.setHospital(hospital);
+        department.setName("Department " + unique());
+        return departmentRepository.save(department);
+    }
+
+    public User doctor(Hospital hospital, Department department) {
+        User doctor = new User();
+        doctor.setName("Dr " + unique());
+        doctor.setEmail(unique() + "@doctor.test");
+        doctor.setPasswordHash("not-used");
+        doctor.setRole(User.UserRole.DOCTOR);
+        doctor.setHospital(hospital);
+        doctor.setDepartment(department);
+        return userRepository.save(doctor);
+    }
+
+    public Patient patient() {
+        Patient patient = new Patient();
+        patient.setFirstName("Patient");
+        patient.setLastName(unique());
+        return patientRepository.save(patient);
+    }
+
+    public Patient patientWithAddress() {
+        Address address = new Address();
+        address.setLine1(unique() + " Main Street");
+        address.setCity("Pune");
+        address.setCountry("India");
+        Patient patient = new Patient();
+        patient.setFirstName("Patient");
+        patient.setLastName(unique());
+        patient.setAddress(addressRepository.save(address));
+        return patientRepository.save(patient);
+    }
+
+    /**
+     * A scheduled appointment written straight to the repository, bypassing the booking checks.
+     */
+    public Appointment appointment(Patient patient, User doctor, Department department, LocalDateTime startTime) {
+        return appointmentRepository.save(Appointment.builder()
+                .patient(patient)
+                .doctor(doctor)
+                .hospital(doctor.getHospital())
+                .department(department)
+                .startTime(startTime)
+                .durationMinutes(30)
+                .build());
+    }
+
+    private static String unique() {
+        return UUID.randomUUID().toString().substring(0, 8);
+    }
+}